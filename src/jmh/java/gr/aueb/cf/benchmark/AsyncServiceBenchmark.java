@@ -0,0 +1,112 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ITeacherAsyncService;
+import gr.aueb.cf.service.ITeacherService;
+import gr.aueb.cf.service.impl.TeacherAsyncServiceImpl;
+import gr.aueb.cf.service.impl.TeacherServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out of {@code callers} concurrent requests through the blocking {@link TeacherServiceImpl} on a
+ * request-handler style platform thread pool, against {@link TeacherAsyncServiceImpl} on virtual threads.
+ * One operation is the whole fan-out, so the score is the time until every caller has its answer.
+ * Pinned carrier threads are reported on stdout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class AsyncServiceBenchmark {
+    @Param({"1000", "10000"})
+    public int callers;
+
+    @Param({"200"})
+    public int platformThreads;
+
+    private final ITeacherService teacherService = new TeacherServiceImpl();
+    private ITeacherAsyncService asyncTeacherService;
+    private ExecutorService platformPool;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        asyncTeacherService = new TeacherAsyncServiceImpl();
+        platformPool = Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformPool.close();
+    }
+
+    @Benchmark
+    public List<Optional<Teacher>> blockingGetById(BenchmarkDatabase db) throws Exception {
+        List<Future<Optional<Teacher>>> futures = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            long id = db.randomTeacherId();
+            futures.add(platformPool.submit(() -> teacherService.getTeacherById(id)));
+        }
+        List<Optional<Teacher>> results = new ArrayList<>(callers);
+        for (Future<Optional<Teacher>> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<Optional<Teacher>> asyncGetById(BenchmarkDatabase db) {
+        List<CompletableFuture<Optional<Teacher>>> futures = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            futures.add(asyncTeacherService.getTeacherById(db.randomTeacherId()));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Benchmark
+    public List<Page<TeacherSummary>> blockingSummariesPage(BenchmarkDatabase db) throws Exception {
+        List<Future<Page<TeacherSummary>>> futures = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            String token = Long.toString(db.randomTeacherId());
+            futures.add(platformPool.submit(() -> teacherService.getTeacherSummariesPage(token, 20)));
+        }
+        List<Page<TeacherSummary>> results = new ArrayList<>(callers);
+        for (Future<Page<TeacherSummary>> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<Page<TeacherSummary>> asyncSummariesPage(BenchmarkDatabase db) {
+        List<CompletableFuture<Page<TeacherSummary>>> futures = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            futures.add(asyncTeacherService.getTeacherSummariesPage(Long.toString(db.randomTeacherId()), 20));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.AutocompleteStats;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ITeacherAutocompleteService;
+import gr.aueb.cf.service.impl.TeacherAutocompleteServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Type-ahead through {@link TeacherAutocompleteServiceImpl} against the lastname-prefix {@code LIKE} query it
+ * replaces. The setup also loads one million synthetic teachers into a second index, without a database,
+ * and prints its estimated and measured heap footprint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AutocompleteBenchmark {
+    private static final int MILLION = 1_000_000;
+
+    private final ITeacherDAO teacherDAO = new TeacherDAOImpl();
+    private final ITeacherAutocompleteService autocomplete = new TeacherAutocompleteServiceImpl();
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) throws Exception {
+        autocomplete.load();
+        System.out.println("Index of the benchmark database: " + autocomplete.getStats());
+        reportMillionTeacherFootprint();
+    }
+
+    @Benchmark
+    public List<Long> suggestLastnamePrefix() {
+        return autocomplete.suggest(typedLastname(), 10);
+    }
+
+    @Benchmark
+    public List<Long> suggestFirstAndLastname() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return autocomplete.suggest("firstname" + random.nextInt(100) + " " + typedLastname(), 10);
+    }
+
+    @Benchmark
+    public Page<TeacherSummary> likeLastnamePrefix() {
+        return teacherDAO.search(TeacherSearchCriteria.any().withLastnamePrefix(typedLastname()),
+                TeacherSort.LASTNAME, null, 10);
+    }
+
+    /**
+     * @return the first 7 to 10 characters of a random lastname, as typed so far
+     */
+    private static String typedLastname() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String lastname = BenchmarkDatabase.lastname(random.nextInt(BenchmarkDatabase.LASTNAMES));
+        return lastname.substring(0, Math.min(lastname.length(), 7 + random.nextInt(4)));
+    }
+
+    /**
+     * Loads {@value #MILLION} teachers named like the benchmark dataset (every firstname distinct, which is
+     * the worst case for the word dictionary) and compares the index's estimate with the heap it retains.
+     */
+    private static void reportMillionTeacherFootprint() throws Exception {
+        ITeacherDAO syntheticDAO = (ITeacherDAO) Proxy.newProxyInstance(ITeacherDAO.class.getClassLoader(),
+                new Class<?>[]{ITeacherDAO.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("streamSummaries")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return LongStream.rangeClosed(1, MILLION).mapToObj(id -> {
+                        Teacher teacher = BenchmarkDatabase.newTeacher(id);
+                        return new TeacherSummary(id, 0, teacher.getFirstname(), teacher.getLastname(), true, null);
+                    });
+                });
+        long before = usedHeap();
+        ITeacherAutocompleteService index = new TeacherAutocompleteServiceImpl(syntheticDAO);
+        index.load();
+        long retained = usedHeap() - before;
+        AutocompleteStats stats = index.getStats();
+        System.out.printf("Index of %,d synthetic teachers: %s, estimated %,d KB, retained %,d KB%n",
+                stats.teachers(), stats, stats.memoryBytes() / 1024, retained / 1024);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
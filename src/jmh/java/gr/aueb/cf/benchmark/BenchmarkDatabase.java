@@ -0,0 +1,207 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.enums.GenderType;
+import gr.aueb.cf.enums.LessonType;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Region;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.util.JPAUtil;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Shared benchmark state: an in-memory H2 database (MySQL compatibility mode) standing in for MySQL,
+ * seeded with a dataset whose size is controlled by the {@code datasetSize} parameter.
+ * One teacher in {@value #TEACHERS_PER_REGION} per region, one course per {@value #TEACHERS_PER_COURSE}
+ * teachers and {@value #LASTNAMES} distinct lastnames.
+ * <p>
+ * With {@code -Dbenchmark.replicas=<n>} the primary gets {@code n} embedded read replicas, filled with a copy of
+ * the seeded primary; {@link #syncReplicas()} copies it again, standing in for replication catching up.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    static final int TEACHERS_PER_REGION = 100;
+    static final int TEACHERS_PER_COURSE = 20;
+    static final int LASTNAMES = 100;
+    private static final int SEED_CHUNK = 500;
+    private static final String H2_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String PRIMARY_URL = "jdbc:h2:mem:school" + H2_OPTIONS;
+
+    @Param({"1000", "10000"})
+    public int datasetSize;
+
+    public long[] teacherIds;
+    public long[] courseIds;
+    public long[] regionIds;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configureEmbeddedDatabase();
+        seed();
+        syncReplicas();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Connection pool: " + JPAUtil.getPoolStats());
+        JPAUtil.getCacheStats().forEach(stats -> System.out.println("Cache: " + stats));
+        JPAUtil.getReplicaStats().forEach(stats -> System.out.println("Replica: " + stats));
+        JPAUtil.closeEntityManagerFactory();
+    }
+
+    /**
+     * Points JPAUtil at a private in-memory H2 database and silences SQL logging,
+     * which would otherwise dominate the measurements.
+     */
+    static void configureEmbeddedDatabase() {
+        System.setProperty("db.url", PRIMARY_URL);
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        System.setProperty("hibernate.show_sql", "false");
+        System.setProperty("hibernate.format_sql", "false");
+        int replicas = Integer.getInteger("benchmark.replicas", 0);
+        if (replicas > 0) {
+            System.setProperty("db.replica.urls", IntStream.rangeClosed(1, replicas)
+                    .mapToObj(i -> "jdbc:h2:mem:replica" + i + H2_OPTIONS)
+                    .collect(Collectors.joining(",")));
+        }
+    }
+
+    /**
+     * Replaces the contents of every embedded replica with a copy of the primary.
+     */
+    public void syncReplicas() {
+        String replicaUrls = System.getProperty("db.replica.urls", "");
+        if (replicaUrls.isBlank()) {
+            return;
+        }
+        try {
+            List<String> script = new ArrayList<>();
+            try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+                 Statement statement = primary.createStatement();
+                 ResultSet rows = statement.executeQuery("SCRIPT")) {
+                while (rows.next()) {
+                    script.add(rows.getString(1));
+                }
+            }
+            for (String url : replicaUrls.split(",")) {
+                try (Connection replica = DriverManager.getConnection(url, "sa", "");
+                     Statement statement = replica.createStatement()) {
+                    statement.execute("DROP ALL OBJECTS");
+                    for (String sql : script) {
+                        statement.execute(sql);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot copy the primary to the replicas", e);
+        }
+    }
+
+    private void seed() {
+        int regionCount = Math.max(1, datasetSize / TEACHERS_PER_REGION);
+        int courseCount = Math.max(1, datasetSize / TEACHERS_PER_COURSE);
+        List<Region> regions = new ArrayList<>(regionCount);
+        List<Course> courses = new ArrayList<>(courseCount);
+        teacherIds = new long[datasetSize];
+
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (int i = 0; i < regionCount; i++) {
+                Region region = new Region();
+                region.setTitle("Region " + i);
+                em.persist(region);
+                regions.add(region);
+            }
+            LessonType[] lessonTypes = {LessonType.THEORY, LessonType.LAB, LessonType.MIXED};
+            for (int i = 0; i < courseCount; i++) {
+                Course course = new Course();
+                course.setTitle("Course " + i);
+                course.setLessonType(lessonTypes[i % lessonTypes.length]);
+                em.persist(course);
+                courses.add(course);
+            }
+            em.getTransaction().commit();
+
+            em.getTransaction().begin();
+            for (int i = 0; i < datasetSize; i++) {
+                Teacher teacher = newTeacher(i);
+                em.find(Region.class, regions.get(i % regionCount).getId()).addTeacher(teacher);
+                em.persist(teacher);
+                em.find(Course.class, courses.get(i % courseCount).getId()).addTeacher(teacher);
+                teacherIds[i] = teacher.getId();
+                if ((i + 1) % SEED_CHUNK == 0) {
+                    em.getTransaction().commit();
+                    em.clear();
+                    em.getTransaction().begin();
+                }
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        regionIds = regions.stream().mapToLong(Region::getId).toArray();
+        courseIds = courses.stream().mapToLong(Course::getId).toArray();
+    }
+
+    /**
+     * Creates a transient teacher with deterministic data derived from {@code n}.
+     */
+    static Teacher newTeacher(long n) {
+        Teacher teacher = new Teacher(n % 2 == 0, "Firstname" + n, null, lastname(n));
+        teacher.getTeacherMoreInfo().setDateOfBirth(LocalDate.of(1960, 1, 1).plusDays(n % 15_000));
+        teacher.getTeacherMoreInfo().setGender(GenderType.values()[(int) (n % GenderType.values().length)]);
+        return teacher;
+    }
+
+    static String lastname(long n) {
+        return "Lastname" + (n % LASTNAMES);
+    }
+
+    /**
+     * @return a value unique within the trial, for titles that must not collide
+     */
+    public long nextUnique() {
+        return sequence.incrementAndGet();
+    }
+
+    public long randomTeacherId() {
+        return teacherIds[ThreadLocalRandom.current().nextInt(teacherIds.length)];
+    }
+
+    public long randomCourseId() {
+        return courseIds[ThreadLocalRandom.current().nextInt(courseIds.length)];
+    }
+
+    public long randomRegionId() {
+        return regionIds[ThreadLocalRandom.current().nextInt(regionIds.length)];
+    }
+
+    public String randomLastname() {
+        return lastname(ThreadLocalRandom.current().nextInt(LASTNAMES));
+    }
+}
@@ -0,0 +1,46 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.util.JPAUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start cost of {@link JPAUtil}: pool start plus EntityManagerFactory build, one per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class BootstrapBenchmark {
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configureEmbeddedDatabase();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Reported startup time: " + JPAUtil.getStartupTime().toMillis() + " ms");
+        JPAUtil.closeEntityManagerFactory();
+    }
+
+    @Benchmark
+    public EntityManagerFactory coldStart() {
+        return JPAUtil.getEntityManagerFactory();
+    }
+}
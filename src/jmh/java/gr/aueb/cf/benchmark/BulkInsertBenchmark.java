@@ -0,0 +1,60 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.model.Teacher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading {@code rows} teachers one {@link ITeacherDAO#insert} at a time versus one {@link ITeacherDAO#insertAll} call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private final ITeacherDAO teacherDAO = new TeacherDAOImpl();
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"500"})
+    public int chunkSize;
+
+    @Benchmark
+    public int insertOneByOne(BenchmarkDatabase db) {
+        for (Teacher teacher : newTeachers(db)) {
+            teacherDAO.insert(teacher);
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<Teacher> insertAll(BenchmarkDatabase db) {
+        return teacherDAO.insertAll(newTeachers(db), chunkSize, BatchProgressListener.NONE);
+    }
+
+    private List<Teacher> newTeachers(BenchmarkDatabase db) {
+        List<Teacher> teachers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            teachers.add(BenchmarkDatabase.newTeacher(db.nextUnique()));
+        }
+        return teachers;
+    }
+}
@@ -0,0 +1,93 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.CoursePatch;
+import gr.aueb.cf.dao.ICourseDAO;
+import gr.aueb.cf.dao.impl.CourseDAOImpl;
+import gr.aueb.cf.dto.CourseSummary;
+import gr.aueb.cf.enums.LessonType;
+import gr.aueb.cf.model.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link CourseDAOImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseDAOBenchmark {
+    private final ICourseDAO courseDAO = new CourseDAOImpl();
+    private Course[] detachedCourses;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        detachedCourses = new Course[Math.min(64, db.courseIds.length)];
+        for (int i = 0; i < detachedCourses.length; i++) {
+            detachedCourses[i] = courseDAO.getById(db.courseIds[i]).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Course insert(BenchmarkDatabase db) {
+        Course course = new Course();
+        course.setTitle("Benchmark course " + db.nextUnique());
+        course.setLessonType(LessonType.THEORY);
+        return courseDAO.insert(course);
+    }
+
+    @Benchmark
+    public Course update(BenchmarkDatabase db) {
+        int slot = ThreadLocalRandom.current().nextInt(detachedCourses.length);
+        Course course = detachedCourses[slot];
+        course.setComments("Revision " + db.nextUnique());
+        detachedCourses[slot] = courseDAO.update(course);
+        return detachedCourses[slot];
+    }
+
+    @Benchmark
+    public long patch(BenchmarkDatabase db) {
+        Course course = detachedCourses[ThreadLocalRandom.current().nextInt(detachedCourses.length)];
+        String comments = "Revision " + db.nextUnique();
+        long version = courseDAO.patch(course.getId(), course.getVersion(), CoursePatch.empty().withComments(comments));
+        course.setComments(comments);
+        course.setVersion(version);
+        return version;
+    }
+
+    @Benchmark
+    public Optional<Course> getById(BenchmarkDatabase db) {
+        return courseDAO.getById(db.randomCourseId());
+    }
+
+    @Benchmark
+    public List<Course> getAll() {
+        return courseDAO.getAll();
+    }
+
+    @Benchmark
+    public List<CourseSummary> getAllSummaries() {
+        return courseDAO.getAllSummaries();
+    }
+
+    @Benchmark
+    public Optional<Course> getByTitle(BenchmarkDatabase db) {
+        return courseDAO.getByTitle("Course " + ThreadLocalRandom.current().nextInt(db.courseIds.length));
+    }
+}
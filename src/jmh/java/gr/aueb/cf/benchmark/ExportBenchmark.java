@@ -0,0 +1,58 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dto.ExportStats;
+import gr.aueb.cf.enums.ExportFormat;
+import gr.aueb.cf.service.ITeacherExportService;
+import gr.aueb.cf.service.impl.TeacherExportServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full export of every teacher through {@link TeacherExportServiceImpl} into a discarding stream.
+ * Run with {@code -p datasetSize=1000000} (or more) for the multi-million-row figures; the throughput and
+ * peak heap of the last run are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class ExportBenchmark {
+    @Param({"CSV", "NDJSON"})
+    public ExportFormat format;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    private final ITeacherExportService exportService = new TeacherExportServiceImpl();
+    private ExportStats lastStats;
+
+    @Benchmark
+    public ExportStats exportTeachers(BenchmarkDatabase db) throws Exception {
+        lastStats = exportService.exportTeachers(OutputStream.nullOutputStream(), format, batchSize);
+        return lastStats;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (lastStats != null) {
+            System.out.printf("Export: %d rows, %d batches, %,.0f rows/s, %,d bytes, peak heap %,d KB%n",
+                    lastStats.rows(), lastStats.batches(), lastStats.rowsPerSecond(), lastStats.bytes(),
+                    lastStats.peakHeapBytes() / 1024);
+        }
+    }
+}
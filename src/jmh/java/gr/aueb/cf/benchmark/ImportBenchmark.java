@@ -0,0 +1,111 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dto.ImportResult;
+import gr.aueb.cf.enums.GenderType;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ICourseService;
+import gr.aueb.cf.service.IRegionService;
+import gr.aueb.cf.service.ITeacherImportService;
+import gr.aueb.cf.service.ITeacherService;
+import gr.aueb.cf.service.impl.CourseServiceImpl;
+import gr.aueb.cf.service.impl.RegionServiceImpl;
+import gr.aueb.cf.service.impl.TeacherImportServiceImpl;
+import gr.aueb.cf.service.impl.TeacherServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a CSV of {@code rows} teachers, each in a region and two courses, through
+ * {@link TeacherImportServiceImpl} versus one {@code createTeacher}/{@code addTeacherTo...} call per row.
+ * Every invocation adds {@code rows} teachers, so the runs are single-shot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImportBenchmark {
+    @Param({"5000"})
+    public int rows;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    private final ITeacherImportService importService = new TeacherImportServiceImpl();
+    private final ITeacherService teacherService = new TeacherServiceImpl();
+    private final ICourseService courseService = new CourseServiceImpl();
+    private final IRegionService regionService = new RegionServiceImpl();
+    private Path source;
+
+    @Setup(Level.Trial)
+    public void writeSource(BenchmarkDatabase db) throws IOException {
+        source = Files.createTempFile("teachers", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(source, StandardCharsets.UTF_8)) {
+            writer.write("firstname,lastname,active,date_of_birth,gender,region,courses\r\n");
+            for (int i = 0; i < rows; i++) {
+                Teacher teacher = BenchmarkDatabase.newTeacher(i);
+                writer.write(String.join(",", teacher.getFirstname(), teacher.getLastname(),
+                        teacher.getActive().toString(), teacher.getTeacherMoreInfo().getDateOfBirth().toString(),
+                        teacher.getTeacherMoreInfo().getGender().name(),
+                        "Region " + i % db.regionIds.length,
+                        "Course " + i % db.courseIds.length + ";Course " + (i + 1) % db.courseIds.length));
+                writer.write("\r\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSource() throws IOException {
+        Files.deleteIfExists(source);
+    }
+
+    @Benchmark
+    public ImportResult importPipeline() throws Exception {
+        return importService.importTeachers(source, null, batchSize);
+    }
+
+    @Benchmark
+    public int importOneByOne() throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            String line;
+            int imported = 0;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",", -1);
+                Teacher teacher = new Teacher(Boolean.parseBoolean(fields[2]), fields[0], null, fields[1]);
+                teacher.getTeacherMoreInfo().setDateOfBirth(LocalDate.parse(fields[3]));
+                teacher.getTeacherMoreInfo().setGender(GenderType.valueOf(fields[4]));
+                Long teacherId = teacherService.createTeacher(teacher).getId();
+                regionService.addTeacherToRegion(regionService.getRegionByTitle(fields[5]).orElseThrow().getId(),
+                        teacherId);
+                for (String title : fields[6].split(";")) {
+                    courseService.addTeacherToCourse(courseService.getCourseByTitle(title).orElseThrow().getId(),
+                            teacherId);
+                }
+                imported++;
+            }
+            return imported;
+        }
+    }
+}
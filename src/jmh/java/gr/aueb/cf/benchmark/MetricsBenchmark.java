@@ -0,0 +1,57 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.util.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cost of {@link Metrics#instrument}: a DAO lookup with and without the metrics proxy, and the proxy around
+ * a method that does nothing, which isolates the per-call overhead. Add {@code -t 4} to include contention on
+ * the shared counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+    private final ITeacherDAO plainDAO = new TeacherDAOImpl();
+    private final ITeacherDAO instrumentedDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
+    private final LongSupplier plainNoop = System::nanoTime;
+    private final LongSupplier instrumentedNoop = Metrics.instrument(LongSupplier.class, System::nanoTime);
+
+    @Benchmark
+    public Optional<Teacher> getByIdPlain(BenchmarkDatabase db) {
+        return plainDAO.getById(db.randomTeacherId());
+    }
+
+    @Benchmark
+    public Optional<Teacher> getByIdInstrumented(BenchmarkDatabase db) {
+        return instrumentedDAO.getById(db.randomTeacherId());
+    }
+
+    @Benchmark
+    public long noopPlain() {
+        return plainNoop.getAsLong();
+    }
+
+    @Benchmark
+    public long noopInstrumented() {
+        return instrumentedNoop.getAsLong();
+    }
+}
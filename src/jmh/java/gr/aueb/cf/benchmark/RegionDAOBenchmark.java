@@ -0,0 +1,88 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.IRegionDAO;
+import gr.aueb.cf.dao.impl.RegionDAOImpl;
+import gr.aueb.cf.dto.RegionSummary;
+import gr.aueb.cf.model.Region;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link RegionDAOImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionDAOBenchmark {
+    private final IRegionDAO regionDAO = new RegionDAOImpl();
+    private Region[] detachedRegions;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        detachedRegions = new Region[Math.min(64, db.regionIds.length)];
+        for (int i = 0; i < detachedRegions.length; i++) {
+            detachedRegions[i] = regionDAO.getById(db.regionIds[i]).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Region insert(BenchmarkDatabase db) {
+        Region region = new Region();
+        region.setTitle("Benchmark region " + db.nextUnique());
+        return regionDAO.insert(region);
+    }
+
+    @Benchmark
+    public Region update() {
+        int slot = ThreadLocalRandom.current().nextInt(detachedRegions.length);
+        detachedRegions[slot] = regionDAO.update(detachedRegions[slot]);
+        return detachedRegions[slot];
+    }
+
+    @Benchmark
+    public Optional<Region> getById(BenchmarkDatabase db) {
+        return regionDAO.getById(db.randomRegionId());
+    }
+
+    @Benchmark
+    public List<Region> getAll() {
+        return regionDAO.getAll();
+    }
+
+    @Benchmark
+    public int moveTeachers(BenchmarkDatabase db) {
+        List<Long> teacherIds = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            teacherIds.add(db.randomTeacherId());
+        }
+        return regionDAO.moveTeachers(teacherIds, db.randomRegionId());
+    }
+
+    @Benchmark
+    public List<RegionSummary> getAllSummaries() {
+        return regionDAO.getAllSummaries();
+    }
+
+    @Benchmark
+    public Optional<Region> getByTitle(BenchmarkDatabase db) {
+        return regionDAO.getByTitle("Region " + ThreadLocalRandom.current().nextInt(db.regionIds.length));
+    }
+}
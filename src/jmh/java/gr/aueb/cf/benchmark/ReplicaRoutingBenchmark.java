@@ -0,0 +1,50 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.util.ReplicaRouting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A reporting read served by one of two embedded replicas against the same read pinned to the primary.
+ * All three databases share this JVM, so the difference is the routing and session overhead, not the offloaded
+ * primary that replicas buy on separate hosts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dbenchmark.replicas=2")
+public class ReplicaRoutingBenchmark {
+    private final ITeacherDAO teacherDAO = new TeacherDAOImpl();
+
+    @Benchmark
+    public Page<TeacherSummary> searchOnReplica(BenchmarkDatabase db) {
+        return search(db);
+    }
+
+    @Benchmark
+    public Page<TeacherSummary> searchOnPrimary(BenchmarkDatabase db) throws Exception {
+        return ReplicaRouting.onPrimary(() -> search(db));
+    }
+
+    private Page<TeacherSummary> search(BenchmarkDatabase db) {
+        return teacherDAO.search(TeacherSearchCriteria.any().withRegionId(db.randomRegionId()),
+                TeacherSort.LASTNAME, null, 20);
+    }
+}
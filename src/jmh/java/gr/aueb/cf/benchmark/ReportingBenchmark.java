@@ -0,0 +1,132 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.CourseFetchPlan;
+import gr.aueb.cf.dao.ICourseDAO;
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.CourseDAOImpl;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.AgeBucketCount;
+import gr.aueb.cf.dto.CourseTeacherCount;
+import gr.aueb.cf.dto.GenderCount;
+import gr.aueb.cf.dto.RegionTeacherCount;
+import gr.aueb.cf.enums.GenderType;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.IReportingService;
+import gr.aueb.cf.service.impl.ReportingServiceImpl;
+import gr.aueb.cf.util.JPAUtil;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GROUP BY reports of {@link ReportingServiceImpl} against computing the same numbers from loaded entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReportingBenchmark {
+    private static final int TOP_COURSES = 10;
+
+    private final IReportingService reports = new ReportingServiceImpl();
+    private final ITeacherDAO teacherDAO = new TeacherDAOImpl();
+    private final ICourseDAO courseDAO = new CourseDAOImpl();
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        // Otherwise H2 hands back the previous result of an identical query over unchanged tables
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("SET OPTIMIZE_REUSE_RESULTS 0").executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<RegionTeacherCount> teachersPerRegion() {
+        return reports.getTeachersPerRegion();
+    }
+
+    @Benchmark
+    public Map<Long, long[]> teachersPerRegionFromEntities() {
+        Map<Long, long[]> counts = new HashMap<>();
+        for (Teacher teacher : teacherDAO.getAll()) {
+            long[] count = counts.computeIfAbsent(teacher.getRegion() == null ? null : teacher.getRegion().getId(),
+                    id -> new long[2]);
+            count[0]++;
+            if (Boolean.TRUE.equals(teacher.getActive())) {
+                count[1]++;
+            }
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public List<GenderCount> genderSplit() {
+        return reports.getGenderSplit();
+    }
+
+    @Benchmark
+    public Map<GenderType, Long> genderSplitFromEntities() {
+        Map<GenderType, Long> counts = new HashMap<>();
+        for (Teacher teacher : teacherDAO.getAll()) {
+            counts.merge(teacher.getTeacherMoreInfo() == null ? null : teacher.getTeacherMoreInfo().getGender(),
+                    1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public List<AgeBucketCount> ageDistribution() {
+        return reports.getAgeDistribution();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> ageDistributionFromEntities() {
+        LocalDate today = LocalDate.now();
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Teacher teacher : teacherDAO.getAll()) {
+            LocalDate dateOfBirth = teacher.getTeacherMoreInfo() == null
+                    ? null : teacher.getTeacherMoreInfo().getDateOfBirth();
+            Integer decade = dateOfBirth == null ? null : Period.between(dateOfBirth, today).getYears() / 10;
+            counts.merge(decade, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public List<CourseTeacherCount> topCourses() {
+        return reports.getTopCoursesByTeacherCount(TOP_COURSES);
+    }
+
+    @Benchmark
+    public List<Course> topCoursesFromEntities() {
+        return courseDAO.getAll(CourseFetchPlan.WITH_TEACHERS).stream()
+                .sorted(Comparator.comparingInt((Course course) -> course.getAllTeachers().size()).reversed())
+                .limit(TOP_COURSES)
+                .toList();
+    }
+}
@@ -0,0 +1,92 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ISchoolStatsService;
+import gr.aueb.cf.service.impl.SchoolStatsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard counts from {@link SchoolStatsServiceImpl} against counting the loaded teachers in Java and against
+ * a GROUP BY, plus the cost of applying an assignment change to the model. The setup prints how long the
+ * rebuild takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SchoolStatsBenchmark {
+    private final ITeacherDAO teacherDAO = new TeacherDAOImpl();
+    private final ISchoolStatsService stats = new SchoolStatsServiceImpl();
+    private BenchmarkDatabase db;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) throws Exception {
+        this.db = db;
+        long start = System.nanoTime();
+        stats.rebuild();
+        System.out.printf("Rebuilt the statistics of %,d teachers in %,d ms%n", db.teacherIds.length,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Benchmark
+    public long activeTeachersOfRegion() {
+        return stats.getActiveTeacherCount(db.randomRegionId());
+    }
+
+    @Benchmark
+    public long teachersOfCourse() {
+        return stats.getCourseTeacherCount(db.randomCourseId());
+    }
+
+    @Benchmark
+    public Map<Long, Long> activeTeachersByRegion() {
+        return stats.getActiveTeacherCounts();
+    }
+
+    @Benchmark
+    public Map<Long, Long> activeTeachersByRegionGroupBy() {
+        return teacherDAO.countActiveByRegion();
+    }
+
+    @Benchmark
+    public Map<Long, Long> activeTeachersByRegionInJava() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Teacher teacher : teacherDAO.getAll()) {
+            if (Boolean.TRUE.equals(teacher.getActive())) {
+                counts.merge(teacher.getRegion() == null ? null : teacher.getRegion().getId(), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * An assignment and its removal, as notified after the commits.
+     */
+    @Benchmark
+    public long assignAndUnassign() {
+        List<Long> courseIds = List.of(db.randomCourseId());
+        List<Long> teacherIds = List.of(db.randomTeacherId());
+        stats.teachersAssigned(courseIds, teacherIds);
+        stats.teachersUnassigned(courseIds, teacherIds);
+        return stats.getCourseTeacherCount(courseIds.get(0));
+    }
+}
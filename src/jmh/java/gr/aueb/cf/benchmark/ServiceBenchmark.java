@@ -0,0 +1,127 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.enums.LessonType;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Region;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ICourseService;
+import gr.aueb.cf.service.IRegionService;
+import gr.aueb.cf.service.ITeacherService;
+import gr.aueb.cf.service.impl.CourseServiceImpl;
+import gr.aueb.cf.service.impl.RegionServiceImpl;
+import gr.aueb.cf.service.impl.TeacherServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the service layer: {@link TeacherServiceImpl}, {@link CourseServiceImpl}
+ * and {@link RegionServiceImpl}, including validation and the multi-call association paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private final ITeacherService teacherService = new TeacherServiceImpl();
+    private final ICourseService courseService = new CourseServiceImpl();
+    private final IRegionService regionService = new RegionServiceImpl();
+    private Teacher[] detachedTeachers;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        detachedTeachers = new Teacher[Math.min(256, db.teacherIds.length)];
+        for (int i = 0; i < detachedTeachers.length; i++) {
+            detachedTeachers[i] = teacherService.getTeacherById(db.teacherIds[i]).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Teacher createTeacher(BenchmarkDatabase db) throws Exception {
+        return teacherService.createTeacher(BenchmarkDatabase.newTeacher(db.nextUnique()));
+    }
+
+    @Benchmark
+    public Teacher updateTeacher() throws Exception {
+        int slot = ThreadLocalRandom.current().nextInt(detachedTeachers.length);
+        Teacher teacher = detachedTeachers[slot];
+        teacher.setActive(!Boolean.TRUE.equals(teacher.getActive()));
+        detachedTeachers[slot] = teacherService.updateTeacher(teacher);
+        return detachedTeachers[slot];
+    }
+
+    @Benchmark
+    public Optional<Teacher> getTeacherById(BenchmarkDatabase db) {
+        return teacherService.getTeacherById(db.randomTeacherId());
+    }
+
+    @Benchmark
+    public List<Teacher> getAllTeachers() {
+        return teacherService.getAllTeachers();
+    }
+
+    @Benchmark
+    public List<Teacher> getTeachersByLastname(BenchmarkDatabase db) {
+        return teacherService.getTeachersByLastname(db.randomLastname());
+    }
+
+    @Benchmark
+    public List<Teacher> getActiveTeachers() {
+        return teacherService.getActiveTeachers();
+    }
+
+    @Benchmark
+    public void addTeacherToCourse(BenchmarkDatabase db) throws Exception {
+        courseService.addTeacherToCourse(db.randomCourseId(), db.randomTeacherId());
+    }
+
+    @Benchmark
+    public int addTeachersToCourse(BenchmarkDatabase db) throws Exception {
+        List<Long> teacherIds = new ArrayList<>(50);
+        for (int i = 0; i < 50; i++) {
+            teacherIds.add(db.randomTeacherId());
+        }
+        return courseService.addTeachersToCourse(db.randomCourseId(), teacherIds);
+    }
+
+    @Benchmark
+    public void removeTeacherFromCourse(BenchmarkDatabase db) throws Exception {
+        courseService.removeTeacherFromCourse(db.randomCourseId(), db.randomTeacherId());
+    }
+
+    @Benchmark
+    public void addTeacherToRegion(BenchmarkDatabase db) throws Exception {
+        regionService.addTeacherToRegion(db.randomRegionId(), db.randomTeacherId());
+    }
+
+    @Benchmark
+    public Course createCourse(BenchmarkDatabase db) throws Exception {
+        Course course = new Course();
+        course.setTitle("Service course " + db.nextUnique());
+        course.setLessonType(LessonType.LAB);
+        return courseService.createCourse(course);
+    }
+
+    @Benchmark
+    public Region createRegion(BenchmarkDatabase db) throws Exception {
+        Region region = new Region();
+        region.setTitle("Service region " + db.nextUnique());
+        return regionService.createRegion(region);
+    }
+}
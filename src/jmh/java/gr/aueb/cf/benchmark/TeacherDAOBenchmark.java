@@ -0,0 +1,167 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherCriteria;
+import gr.aueb.cf.dao.TeacherFetchPlan;
+import gr.aueb.cf.dao.TeacherPatch;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.model.Teacher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for {@link TeacherDAOImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeacherDAOBenchmark {
+    private final ITeacherDAO teacherDAO = new TeacherDAOImpl();
+    private Teacher[] detachedTeachers;
+    private boolean activeFlag;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        detachedTeachers = new Teacher[Math.min(256, db.teacherIds.length)];
+        for (int i = 0; i < detachedTeachers.length; i++) {
+            detachedTeachers[i] = teacherDAO.getById(db.teacherIds[i]).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Teacher insert(BenchmarkDatabase db) {
+        return teacherDAO.insert(BenchmarkDatabase.newTeacher(db.nextUnique()));
+    }
+
+    @Benchmark
+    public Teacher update() {
+        int slot = ThreadLocalRandom.current().nextInt(detachedTeachers.length);
+        Teacher teacher = detachedTeachers[slot];
+        teacher.setActive(!Boolean.TRUE.equals(teacher.getActive()));
+        detachedTeachers[slot] = teacherDAO.update(teacher);
+        return detachedTeachers[slot];
+    }
+
+    @Benchmark
+    public long patch() {
+        Teacher teacher = detachedTeachers[ThreadLocalRandom.current().nextInt(detachedTeachers.length)];
+        boolean active = !Boolean.TRUE.equals(teacher.getActive());
+        long version = teacherDAO.patch(teacher.getId(), teacher.getVersion(), TeacherPatch.empty().withActive(active));
+        teacher.setActive(active);
+        teacher.setVersion(version);
+        return version;
+    }
+
+    @Benchmark
+    public Optional<Teacher> getById(BenchmarkDatabase db) {
+        return teacherDAO.getById(db.randomTeacherId());
+    }
+
+    @Benchmark
+    public List<Teacher> getAll() {
+        return teacherDAO.getAll();
+    }
+
+    @Benchmark
+    public List<Teacher> getByLastname(BenchmarkDatabase db) {
+        return teacherDAO.getByLastname(db.randomLastname());
+    }
+
+    @Benchmark
+    public List<Teacher> getActiveTeachers() {
+        return teacherDAO.getActiveTeachers();
+    }
+
+    @Benchmark
+    public Page<Teacher> getAllPage(BenchmarkDatabase db) {
+        return teacherDAO.getAllPage(Long.toString(db.randomTeacherId()), 100);
+    }
+
+    @Benchmark
+    public Page<Teacher> getActiveTeachersPage(BenchmarkDatabase db) {
+        return teacherDAO.getActiveTeachersPage(Long.toString(db.randomTeacherId()), 100);
+    }
+
+    @Benchmark
+    public Optional<Teacher> getByIdFullProfile(BenchmarkDatabase db) {
+        return teacherDAO.getById(db.randomTeacherId(), TeacherFetchPlan.FULL_PROFILE);
+    }
+
+    @Benchmark
+    public Page<Teacher> getAllPageFullProfile(BenchmarkDatabase db) {
+        return teacherDAO.getAllPage(Long.toString(db.randomTeacherId()), 100, TeacherFetchPlan.FULL_PROFILE);
+    }
+
+    @Benchmark
+    public List<TeacherSummary> getAllSummaries() {
+        return teacherDAO.getAllSummaries();
+    }
+
+    @Benchmark
+    public Page<TeacherSummary> getSummariesPage(BenchmarkDatabase db) {
+        return teacherDAO.getSummariesPage(Long.toString(db.randomTeacherId()), 100);
+    }
+
+    @Benchmark
+    public Page<TeacherSummary> searchByLastnamePrefixAndRegion(BenchmarkDatabase db) {
+        return teacherDAO.search(TeacherSearchCriteria.any()
+                        .withLastnamePrefix(db.randomLastname().substring(0, 9))
+                        .withRegionId(db.randomRegionId()),
+                TeacherSort.LASTNAME, null, 20);
+    }
+
+    @Benchmark
+    public Page<TeacherSummary> searchByCourseAndActive(BenchmarkDatabase db) {
+        return teacherDAO.search(TeacherSearchCriteria.any()
+                        .withCourseId(db.randomCourseId())
+                        .withActive(true),
+                TeacherSort.ID, null, 20);
+    }
+
+    @Benchmark
+    public int setActiveByIds(BenchmarkDatabase db) {
+        List<Long> ids = new ArrayList<>(500);
+        for (int i = 0; i < 500; i++) {
+            ids.add(db.randomTeacherId());
+        }
+        activeFlag = !activeFlag;
+        return teacherDAO.setActive(ids, activeFlag);
+    }
+
+    @Benchmark
+    public int setActiveByCriteria(BenchmarkDatabase db) {
+        activeFlag = !activeFlag;
+        return teacherDAO.setActive(TeacherCriteria.any().withLastname(db.randomLastname()), activeFlag);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        try (Stream<Teacher> teachers = teacherDAO.streamAll(500)) {
+            teachers.forEach(blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package gr.aueb.cf.benchmark;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dto.TeacherFilterStats;
+import gr.aueb.cf.dto.TeacherMembershipRow;
+import gr.aueb.cf.enums.GenderType;
+import gr.aueb.cf.service.ITeacherFilterService;
+import gr.aueb.cf.service.TeacherFilter;
+import gr.aueb.cf.service.impl.TeacherFilterServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Filter counts and pages from {@link TeacherFilterServiceImpl} over one and ten million synthetic teachers,
+ * without a database, against scanning the same attributes held in plain arrays. The setup prints how long
+ * the load takes and the estimated and measured heap footprint of the bitmaps.
+ * <p>
+ * Teachers are spread over {@value #REGIONS} regions, about 70% are active, 5% have no recorded gender and each
+ * is assigned to up to 3 of {@value #COURSES} courses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TeacherFilterBenchmark {
+    private static final int REGIONS = 50;
+    private static final int COURSES = 500;
+    private static final GenderType[] GENDERS = GenderType.values();
+
+    @Param({"1000000", "10000000"})
+    public int teachers;
+
+    private ITeacherFilterService filters;
+    // The attributes of teacher i + 1, for the scan
+    private boolean[] active;
+    private byte[] region;
+    private byte[] gender;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ITeacherDAO syntheticDAO = (ITeacherDAO) Proxy.newProxyInstance(ITeacherDAO.class.getClassLoader(),
+                new Class<?>[]{ITeacherDAO.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("streamMemberships")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return LongStream.rangeClosed(1, teachers).boxed().flatMap(TeacherFilterBenchmark::memberships);
+                });
+        long before = usedHeap();
+        long start = System.nanoTime();
+        filters = new TeacherFilterServiceImpl(syntheticDAO);
+        filters.load();
+        long elapsed = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        TeacherFilterStats stats = filters.getStats();
+        System.out.printf("Loaded %,d teachers in %,d ms: %s, %.2f bytes per teacher, estimated %,d KB, "
+                        + "retained %,d KB%n", stats.teachers(), TimeUnit.NANOSECONDS.toMillis(elapsed), stats,
+                stats.bytesPerTeacher(), stats.memoryBytes() / 1024, retained / 1024);
+
+        active = new boolean[teachers];
+        region = new byte[teachers];
+        gender = new byte[teachers];
+        for (int i = 0; i < teachers; i++) {
+            TeacherMembershipRow row = memberships(i + 1L).findFirst().orElseThrow();
+            active[i] = row.active();
+            region[i] = (byte) row.regionId().intValue();
+            gender[i] = (byte) (row.gender() == null ? -1 : row.gender().ordinal());
+        }
+    }
+
+    @Benchmark
+    public long countActiveInRegionWithGender() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return filters.count(TeacherFilter.and(TeacherFilter.active(true),
+                TeacherFilter.region((long) random.nextInt(1, REGIONS + 1)),
+                TeacherFilter.gender(GENDERS[random.nextInt(GENDERS.length)])));
+    }
+
+    @Benchmark
+    public long countActiveInRegionWithGenderScan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte regionId = (byte) random.nextInt(1, REGIONS + 1);
+        byte genderSlot = (byte) random.nextInt(GENDERS.length);
+        long count = 0;
+        for (int i = 0; i < teachers; i++) {
+            if (active[i] && region[i] == regionId && gender[i] == genderSlot) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long countInAnyOfThreeCoursesOutsideRegion() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return filters.count(TeacherFilter.and(
+                TeacherFilter.or(TeacherFilter.course((long) random.nextInt(1, COURSES + 1)),
+                        TeacherFilter.course((long) random.nextInt(1, COURSES + 1)),
+                        TeacherFilter.course((long) random.nextInt(1, COURSES + 1))),
+                TeacherFilter.not(TeacherFilter.region((long) random.nextInt(1, REGIONS + 1)))));
+    }
+
+    @Benchmark
+    public List<Long> findPageOfInactiveInCourse() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return filters.find(TeacherFilter.and(TeacherFilter.active(false),
+                TeacherFilter.course((long) random.nextInt(1, COURSES + 1))), null, 50);
+    }
+
+    /**
+     * @return the membership rows of a teacher, the same on every call
+     */
+    private static Stream<TeacherMembershipRow> memberships(long id) {
+        SplittableRandom random = new SplittableRandom(id);
+        boolean active = random.nextInt(10) < 7;
+        Long regionId = (long) random.nextInt(1, REGIONS + 1);
+        GenderType gender = random.nextInt(20) == 0 ? null : GENDERS[random.nextInt(GENDERS.length)];
+        int courses = random.nextInt(4);
+        if (courses == 0) {
+            return Stream.of(new TeacherMembershipRow(id, 0, regionId, active, gender, null));
+        }
+        return random.ints(courses, 1, COURSES + 1)
+                .mapToObj(courseId -> new TeacherMembershipRow(id, 0, regionId, active, gender, (long) courseId));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
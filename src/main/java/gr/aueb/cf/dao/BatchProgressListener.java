@@ -0,0 +1,21 @@
+package gr.aueb.cf.dao;
+
+/**
+ * Callback notified after each chunk of a bulk operation has been committed.
+ */
+@FunctionalInterface
+public interface BatchProgressListener {
+    /**
+     * Listener that ignores progress.
+     */
+    BatchProgressListener NONE = (chunk, processed, total) -> { };
+
+    /**
+     * Called once a chunk has been committed.
+     *
+     * @param chunk     the 1-based number of the committed chunk
+     * @param processed the number of rows committed so far
+     * @param total     the total number of rows in the operation
+     */
+    void onChunkCommitted(int chunk, int processed, int total);
+}
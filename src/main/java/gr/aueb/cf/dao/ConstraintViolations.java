@@ -0,0 +1,25 @@
+package gr.aueb.cf.dao;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+/**
+ * Recognises constraint violations reported by the database, however deeply JPA has wrapped them.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * @param e the exception thrown by a flush or commit
+     * @return {@code true} if the database rejected the statement because of a constraint
+     */
+    public static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
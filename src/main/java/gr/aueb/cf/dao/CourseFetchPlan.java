@@ -0,0 +1,31 @@
+package gr.aueb.cf.dao;
+
+import gr.aueb.cf.model.Course;
+
+/**
+ * Named fetch plans for Course finders. Each plan maps to an entity graph declared on {@link Course}
+ * and loads the listed associations in the same query, avoiding one extra query per row.
+ */
+public enum CourseFetchPlan {
+    /**
+     * Course with its teachers.
+     */
+    WITH_TEACHERS(Course.GRAPH_WITH_TEACHERS),
+    /**
+     * Course with its teachers, their regions and extra info.
+     */
+    WITH_TEACHER_PROFILES(Course.GRAPH_WITH_TEACHER_PROFILES);
+
+    private final String graphName;
+
+    CourseFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    /**
+     * @return the name of the entity graph backing this plan
+     */
+    public String getGraphName() {
+        return graphName;
+    }
+}
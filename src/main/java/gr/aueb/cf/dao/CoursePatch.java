@@ -0,0 +1,66 @@
+package gr.aueb.cf.dao;
+
+import gr.aueb.cf.enums.LessonType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields of a course to change with {@link ICourseDAO#patch(Long, long, CoursePatch)}. Only the fields set
+ * through the {@code with} methods are written, and a {@code null} value clears the field.
+ * Instances are immutable.
+ */
+public final class CoursePatch {
+    private static final CoursePatch EMPTY = new CoursePatch(Map.of());
+
+    private final Map<String, Object> changes;
+
+    private CoursePatch(Map<String, Object> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * @return a patch that changes nothing
+     */
+    public static CoursePatch empty() {
+        return EMPTY;
+    }
+
+    public CoursePatch withTitle(String title) {
+        return with("title", title);
+    }
+
+    public CoursePatch withComments(String comments) {
+        return with("comments", comments);
+    }
+
+    public CoursePatch withLessonType(LessonType lessonType) {
+        return with("lessonType", lessonType);
+    }
+
+    /**
+     * @return {@code true} if the patch changes nothing
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return the new values by attribute name
+     */
+    public Map<String, Object> changes() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "CoursePatch" + changes;
+    }
+
+    private CoursePatch with(String attribute, Object value) {
+        Map<String, Object> copy = new LinkedHashMap<>(changes);
+        copy.put(attribute, value);
+        return new CoursePatch(Collections.unmodifiableMap(copy));
+    }
+}
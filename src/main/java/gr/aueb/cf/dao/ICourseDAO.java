@@ -1,13 +1,26 @@
 package gr.aueb.cf.dao;
 
+import gr.aueb.cf.dto.CourseSummary;
+import gr.aueb.cf.dto.CourseTeacherCount;
+import gr.aueb.cf.enums.LessonType;
 import gr.aueb.cf.model.Course;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object interface for Course entity.
  * Defines CRUD operations and custom queries for Course.
+ * <p>
+ * With read replicas configured, the listing, paging, streaming, summary and count queries and
+ * {@code getByTitle} may be answered by a replica and lag slightly behind the primary (see
+ * {@link gr.aueb.cf.util.ReplicaRouting}); lookups by ID, the title checks made before writes
+ * ({@code existsByTitle}, {@code getByTitles}, {@code findExistingTitles}) and everything that writes always use
+ * the primary.
  */
 public interface ICourseDAO {
     /**
@@ -19,13 +32,59 @@ public interface ICourseDAO {
     Course insert(Course course);
 
     /**
-     * Updates an existing course in the database.
+     * Persists many courses using one transaction per chunk of {@code db.bulk.chunk-size} rows
+     * and JDBC statement batching.
+     *
+     * @param courses the courses to persist
+     * @return the persisted courses with generated IDs
+     */
+    List<Course> insertAll(Collection<Course> courses);
+
+    /**
+     * Persists many courses using one transaction per chunk and JDBC statement batching.
+     * Chunks committed before a failure stay committed.
+     *
+     * @param courses the courses to persist
+     * @param chunkSize the number of courses per transaction
+     * @param listener notified after every committed chunk
+     * @return the persisted courses with generated IDs
+     */
+    List<Course> insertAll(Collection<Course> courses, int chunkSize, BatchProgressListener listener);
+
+    /**
+     * Inserts a course unless its title is taken, relying on the unique constraint on the title.
+     * Outside a unit of work this is a single INSERT; if another transaction wins the race for the title,
+     * the violation is recovered from and the course's ID is reset.
+     * Inside a unit of work the title is checked first, since a failed flush would leave the unit rollback-only.
+     *
+     * @param course the course to insert
+     * @return {@code true} if inserted, {@code false} if the title was already taken
+     */
+    boolean insertIfAbsent(Course course);
+
+    /**
+     * Updates an existing course in the database by merging the detached copy: the current row is read first and
+     * only the changed columns are written. Fails with an {@link jakarta.persistence.OptimisticLockException}
+     * if the row's version no longer matches the copy's.
      *
      * @param course the course to update
      * @return the updated course
      */
     Course update(Course course);
 
+    /**
+     * Writes the fields of the patch to a course with a single UPDATE, provided the course is still at the given
+     * version. The version is incremented.
+     *
+     * @param id the ID of the course
+     * @param version the version the caller read
+     * @param patch the fields to change
+     * @return the new version
+     * @throws jakarta.persistence.EntityNotFoundException if there is no course with the ID
+     * @throws jakarta.persistence.OptimisticLockException if the course was changed since that version
+     */
+    long patch(Long id, long version, CoursePatch patch);
+
     /**
      * Deletes a course from the database.
      *
@@ -55,4 +114,142 @@ public interface ICourseDAO {
      * @return Optional containing the course if found, empty otherwise
      */
     Optional<Course> getByTitle(String title);
+
+    /**
+     * Checks whether a course with the given title exists, without loading it.
+     *
+     * @param title the title to check
+     * @return {@code true} if the title is taken
+     */
+    boolean existsByTitle(String title);
+
+    /**
+     * Finds the courses with the given titles, in one query per chunk of titles.
+     *
+     * @param titles the titles to look up
+     * @return the courses found, in no particular order
+     */
+    List<Course> getByTitles(Collection<String> titles);
+
+    /**
+     * Finds which of the given titles are already taken, in one query per chunk of titles.
+     *
+     * @param titles the titles to check
+     * @return the subset of titles that already exist
+     */
+    Set<String> findExistingTitles(Collection<String> titles);
+
+    /**
+     * Retrieves one page of courses ordered by ID, seeking past the previous page.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of courses to return
+     * @return the page and the token for the next one
+     */
+    Page<Course> getAllPage(String pageToken, int pageSize);
+
+    /**
+     * Streams all courses ordered by ID through a forward-only cursor, in constant memory.
+     * The stream holds a database connection and must be closed, e.g. with try-with-resources.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of detached courses
+     */
+    Stream<Course> streamAll(int fetchSize);
+
+    /**
+     * Finds a course by ID, loading the associations of the given fetch plan in the same query.
+     *
+     * @param id the ID of the course
+     * @param plan the associations to load
+     * @return Optional containing the course if found, empty otherwise
+     */
+    Optional<Course> getById(Long id, CourseFetchPlan plan);
+
+    /**
+     * Retrieves all courses with the associations of the given fetch plan, in one query.
+     *
+     * @param plan the associations to load
+     * @return a list of all courses
+     */
+    List<Course> getAll(CourseFetchPlan plan);
+
+    /**
+     * Finds a course by title with the associations of the given fetch plan, in one query.
+     *
+     * @param title the title to search for
+     * @param plan the associations to load
+     * @return Optional containing the course if found, empty otherwise
+     */
+    Optional<Course> getByTitle(String title, CourseFetchPlan plan);
+
+    /**
+     * Retrieves a read-only summary of every course, selecting only the listed columns.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<CourseSummary> getAllSummaries();
+
+    /**
+     * Retrieves one page of course summaries ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     */
+    Page<CourseSummary> getSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Links every given teacher to every given course by inserting the missing rows of the join table directly,
+     * without loading either side. Pairs that are already linked and IDs that do not exist are skipped. A pair
+     * another transaction links at the same time is skipped by running the insert once more, except inside a
+     * unit of work, which the primary key violation fails instead.
+     *
+     * @param courseIds the IDs of the courses
+     * @param teacherIds the IDs of the teachers
+     * @return the number of links created
+     */
+    int addTeachers(Collection<Long> courseIds, Collection<Long> teacherIds);
+
+    /**
+     * Links teachers to courses with one set-based insert into the join table per course and chunk of teacher
+     * IDs, all in one transaction. Pairs that are already linked and IDs that do not exist are skipped, as for
+     * {@link #addTeachers(Collection, Collection)}.
+     *
+     * @param teacherIdsByCourse the IDs of the teachers to link, keyed by course ID
+     * @return the number of links created
+     */
+    int addTeachers(Map<Long, ? extends Collection<Long>> teacherIdsByCourse);
+
+    /**
+     * Unlinks every given teacher from every given course by deleting the join table rows directly.
+     *
+     * @param courseIds the IDs of the courses
+     * @param teacherIds the IDs of the teachers
+     * @return the number of links removed
+     */
+    int removeTeachers(Collection<Long> courseIds, Collection<Long> teacherIds);
+
+    /**
+     * Counts the teachers assigned to every course with a single GROUP BY.
+     *
+     * @return the counts by course ID; courses without teachers are absent
+     */
+    Map<Long, Long> countTeachersByCourse();
+
+    /**
+     * Counts the courses of every lesson type with a single GROUP BY.
+     *
+     * @return the counts by lesson type, with the {@code null} key for courses without one; unused types are
+     * absent
+     */
+    Map<LessonType, Long> countByLessonType();
+
+    /**
+     * Finds the courses with the most teachers, counting the join table with a single GROUP BY.
+     *
+     * @param limit the maximum number of courses to return
+     * @return the courses by descending teacher count, then by ID; courses without teachers are absent
+     */
+    List<CourseTeacherCount> getTopByTeacherCount(int limit);
 }
@@ -1,13 +1,24 @@
 package gr.aueb.cf.dao;
 
+import gr.aueb.cf.dto.RegionSummary;
+import gr.aueb.cf.dto.RegionTeacherCount;
 import gr.aueb.cf.model.Region;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object interface for Region entity.
  * Defines CRUD operations and custom queries for Region.
+ * <p>
+ * With read replicas configured, the listing, paging, streaming, summary and count queries and
+ * {@code getByTitle} may be answered by a replica and lag slightly behind the primary (see
+ * {@link gr.aueb.cf.util.ReplicaRouting}); lookups by ID, the title checks made before writes
+ * ({@code existsByTitle}, {@code getByTitles}, {@code findExistingTitles}) and everything that writes always use
+ * the primary.
  */
 public interface IRegionDAO {
     /**
@@ -19,13 +30,59 @@ public interface IRegionDAO {
     Region insert(Region region);
 
     /**
-     * Updates an existing region in the database.
+     * Persists many regions using one transaction per chunk of {@code db.bulk.chunk-size} rows
+     * and JDBC statement batching.
+     *
+     * @param regions the regions to persist
+     * @return the persisted regions with generated IDs
+     */
+    List<Region> insertAll(Collection<Region> regions);
+
+    /**
+     * Persists many regions using one transaction per chunk and JDBC statement batching.
+     * Chunks committed before a failure stay committed.
+     *
+     * @param regions the regions to persist
+     * @param chunkSize the number of regions per transaction
+     * @param listener notified after every committed chunk
+     * @return the persisted regions with generated IDs
+     */
+    List<Region> insertAll(Collection<Region> regions, int chunkSize, BatchProgressListener listener);
+
+    /**
+     * Inserts a region unless its title is taken, relying on the unique constraint on the title.
+     * Outside a unit of work this is a single INSERT; if another transaction wins the race for the title,
+     * the violation is recovered from and the region's ID is reset.
+     * Inside a unit of work the title is checked first, since a failed flush would leave the unit rollback-only.
+     *
+     * @param region the region to insert
+     * @return {@code true} if inserted, {@code false} if the title was already taken
+     */
+    boolean insertIfAbsent(Region region);
+
+    /**
+     * Updates an existing region in the database by merging the detached copy: the current row is read first and
+     * only the changed columns are written. Fails with an {@link jakarta.persistence.OptimisticLockException}
+     * if the row's version no longer matches the copy's.
      *
      * @param region the region to update
      * @return the updated region
      */
     Region update(Region region);
 
+    /**
+     * Writes the fields of the patch to a region with a single UPDATE, provided the region is still at the given
+     * version. The version is incremented.
+     *
+     * @param id the ID of the region
+     * @param version the version the caller read
+     * @param patch the fields to change
+     * @return the new version
+     * @throws jakarta.persistence.EntityNotFoundException if there is no region with the ID
+     * @throws jakarta.persistence.OptimisticLockException if the region was changed since that version
+     */
+    long patch(Long id, long version, RegionPatch patch);
+
     /**
      * Deletes a region from the database.
      *
@@ -55,4 +112,140 @@ public interface IRegionDAO {
      * @return Optional containing the region if found, empty otherwise
      */
     Optional<Region> getByTitle(String title);
+
+    /**
+     * Checks whether a region with the given title exists, without loading it.
+     *
+     * @param title the title to check
+     * @return {@code true} if the title is taken
+     */
+    boolean existsByTitle(String title);
+
+    /**
+     * Finds the regions with the given titles, in one query per chunk of titles.
+     *
+     * @param titles the titles to look up
+     * @return the regions found, in no particular order
+     */
+    List<Region> getByTitles(Collection<String> titles);
+
+    /**
+     * Finds which of the given titles are already taken, in one query per chunk of titles.
+     *
+     * @param titles the titles to check
+     * @return the subset of titles that already exist
+     */
+    Set<String> findExistingTitles(Collection<String> titles);
+
+    /**
+     * Retrieves one page of regions ordered by ID, seeking past the previous page.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of regions to return
+     * @return the page and the token for the next one
+     */
+    Page<Region> getAllPage(String pageToken, int pageSize);
+
+    /**
+     * Streams all regions ordered by ID through a forward-only cursor, in constant memory.
+     * The stream holds a database connection and must be closed, e.g. with try-with-resources.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of detached regions
+     */
+    Stream<Region> streamAll(int fetchSize);
+
+    /**
+     * Finds a region by ID, loading the associations of the given fetch plan in the same query.
+     *
+     * @param id the ID of the region
+     * @param plan the associations to load
+     * @return Optional containing the region if found, empty otherwise
+     */
+    Optional<Region> getById(Long id, RegionFetchPlan plan);
+
+    /**
+     * Retrieves all regions with the associations of the given fetch plan, in one query.
+     *
+     * @param plan the associations to load
+     * @return a list of all regions
+     */
+    List<Region> getAll(RegionFetchPlan plan);
+
+    /**
+     * Finds a region by title with the associations of the given fetch plan, in one query.
+     *
+     * @param title the title to search for
+     * @param plan the associations to load
+     * @return Optional containing the region if found, empty otherwise
+     */
+    Optional<Region> getByTitle(String title, RegionFetchPlan plan);
+
+    /**
+     * Retrieves a read-only summary of every region, selecting only the listed columns.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<RegionSummary> getAllSummaries();
+
+    /**
+     * Retrieves one page of region summaries ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     */
+    Page<RegionSummary> getSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Moves the given teachers to a region with one UPDATE per chunk of IDs.
+     *
+     * @param teacherIds the IDs of the teachers
+     * @param regionId the ID of the target region
+     * @return the number of teachers updated
+     */
+    int moveTeachers(Collection<Long> teacherIds, Long regionId);
+
+    /**
+     * Moves every teacher of one region to another with a single UPDATE.
+     *
+     * @param fromRegionId the ID of the region to empty
+     * @param toRegionId the ID of the target region
+     * @return the number of teachers moved
+     */
+    int moveAllTeachers(Long fromRegionId, Long toRegionId);
+
+    /**
+     * Clears the region of the given teachers, if they belong to it.
+     *
+     * @param regionId the ID of the region
+     * @param teacherIds the IDs of the teachers
+     * @return the number of teachers updated
+     */
+    int detachTeachers(Long regionId, Collection<Long> teacherIds);
+
+    /**
+     * Moves every teacher of the source region to the target region and deletes the source, in one transaction.
+     *
+     * @param sourceRegionId the ID of the region to merge and delete
+     * @param targetRegionId the ID of the region that is kept
+     * @return the number of teachers moved
+     */
+    int mergeInto(Long sourceRegionId, Long targetRegionId);
+
+    /**
+     * Clears the region of all its teachers and deletes it, in one transaction.
+     *
+     * @param regionId the ID of the region
+     * @return the number of teachers detached
+     */
+    int deleteDetachingTeachers(Long regionId);
+
+    /**
+     * Counts the teachers and active teachers of every region with a single GROUP BY over the teachers.
+     *
+     * @return the counts of all regions ordered by title, including empty ones, then the teachers without a
+     * region if there are any
+     */
+    List<RegionTeacherCount> getTeacherCounts();
 }
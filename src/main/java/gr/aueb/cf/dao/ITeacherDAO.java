@@ -1,13 +1,26 @@
 package gr.aueb.cf.dao;
 
+import gr.aueb.cf.dto.AgeBucketCount;
+import gr.aueb.cf.dto.GenderCount;
+import gr.aueb.cf.dto.TeacherExportRow;
+import gr.aueb.cf.dto.TeacherMembershipRow;
+import gr.aueb.cf.dto.TeacherSummary;
 import gr.aueb.cf.model.Teacher;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object interface for Teacher entity.
  * Defines CRUD operations and custom queries for Teacher.
+ * <p>
+ * With read replicas configured, the listing, search, paging, streaming, export, summary and count queries may
+ * be answered by a replica and lag slightly behind the primary (see {@link gr.aueb.cf.util.ReplicaRouting});
+ * lookups by ID and everything that writes always use the primary.
  */
 public interface ITeacherDAO {
     /**
@@ -19,7 +32,29 @@ public interface ITeacherDAO {
     Teacher insert(Teacher teacher);
 
     /**
-     * Updates an existing teacher in the database.
+     * Persists many teachers using one transaction per chunk of {@code db.bulk.chunk-size} rows
+     * and JDBC statement batching.
+     *
+     * @param teachers the teachers to persist
+     * @return the persisted teachers with generated IDs
+     */
+    List<Teacher> insertAll(Collection<Teacher> teachers);
+
+    /**
+     * Persists many teachers using one transaction per chunk and JDBC statement batching.
+     * Chunks committed before a failure stay committed.
+     *
+     * @param teachers the teachers to persist
+     * @param chunkSize the number of teachers per transaction
+     * @param listener notified after every committed chunk
+     * @return the persisted teachers with generated IDs
+     */
+    List<Teacher> insertAll(Collection<Teacher> teachers, int chunkSize, BatchProgressListener listener);
+
+    /**
+     * Updates an existing teacher in the database by merging the detached copy: the current row is read first and
+     * only the changed columns are written. Fails with an {@link jakarta.persistence.OptimisticLockException}
+     * if the row's version no longer matches the copy's.
      *
      * @param teacher the teacher to update
      * @return the updated teacher
@@ -27,7 +62,22 @@ public interface ITeacherDAO {
     Teacher update(Teacher teacher);
 
     /**
-     * Deletes a teacher from the database.
+     * Writes the fields of the patch to a teacher with a single UPDATE, provided the teacher is still at the given
+     * version. The version is incremented. Changing the details
+     * ({@link TeacherPatch#detailChanges()}) adds a second UPDATE of the teacher_more_info row in the same
+     * transaction, or creates the row if the teacher has none.
+     *
+     * @param id the ID of the teacher
+     * @param version the version the caller read
+     * @param patch the fields to change
+     * @return the new version
+     * @throws jakarta.persistence.EntityNotFoundException if there is no teacher with the ID
+     * @throws jakarta.persistence.OptimisticLockException if the teacher was changed since that version
+     */
+    long patch(Long id, long version, TeacherPatch patch);
+
+    /**
+     * Deletes a teacher from the database, together with its details and course assignments.
      *
      * @param id the ID of the teacher to delete
      */
@@ -62,4 +112,228 @@ public interface ITeacherDAO {
      * @return a list of active teachers
      */
     List<Teacher> getActiveTeachers();
+
+    /**
+     * Retrieves one page of teachers ordered by ID, seeking past the previous page.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getAllPage(String pageToken, int pageSize);
+
+    /**
+     * Retrieves one page of teachers with the given lastname, ordered by ID.
+     *
+     * @param lastname the lastname to search for
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getByLastnamePage(String lastname, String pageToken, int pageSize);
+
+    /**
+     * Retrieves one page of active teachers, ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getActiveTeachersPage(String pageToken, int pageSize);
+
+    /**
+     * Streams all teachers ordered by ID through a forward-only cursor, in constant memory.
+     * The stream holds a database connection and must be closed, e.g. with try-with-resources.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of detached teachers
+     */
+    Stream<Teacher> streamAll(int fetchSize);
+
+    /**
+     * Streams the teachers with the given lastname ordered by ID. The stream must be closed.
+     *
+     * @param lastname the lastname to search for
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of detached teachers
+     */
+    Stream<Teacher> streamByLastname(String lastname, int fetchSize);
+
+    /**
+     * Streams the active teachers ordered by ID. The stream must be closed.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of detached teachers
+     */
+    Stream<Teacher> streamActiveTeachers(int fetchSize);
+
+    /**
+     * Streams the summaries of all teachers ordered by ID through a forward-only cursor, in constant memory.
+     * The stream must be closed.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of summaries
+     */
+    Stream<TeacherSummary> streamSummaries(int fetchSize);
+
+    /**
+     * Streams every teacher's course assignments, region, active flag and gender ordered by teacher ID, one row
+     * per assignment, through a forward-only cursor. The stream must be closed.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of rows
+     */
+    Stream<TeacherMembershipRow> streamMemberships(int fetchSize);
+
+    /**
+     * Counts the active teachers of every region with a single GROUP BY.
+     *
+     * @return the counts by region ID, with the {@code null} key for teachers without a region; regions without
+     * active teachers are absent
+     */
+    Map<Long, Long> countActiveByRegion();
+
+    /**
+     * Counts the teachers of every gender with a single GROUP BY.
+     *
+     * @return the counts, with a {@code null} gender for teachers whose gender is not recorded; genders without
+     * teachers are absent
+     */
+    List<GenderCount> countByGender();
+
+    /**
+     * Counts the teachers of every age range with a single GROUP BY, the ages computed from the dates of birth
+     * as of the given day.
+     *
+     * @param today the day the ages are computed for
+     * @param ageBounds the ages that start each range after the first, ascending; {@code {30, 50}} gives the
+     *                  ranges under 30, 30 to 49 and 50 or over
+     * @return the counts in range order, then the teachers without a date of birth; empty ranges are absent
+     */
+    List<AgeBucketCount> countByAge(LocalDate today, int[] ageBounds);
+
+    /**
+     * Finds a teacher by ID, loading the associations of the given fetch plan in the same query.
+     *
+     * @param id the ID of the teacher
+     * @param plan the associations to load
+     * @return Optional containing the teacher if found, empty otherwise
+     */
+    Optional<Teacher> getById(Long id, TeacherFetchPlan plan);
+
+    /**
+     * Retrieves all teachers with the associations of the given fetch plan, in one query.
+     *
+     * @param plan the associations to load
+     * @return a list of all teachers
+     */
+    List<Teacher> getAll(TeacherFetchPlan plan);
+
+    /**
+     * Finds teachers by lastname with the associations of the given fetch plan, in one query.
+     *
+     * @param lastname the lastname to search for
+     * @param plan the associations to load
+     * @return a list of teachers with the specified lastname
+     */
+    List<Teacher> getByLastname(String lastname, TeacherFetchPlan plan);
+
+    /**
+     * Finds active teachers with the associations of the given fetch plan, in one query.
+     *
+     * @param plan the associations to load
+     * @return a list of active teachers
+     */
+    List<Teacher> getActiveTeachers(TeacherFetchPlan plan);
+
+    /**
+     * Retrieves one page of teachers ordered by ID with the associations of the given fetch plan.
+     * Uses two queries: one seeking the page of IDs, one loading those teachers with the plan.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @param plan the associations to load
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getAllPage(String pageToken, int pageSize, TeacherFetchPlan plan);
+
+    /**
+     * Retrieves a read-only summary of every teacher, selecting only the listed columns.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<TeacherSummary> getAllSummaries();
+
+    /**
+     * Retrieves read-only summaries of the teachers with the given lastname.
+     *
+     * @param lastname the lastname to search for
+     * @return the summaries ordered by ID
+     */
+    List<TeacherSummary> getSummariesByLastname(String lastname);
+
+    /**
+     * Retrieves read-only summaries of the active teachers.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<TeacherSummary> getActiveSummaries();
+
+    /**
+     * Retrieves one page of teacher summaries ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     */
+    Page<TeacherSummary> getSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Searches teacher summaries by any combination of criteria, one keyset page at a time.
+     * The query is generated once per combination of present criteria and sort, then reused.
+     *
+     * @param criteria the criteria; {@code null} components do not restrict the result
+     * @param sort the order of the results
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     */
+    Page<TeacherSummary> search(TeacherSearchCriteria criteria, TeacherSort sort, String pageToken, int pageSize);
+
+    /**
+     * Sets the active flag of the given teachers with one UPDATE per chunk of IDs.
+     *
+     * @param ids the IDs of the teachers
+     * @param active the new value of the flag
+     * @return the number of teachers whose flag changed
+     */
+    int setActive(Collection<Long> ids, boolean active);
+
+    /**
+     * Sets the active flag of every teacher matching the criteria with a single UPDATE.
+     *
+     * @param criteria the teachers to update
+     * @param active the new value of the flag
+     * @return the number of teachers whose flag changed
+     */
+    int setActive(TeacherCriteria criteria, boolean active);
+
+    /**
+     * Deletes the given teachers with set-based statements per chunk of IDs, in one transaction:
+     * their course assignments, the teachers and their details.
+     *
+     * @param ids the IDs of the teachers
+     * @return the number of teachers deleted
+     */
+    int deleteAll(Collection<Long> ids);
+
+    /**
+     * Retrieves one page of export rows ordered by ID, with two queries: one for the teachers with their details
+     * and region title, one for the course titles of the page. No entities are loaded.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of rows to return
+     * @return the page and the token for the next one
+     */
+    Page<TeacherExportRow> getExportPage(String pageToken, int pageSize);
 }
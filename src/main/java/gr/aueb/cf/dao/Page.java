@@ -0,0 +1,24 @@
+package gr.aueb.cf.dao;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query.
+ *
+ * @param items     the rows of this page, in query order
+ * @param nextToken opaque continuation token to pass back for the next page, {@code null} on the last page
+ * @param <T>       the row type
+ */
+public record Page<T>(List<T> items, String nextToken) {
+
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    /**
+     * @return {@code true} if another page follows this one
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
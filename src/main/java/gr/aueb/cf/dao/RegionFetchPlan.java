@@ -0,0 +1,31 @@
+package gr.aueb.cf.dao;
+
+import gr.aueb.cf.model.Region;
+
+/**
+ * Named fetch plans for Region finders. Each plan maps to an entity graph declared on {@link Region}
+ * and loads the listed associations in the same query, avoiding one extra query per row.
+ */
+public enum RegionFetchPlan {
+    /**
+     * Region with its teachers.
+     */
+    WITH_TEACHERS(Region.GRAPH_WITH_TEACHERS),
+    /**
+     * Region with its teachers and their extra info.
+     */
+    WITH_TEACHER_PROFILES(Region.GRAPH_WITH_TEACHER_PROFILES);
+
+    private final String graphName;
+
+    RegionFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    /**
+     * @return the name of the entity graph backing this plan
+     */
+    public String getGraphName() {
+        return graphName;
+    }
+}
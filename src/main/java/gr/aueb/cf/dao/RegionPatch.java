@@ -0,0 +1,51 @@
+package gr.aueb.cf.dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields of a region to change with {@link IRegionDAO#patch(Long, long, RegionPatch)}. Only the fields set
+ * through the {@code with} methods are written. Instances are immutable.
+ */
+public final class RegionPatch {
+    private static final RegionPatch EMPTY = new RegionPatch(Map.of());
+
+    private final Map<String, Object> changes;
+
+    private RegionPatch(Map<String, Object> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * @return a patch that changes nothing
+     */
+    public static RegionPatch empty() {
+        return EMPTY;
+    }
+
+    public RegionPatch withTitle(String title) {
+        Map<String, Object> copy = new LinkedHashMap<>(changes);
+        copy.put("title", title);
+        return new RegionPatch(Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * @return {@code true} if the patch changes nothing
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return the new values by attribute name
+     */
+    public Map<String, Object> changes() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionPatch" + changes;
+    }
+}
@@ -0,0 +1,30 @@
+package gr.aueb.cf.dao;
+
+/**
+ * Filter for set-based teacher operations. A {@code null} component does not restrict the result.
+ *
+ * @param lastname only teachers with exactly this lastname
+ * @param active   only active or only inactive teachers
+ * @param regionId only teachers of this region
+ */
+public record TeacherCriteria(String lastname, Boolean active, Long regionId) {
+
+    /**
+     * @return criteria that match every teacher
+     */
+    public static TeacherCriteria any() {
+        return new TeacherCriteria(null, null, null);
+    }
+
+    public TeacherCriteria withLastname(String lastname) {
+        return new TeacherCriteria(lastname, active, regionId);
+    }
+
+    public TeacherCriteria withActive(Boolean active) {
+        return new TeacherCriteria(lastname, active, regionId);
+    }
+
+    public TeacherCriteria withRegionId(Long regionId) {
+        return new TeacherCriteria(lastname, active, regionId);
+    }
+}
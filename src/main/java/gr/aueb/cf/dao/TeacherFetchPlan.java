@@ -0,0 +1,35 @@
+package gr.aueb.cf.dao;
+
+import gr.aueb.cf.model.Teacher;
+
+/**
+ * Named fetch plans for Teacher finders. Each plan maps to an entity graph declared on {@link Teacher}
+ * and loads the listed associations in the same query, avoiding one extra query per row.
+ */
+public enum TeacherFetchPlan {
+    /**
+     * Teacher with its region and extra info.
+     */
+    WITH_REGION(Teacher.GRAPH_WITH_REGION),
+    /**
+     * Teacher with its courses and extra info.
+     */
+    WITH_COURSES(Teacher.GRAPH_WITH_COURSES),
+    /**
+     * Teacher with region, courses and extra info.
+     */
+    FULL_PROFILE(Teacher.GRAPH_FULL_PROFILE);
+
+    private final String graphName;
+
+    TeacherFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    /**
+     * @return the name of the entity graph backing this plan
+     */
+    public String getGraphName() {
+        return graphName;
+    }
+}
@@ -0,0 +1,91 @@
+package gr.aueb.cf.dao;
+
+import gr.aueb.cf.enums.GenderType;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields of a teacher to change with {@link ITeacherDAO#patch(Long, long, TeacherPatch)}. Only the fields
+ * set through the {@code with} methods are written, and a {@code null} value clears the field.
+ * Instances are immutable.
+ */
+public final class TeacherPatch {
+    private static final TeacherPatch EMPTY = new TeacherPatch(Map.of(), Map.of());
+
+    private final Map<String, Object> changes;
+    private final Map<String, Object> detailChanges;
+
+    private TeacherPatch(Map<String, Object> changes, Map<String, Object> detailChanges) {
+        this.changes = changes;
+        this.detailChanges = detailChanges;
+    }
+
+    /**
+     * @return a patch that changes nothing
+     */
+    public static TeacherPatch empty() {
+        return EMPTY;
+    }
+
+    public TeacherPatch withFirstname(String firstname) {
+        return new TeacherPatch(with(changes, "firstname", firstname), detailChanges);
+    }
+
+    public TeacherPatch withLastname(String lastname) {
+        return new TeacherPatch(with(changes, "lastname", lastname), detailChanges);
+    }
+
+    public TeacherPatch withActive(Boolean active) {
+        return new TeacherPatch(with(changes, "active", active), detailChanges);
+    }
+
+    /**
+     * @param regionId the ID of the new region, or {@code null} to remove the teacher from its region
+     */
+    public TeacherPatch withRegionId(Long regionId) {
+        return new TeacherPatch(with(changes, "region", regionId), detailChanges);
+    }
+
+    public TeacherPatch withDateOfBirth(LocalDate dateOfBirth) {
+        return new TeacherPatch(changes, with(detailChanges, "dateOfBirth", dateOfBirth));
+    }
+
+    public TeacherPatch withGender(GenderType gender) {
+        return new TeacherPatch(changes, with(detailChanges, "gender", gender));
+    }
+
+    /**
+     * @return {@code true} if the patch changes nothing
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty() && detailChanges.isEmpty();
+    }
+
+    /**
+     * @return the new values of the teacher's own columns by attribute name; {@code region} maps to a region ID
+     */
+    public Map<String, Object> changes() {
+        return changes;
+    }
+
+    /**
+     * @return the new values of the teacher's details ({@code TeacherMoreInfo}) by attribute name
+     */
+    public Map<String, Object> detailChanges() {
+        return detailChanges;
+    }
+
+    @Override
+    public String toString() {
+        return "TeacherPatch" + changes + detailChanges;
+    }
+
+    private static Map<String, Object> with(Map<String, Object> values, String attribute, Object value) {
+        Map<String, Object> copy = new LinkedHashMap<>(values);
+        copy.put(attribute, value);
+        return Collections.unmodifiableMap(copy);
+    }
+}
@@ -0,0 +1,57 @@
+package gr.aueb.cf.dao;
+
+import gr.aueb.cf.enums.LessonType;
+
+import java.time.LocalDate;
+
+/**
+ * Filter for teacher searches. A {@code null} component does not restrict the result; the others are combined
+ * with AND.
+ *
+ * @param lastnamePrefix only teachers whose lastname starts with this text
+ * @param active         only active or only inactive teachers
+ * @param regionId       only teachers of this region
+ * @param courseId       only teachers assigned to this course
+ * @param lessonType     only teachers assigned to at least one course of this lesson type
+ * @param bornFrom       only teachers born on or after this date
+ * @param bornTo         only teachers born on or before this date
+ */
+public record TeacherSearchCriteria(String lastnamePrefix,
+                                    Boolean active,
+                                    Long regionId,
+                                    Long courseId,
+                                    LessonType lessonType,
+                                    LocalDate bornFrom,
+                                    LocalDate bornTo) {
+
+    /**
+     * @return criteria that match every teacher
+     */
+    public static TeacherSearchCriteria any() {
+        return new TeacherSearchCriteria(null, null, null, null, null, null, null);
+    }
+
+    public TeacherSearchCriteria withLastnamePrefix(String lastnamePrefix) {
+        return new TeacherSearchCriteria(lastnamePrefix, active, regionId, courseId, lessonType, bornFrom, bornTo);
+    }
+
+    public TeacherSearchCriteria withActive(Boolean active) {
+        return new TeacherSearchCriteria(lastnamePrefix, active, regionId, courseId, lessonType, bornFrom, bornTo);
+    }
+
+    public TeacherSearchCriteria withRegionId(Long regionId) {
+        return new TeacherSearchCriteria(lastnamePrefix, active, regionId, courseId, lessonType, bornFrom, bornTo);
+    }
+
+    public TeacherSearchCriteria withCourseId(Long courseId) {
+        return new TeacherSearchCriteria(lastnamePrefix, active, regionId, courseId, lessonType, bornFrom, bornTo);
+    }
+
+    public TeacherSearchCriteria withLessonType(LessonType lessonType) {
+        return new TeacherSearchCriteria(lastnamePrefix, active, regionId, courseId, lessonType, bornFrom, bornTo);
+    }
+
+    public TeacherSearchCriteria withBornBetween(LocalDate bornFrom, LocalDate bornTo) {
+        return new TeacherSearchCriteria(lastnamePrefix, active, regionId, courseId, lessonType, bornFrom, bornTo);
+    }
+}
@@ -0,0 +1,16 @@
+package gr.aueb.cf.dao;
+
+/**
+ * Orders of teacher search results. Both are total orders backed by an index, so results can be paged by
+ * keyset: the continuation token holds the sort key of the last row returned.
+ */
+public enum TeacherSort {
+    /**
+     * By ID, i.e. in creation order.
+     */
+    ID,
+    /**
+     * By lastname, then by ID among equal lastnames.
+     */
+    LASTNAME
+}
@@ -0,0 +1,92 @@
+package gr.aueb.cf.dao.impl;
+
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.UnitOfWork;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chunked bulk persistence shared by the DAO implementations.
+ * Each chunk runs in its own transaction; inside a chunk the persistence context is flushed and cleared
+ * every JDBC batch so that Hibernate can group the INSERTs and memory stays bounded.
+ * Inside a {@link UnitOfWork} the chunks join its transaction; clearing would detach everything else the unit
+ * has loaded, so only the entities just flushed are detached, which keeps each flush from dirty-checking all
+ * the earlier ones again.
+ */
+final class BatchSupport {
+
+    private BatchSupport() {
+    }
+
+    /**
+     * Persists the entities chunk by chunk.
+     * Chunks committed before a failure stay committed; the failing chunk is rolled back and the error rethrown.
+     *
+     * @param entities  the entities to persist
+     * @param chunkSize the number of entities per transaction
+     * @param listener  notified after every committed chunk
+     * @return the persisted entities, detached, with their generated IDs
+     */
+    static <T> List<T> persistInChunks(Collection<T> entities, int chunkSize, BatchProgressListener listener) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        int total = entities.size();
+        int flushInterval = Math.min(chunkSize, JPAUtil.getJdbcBatchSize());
+        List<T> persisted = new ArrayList<>(total);
+        List<T> chunk = new ArrayList<>(Math.min(chunkSize, total));
+        int chunkNumber = 0;
+        for (T entity : entities) {
+            chunk.add(entity);
+            if (chunk.size() == chunkSize) {
+                persistChunk(chunk, flushInterval);
+                persisted.addAll(chunk);
+                chunk.clear();
+                listener.onChunkCommitted(++chunkNumber, persisted.size(), total);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, flushInterval);
+            persisted.addAll(chunk);
+            listener.onChunkCommitted(++chunkNumber, persisted.size(), total);
+        }
+        return persisted;
+    }
+
+    private static <T> void persistChunk(List<T> chunk, int flushInterval) {
+        EntityManager em = JPAUtil.getEntityManager();
+        boolean joined = UnitOfWork.isActive();
+        try {
+            em.getTransaction().begin();
+            int flushed = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                em.persist(chunk.get(i));
+                if ((i + 1) % flushInterval == 0) {
+                    em.flush();
+                    if (joined) {
+                        chunk.subList(flushed, i + 1).forEach(em::detach);
+                        flushed = i + 1;
+                    } else {
+                        em.clear();
+                    }
+                }
+            }
+            if (joined && flushed < chunk.size()) {
+                em.flush();
+                chunk.subList(flushed, chunk.size()).forEach(em::detach);
+            }
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package gr.aueb.cf.dao.impl;
+
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.UnitOfWork;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based UPDATE/DELETE statements shared by the DAO implementations.
+ * Bulk statements bypass the persistence context, so inside a {@link UnitOfWork} pending changes are flushed
+ * before they run and the context is cleared afterwards; entities the caller loaded earlier in the unit are
+ * detached and must be looked up again. Hibernate evicts the second-level cache regions of the affected tables.
+ */
+final class BulkUpdateSupport {
+
+    private BulkUpdateSupport() {
+    }
+
+    /**
+     * Runs the statements in one transaction.
+     *
+     * @param work executes the statements and returns the number of affected rows
+     * @return the number of affected rows
+     */
+    static int execute(ToIntFunction<EntityManager> work) {
+        EntityManager em = JPAUtil.getEntityManager();
+        boolean joined = UnitOfWork.isActive();
+        try {
+            em.getTransaction().begin();
+            if (joined) {
+                em.flush();
+            }
+            int affected = work.applyAsInt(em);
+            if (joined) {
+                em.clear();
+            }
+            em.getTransaction().commit();
+            return affected;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Splits the IDs into distinct chunks of at most the bulk chunk size, to keep IN lists bounded.
+     *
+     * @param ids the IDs
+     * @return the chunks
+     */
+    static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        int chunkSize = JPAUtil.getBulkChunkSize();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+}
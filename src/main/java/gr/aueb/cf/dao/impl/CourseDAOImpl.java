@@ -1,18 +1,50 @@
 package gr.aueb.cf.dao.impl;
 
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.ConstraintViolations;
+import gr.aueb.cf.dao.CourseFetchPlan;
+import gr.aueb.cf.dao.CoursePatch;
 import gr.aueb.cf.dao.ICourseDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dto.CourseSummary;
+import gr.aueb.cf.dto.CourseTeacherCount;
+import gr.aueb.cf.enums.LessonType;
 import gr.aueb.cf.model.Course;
 import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.UnitOfWork;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ICourseDAO using JPA EntityManager.
  */
 public class CourseDAOImpl implements ICourseDAO {
+    private static final String TITLE_QUERY_CACHE_REGION = "courses.by-title";
+    private static final String COURSE_COLUMN = Course.TEACHERS_JOIN_COURSE_COLUMN;
+    private static final String TEACHER_COLUMN = Course.TEACHERS_JOIN_TEACHER_COLUMN;
+    private static final String ADD_TEACHERS_SQL = "INSERT INTO " + Course.TEACHERS_JOIN_TABLE
+            + " (" + COURSE_COLUMN + ", " + TEACHER_COLUMN + ") SELECT c.id, t.id FROM courses c CROSS JOIN teachers t"
+            + " WHERE c.id IN (:courseIds) AND t.id IN (:teacherIds) AND NOT EXISTS (SELECT 1 FROM "
+            + Course.TEACHERS_JOIN_TABLE + " ct WHERE ct." + COURSE_COLUMN + " = c.id AND ct." + TEACHER_COLUMN
+            + " = t.id)";
+    private static final String REMOVE_TEACHERS_SQL = "DELETE FROM " + Course.TEACHERS_JOIN_TABLE
+            + " WHERE " + COURSE_COLUMN + " IN (:courseIds) AND " + TEACHER_COLUMN + " IN (:teacherIds)";
+    private static final String SUMMARY_SELECT = "SELECT new gr.aueb.cf.dto.CourseSummary("
+            + "c.id, c.title, c.lessonType) FROM Course c";
 
     @Override
     public Course insert(Course course) {
@@ -32,6 +64,46 @@ public class CourseDAOImpl implements ICourseDAO {
         }
     }
 
+    @Override
+    public List<Course> insertAll(Collection<Course> courses) {
+        return insertAll(courses, JPAUtil.getBulkChunkSize(), BatchProgressListener.NONE);
+    }
+
+    @Override
+    public List<Course> insertAll(Collection<Course> courses, int chunkSize, BatchProgressListener listener) {
+        return BatchSupport.persistInChunks(courses, chunkSize, listener);
+    }
+
+    @Override
+    public boolean insertIfAbsent(Course course) {
+        if (UnitOfWork.isActive()) {
+            if (existsByTitle(course.getTitle())) {
+                return false;
+            }
+            insert(course);
+            return true;
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(course);
+            em.getTransaction().commit();
+            return true;
+        } catch (PersistenceException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            // Lost the race for the title: the winning row is visible now
+            if (ConstraintViolations.isConstraintViolation(e) && existsByTitle(course.getTitle())) {
+                course.setId(null);
+                return false;
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public Course update(Course course) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -50,6 +122,12 @@ public class CourseDAOImpl implements ICourseDAO {
         }
     }
 
+    @Override
+    public long patch(Long id, long version, CoursePatch patch) {
+        VersionedUpdateSupport.patchCached(Course.class, id, version, patch.changes());
+        return version + 1;
+    }
+
     @Override
     public void delete(Long id) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -83,7 +161,7 @@ public class CourseDAOImpl implements ICourseDAO {
 
     @Override
     public List<Course> getAll() {
-        EntityManager em = JPAUtil.getEntityManager();
+        EntityManager em = JPAUtil.getReadEntityManager();
         try {
             TypedQuery<Course> query = em.createQuery("SELECT c FROM Course c", Course.class);
             return query.getResultList();
@@ -94,15 +172,277 @@ public class CourseDAOImpl implements ICourseDAO {
 
     @Override
     public Optional<Course> getByTitle(String title) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Course> query = em.createQuery(
+                    "SELECT c FROM Course c WHERE c.title = :title", Course.class);
+            query.setParameter("title", title);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+            query.setHint(HibernateHints.HINT_CACHE_REGION, TITLE_QUERY_CACHE_REGION);
+            List<Course> results = query.getResultList();
+            return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public boolean existsByTitle(String title) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<Long> query = em.createQuery(
+                    "SELECT c.id FROM Course c WHERE c.title = :title", Long.class);
+            query.setParameter("title", title);
+            query.setMaxResults(1);
+            return !query.getResultList().isEmpty();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Course> getByTitles(Collection<String> titles) {
+        List<Course> found = new ArrayList<>();
+        if (titles.isEmpty()) {
+            return found;
+        }
+        List<String> titleList = new ArrayList<>(titles);
+        int chunkSize = JPAUtil.getBulkChunkSize();
         EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<Course> query = em.createQuery(
+                    "SELECT c FROM Course c WHERE c.title IN :titles", Course.class);
+            for (int from = 0; from < titleList.size(); from += chunkSize) {
+                query.setParameter("titles", titleList.subList(from, Math.min(from + chunkSize, titleList.size())));
+                found.addAll(query.getResultList());
+            }
+            return found;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Set<String> findExistingTitles(Collection<String> titles) {
+        Set<String> existing = new HashSet<>();
+        if (titles.isEmpty()) {
+            return existing;
+        }
+        List<String> titleList = new ArrayList<>(titles);
+        int chunkSize = JPAUtil.getBulkChunkSize();
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<String> query = em.createQuery(
+                    "SELECT c.title FROM Course c WHERE c.title IN :titles", String.class);
+            for (int from = 0; from < titleList.size(); from += chunkSize) {
+                query.setParameter("titles", titleList.subList(from, Math.min(from + chunkSize, titleList.size())));
+                existing.addAll(query.getResultList());
+            }
+            return existing;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<Course> getAllPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Course> query = em.createQuery(
+                    "SELECT c FROM Course c WHERE c.id > :afterId ORDER BY c.id", Course.class);
+            return PagingSupport.page(query, pageToken, pageSize, Course::getId);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Stream<Course> streamAll(int fetchSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        TypedQuery<Course> query = em.createQuery("SELECT c FROM Course c ORDER BY c.id", Course.class);
+        return PagingSupport.stream(em, query, fetchSize);
+    }
+
+    @Override
+    public Optional<Course> getById(Long id, CourseFetchPlan plan) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            // A query rather than find(): find() hands back an instance that is already cached as is,
+            // without applying the graph
+            TypedQuery<Course> query = em.createQuery(
+                    "SELECT c FROM Course c WHERE c.id = :id", Course.class);
+            query.setParameter("id", id);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
+            return query.getResultStream().findFirst();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Course> getAll(CourseFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Course> query = em.createQuery("SELECT c FROM Course c", Course.class);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Optional<Course> getByTitle(String title, CourseFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
         try {
             TypedQuery<Course> query = em.createQuery(
                     "SELECT c FROM Course c WHERE c.title = :title", Course.class);
             query.setParameter("title", title);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
             List<Course> results = query.getResultList();
             return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
         } finally {
             em.close();
         }
     }
+
+    @Override
+    public List<CourseSummary> getAllSummaries() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<CourseSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " ORDER BY c.id", CourseSummary.class);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<CourseSummary> getSummariesPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<CourseSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " WHERE c.id > :afterId ORDER BY c.id", CourseSummary.class);
+            return PagingSupport.page(query, pageToken, pageSize, CourseSummary::id);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public int addTeachers(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        return updateTeacherLinks(ADD_TEACHERS_SQL, courseIds, teacherIds);
+    }
+
+    @Override
+    public int addTeachers(Map<Long, ? extends Collection<Long>> teacherIdsByCourse) {
+        return updateTeacherLinks(ADD_TEACHERS_SQL, teacherIdsByCourse.entrySet().stream()
+                .map(entry -> new TeacherLinks(List.of(entry.getKey()), entry.getValue()))
+                .toList());
+    }
+
+    @Override
+    public int removeTeachers(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        return updateTeacherLinks(REMOVE_TEACHERS_SQL, courseIds, teacherIds);
+    }
+
+    @Override
+    public Map<Long, Long> countTeachersByCourse() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            Map<Long, Long> counts = new HashMap<>();
+            em.createQuery("SELECT c.id, COUNT(t) FROM Course c JOIN c.teachers t GROUP BY c.id", Object[].class)
+                    .getResultStream()
+                    .forEach(row -> counts.put((Long) row[0], (Long) row[1]));
+            return counts;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Map<LessonType, Long> countByLessonType() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            Map<LessonType, Long> counts = new HashMap<>();
+            em.createQuery("SELECT c.lessonType, COUNT(c) FROM Course c GROUP BY c.lessonType", Object[].class)
+                    .getResultStream()
+                    .forEach(row -> counts.put((LessonType) row[0], (Long) row[1]));
+            return counts;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<CourseTeacherCount> getTopByTeacherCount(int limit) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            return em.createQuery("SELECT new gr.aueb.cf.dto.CourseTeacherCount(c.id, c.title, c.lessonType,"
+                            + " COUNT(t)) FROM Course c JOIN c.teachers t GROUP BY c.id, c.title, c.lessonType"
+                            + " ORDER BY COUNT(t) DESC, c.id", CourseTeacherCount.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    private int updateTeacherLinks(String sql, Collection<Long> courseIds, Collection<Long> teacherIds) {
+        return updateTeacherLinks(sql, List.of(new TeacherLinks(courseIds, teacherIds)));
+    }
+
+    /**
+     * Runs a join table statement for every chunk of course IDs against every chunk of teacher IDs of each
+     * entry, all in one transaction.
+     * The statement is registered against the join table only, so Hibernate evicts just the cached
+     * course/teacher collections and the affected query results instead of the whole second-level cache,
+     * and again once the transaction completes.
+     * <p>
+     * Two transactions adding the same pair at once both find it missing, and the later insert fails on the
+     * primary key once the other commits. Outside a unit of work the transaction is then run once more, and
+     * finds the committed row; inside one the unit is already rollback-only and the violation is thrown.
+     */
+    private int updateTeacherLinks(String sql, List<TeacherLinks> links) {
+        if (links.stream().allMatch(TeacherLinks::isEmpty)) {
+            return 0;
+        }
+        try {
+            return executeTeacherLinks(sql, links);
+        } catch (PersistenceException e) {
+            if (UnitOfWork.isActive() || !ConstraintViolations.isConstraintViolation(e)) {
+                throw e;
+            }
+            return executeTeacherLinks(sql, links);
+        }
+    }
+
+    private static int executeTeacherLinks(String sql, List<TeacherLinks> links) {
+        return BulkUpdateSupport.execute(em -> {
+            NativeQuery<?> query = em.createNativeQuery(sql).unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(Course.TEACHERS_JOIN_TABLE);
+            int changed = 0;
+            for (TeacherLinks link : links) {
+                List<List<Long>> teacherChunks = BulkUpdateSupport.chunks(link.teacherIds());
+                for (List<Long> courseChunk : BulkUpdateSupport.chunks(link.courseIds())) {
+                    query.setParameterList("courseIds", courseChunk);
+                    for (List<Long> teacherChunk : teacherChunks) {
+                        query.setParameterList("teacherIds", teacherChunk);
+                        changed += query.executeUpdate();
+                    }
+                }
+            }
+            return changed;
+        });
+    }
+
+    /**
+     * Every course of {@code courseIds} against every teacher of {@code teacherIds}.
+     */
+    private record TeacherLinks(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        boolean isEmpty() {
+            return courseIds.isEmpty() || teacherIds.isEmpty();
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package gr.aueb.cf.dao.impl;
+
+import gr.aueb.cf.dao.Page;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Keyset pagination and forward-only streaming shared by the DAO implementations.
+ * Pages seek by ID ({@code WHERE id > :afterId ORDER BY id}) so every page costs the same regardless of depth.
+ */
+final class PagingSupport {
+
+    private PagingSupport() {
+    }
+
+    /**
+     * Decodes a continuation token.
+     *
+     * @param pageToken the token of the previous page, or {@code null} for the first page
+     * @return the ID after which the requested page starts
+     */
+    static long afterId(String pageToken) {
+        if (pageToken == null || pageToken.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(pageToken);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token '" + pageToken + "'", e);
+        }
+    }
+
+    /**
+     * Runs a keyset query that is ordered by ID and has an {@code :afterId} parameter.
+     * One extra row is fetched to find out whether another page follows.
+     *
+     * @param query     the query
+     * @param pageToken the token of the previous page, or {@code null} for the first page
+     * @param pageSize  the maximum number of rows to return
+     * @param idOf      extracts the ID of a row
+     * @return the page
+     */
+    static <T> Page<T> page(TypedQuery<T> query, String pageToken, int pageSize, ToLongFunction<T> idOf) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        List<T> rows = query.setParameter("afterId", afterId(pageToken))
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new Page<>(items, Long.toString(idOf.applyAsLong(items.get(pageSize - 1))));
+    }
+
+    /**
+     * Streams the query results through a forward-only cursor, fetching {@code fetchSize} rows per round trip.
+     * Each entity is detached as it is handed out so the persistence context does not grow with the result.
+     * The returned stream owns the EntityManager and must be closed.
+     *
+     * @param em        the EntityManager, closed together with the stream
+     * @param query     the query
+     * @param fetchSize the JDBC fetch size
+     * @return the open stream
+     */
+    static <T> Stream<T> stream(EntityManager em, TypedQuery<T> query, int fetchSize) {
+        return streamValues(em, query, fetchSize).map(entity -> {
+            em.detach(entity);
+            return entity;
+        });
+    }
+
+    /**
+     * Streams the results of a query that selects values rather than entities, e.g. DTO projections,
+     * which leave nothing in the persistence context to detach. The returned stream owns the EntityManager
+     * and must be closed.
+     *
+     * @param em        the EntityManager, closed together with the stream
+     * @param query     the query
+     * @param fetchSize the JDBC fetch size
+     * @return the open stream
+     */
+    static <T> Stream<T> streamValues(EntityManager em, TypedQuery<T> query, int fetchSize) {
+        if (fetchSize < 1) {
+            em.close();
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        try {
+            return query.setHint("org.hibernate.fetchSize", fetchSize)
+                    .setHint("org.hibernate.readOnly", true)
+                    .getResultStream()
+                    .onClose(em::close);
+        } catch (RuntimeException e) {
+            em.close();
+            throw e;
+        }
+    }
+}
@@ -1,18 +1,40 @@
 package gr.aueb.cf.dao.impl;
 
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.ConstraintViolations;
 import gr.aueb.cf.dao.IRegionDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.RegionFetchPlan;
+import gr.aueb.cf.dao.RegionPatch;
+import gr.aueb.cf.dto.RegionSummary;
+import gr.aueb.cf.dto.RegionTeacherCount;
 import gr.aueb.cf.model.Region;
 import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.UnitOfWork;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Implementation of IRegionDAO using JPA EntityManager.
  */
 public class RegionDAOImpl implements IRegionDAO {
+    private static final String TITLE_QUERY_CACHE_REGION = "regions.by-title";
+    private static final String SUMMARY_SELECT = "SELECT new gr.aueb.cf.dto.RegionSummary("
+            + "r.id, r.title) FROM Region r";
 
     @Override
     public Region insert(Region region) {
@@ -32,6 +54,46 @@ public class RegionDAOImpl implements IRegionDAO {
         }
     }
 
+    @Override
+    public List<Region> insertAll(Collection<Region> regions) {
+        return insertAll(regions, JPAUtil.getBulkChunkSize(), BatchProgressListener.NONE);
+    }
+
+    @Override
+    public List<Region> insertAll(Collection<Region> regions, int chunkSize, BatchProgressListener listener) {
+        return BatchSupport.persistInChunks(regions, chunkSize, listener);
+    }
+
+    @Override
+    public boolean insertIfAbsent(Region region) {
+        if (UnitOfWork.isActive()) {
+            if (existsByTitle(region.getTitle())) {
+                return false;
+            }
+            insert(region);
+            return true;
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(region);
+            em.getTransaction().commit();
+            return true;
+        } catch (PersistenceException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            // Lost the race for the title: the winning row is visible now
+            if (ConstraintViolations.isConstraintViolation(e) && existsByTitle(region.getTitle())) {
+                region.setId(null);
+                return false;
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public Region update(Region region) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -50,6 +112,12 @@ public class RegionDAOImpl implements IRegionDAO {
         }
     }
 
+    @Override
+    public long patch(Long id, long version, RegionPatch patch) {
+        VersionedUpdateSupport.patchCached(Region.class, id, version, patch.changes());
+        return version + 1;
+    }
+
     @Override
     public void delete(Long id) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -83,7 +151,7 @@ public class RegionDAOImpl implements IRegionDAO {
 
     @Override
     public List<Region> getAll() {
-        EntityManager em = JPAUtil.getEntityManager();
+        EntityManager em = JPAUtil.getReadEntityManager();
         try {
             TypedQuery<Region> query = em.createQuery("SELECT r FROM Region r", Region.class);
             return query.getResultList();
@@ -94,15 +162,267 @@ public class RegionDAOImpl implements IRegionDAO {
 
     @Override
     public Optional<Region> getByTitle(String title) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Region> query = em.createQuery(
+                    "SELECT r FROM Region r WHERE r.title = :title", Region.class);
+            query.setParameter("title", title);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+            query.setHint(HibernateHints.HINT_CACHE_REGION, TITLE_QUERY_CACHE_REGION);
+            List<Region> results = query.getResultList();
+            return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public boolean existsByTitle(String title) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<Long> query = em.createQuery(
+                    "SELECT r.id FROM Region r WHERE r.title = :title", Long.class);
+            query.setParameter("title", title);
+            query.setMaxResults(1);
+            return !query.getResultList().isEmpty();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Region> getByTitles(Collection<String> titles) {
+        List<Region> found = new ArrayList<>();
+        if (titles.isEmpty()) {
+            return found;
+        }
+        List<String> titleList = new ArrayList<>(titles);
+        int chunkSize = JPAUtil.getBulkChunkSize();
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<Region> query = em.createQuery(
+                    "SELECT r FROM Region r WHERE r.title IN :titles", Region.class);
+            for (int from = 0; from < titleList.size(); from += chunkSize) {
+                query.setParameter("titles", titleList.subList(from, Math.min(from + chunkSize, titleList.size())));
+                found.addAll(query.getResultList());
+            }
+            return found;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Set<String> findExistingTitles(Collection<String> titles) {
+        Set<String> existing = new HashSet<>();
+        if (titles.isEmpty()) {
+            return existing;
+        }
+        List<String> titleList = new ArrayList<>(titles);
+        int chunkSize = JPAUtil.getBulkChunkSize();
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<String> query = em.createQuery(
+                    "SELECT r.title FROM Region r WHERE r.title IN :titles", String.class);
+            for (int from = 0; from < titleList.size(); from += chunkSize) {
+                query.setParameter("titles", titleList.subList(from, Math.min(from + chunkSize, titleList.size())));
+                existing.addAll(query.getResultList());
+            }
+            return existing;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<Region> getAllPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Region> query = em.createQuery(
+                    "SELECT r FROM Region r WHERE r.id > :afterId ORDER BY r.id", Region.class);
+            return PagingSupport.page(query, pageToken, pageSize, Region::getId);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Stream<Region> streamAll(int fetchSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        TypedQuery<Region> query = em.createQuery("SELECT r FROM Region r ORDER BY r.id", Region.class);
+        return PagingSupport.stream(em, query, fetchSize);
+    }
+
+    @Override
+    public Optional<Region> getById(Long id, RegionFetchPlan plan) {
         EntityManager em = JPAUtil.getEntityManager();
+        try {
+            // A query rather than find(): find() hands back an instance that is already cached as is,
+            // without applying the graph
+            TypedQuery<Region> query = em.createQuery(
+                    "SELECT r FROM Region r WHERE r.id = :id", Region.class);
+            query.setParameter("id", id);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
+            return query.getResultStream().findFirst();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Region> getAll(RegionFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Region> query = em.createQuery("SELECT r FROM Region r", Region.class);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Optional<Region> getByTitle(String title, RegionFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
         try {
             TypedQuery<Region> query = em.createQuery(
                     "SELECT r FROM Region r WHERE r.title = :title", Region.class);
             query.setParameter("title", title);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
             List<Region> results = query.getResultList();
             return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
         } finally {
             em.close();
         }
     }
+
+    @Override
+    public List<RegionSummary> getAllSummaries() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<RegionSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " ORDER BY r.id", RegionSummary.class);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<RegionSummary> getSummariesPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<RegionSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " WHERE r.id > :afterId ORDER BY r.id", RegionSummary.class);
+            return PagingSupport.page(query, pageToken, pageSize, RegionSummary::id);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public int moveTeachers(Collection<Long> teacherIds, Long regionId) {
+        if (teacherIds.isEmpty()) {
+            return 0;
+        }
+        return BulkUpdateSupport.execute(em -> {
+            Query query = em.createQuery(
+                            "UPDATE Teacher t SET t.region = :region, t.version = t.version + 1 WHERE t.id IN :ids")
+                    .setParameter("region", em.getReference(Region.class, regionId));
+            int moved = 0;
+            for (List<Long> ids : BulkUpdateSupport.chunks(teacherIds)) {
+                moved += query.setParameter("ids", ids).executeUpdate();
+            }
+            return moved;
+        });
+    }
+
+    @Override
+    public int moveAllTeachers(Long fromRegionId, Long toRegionId) {
+        return BulkUpdateSupport.execute(em -> moveAll(em, fromRegionId, toRegionId));
+    }
+
+    @Override
+    public int detachTeachers(Long regionId, Collection<Long> teacherIds) {
+        if (teacherIds.isEmpty()) {
+            return 0;
+        }
+        return BulkUpdateSupport.execute(em -> {
+            Query query = em.createQuery("UPDATE Teacher t SET t.region = null, t.version = t.version + 1"
+                            + " WHERE t.region.id = :regionId AND t.id IN :ids")
+                    .setParameter("regionId", regionId);
+            int detached = 0;
+            for (List<Long> ids : BulkUpdateSupport.chunks(teacherIds)) {
+                detached += query.setParameter("ids", ids).executeUpdate();
+            }
+            return detached;
+        });
+    }
+
+    @Override
+    public int mergeInto(Long sourceRegionId, Long targetRegionId) {
+        return BulkUpdateSupport.execute(em -> {
+            int moved = moveAll(em, sourceRegionId, targetRegionId);
+            deleteById(em, sourceRegionId);
+            return moved;
+        });
+    }
+
+    @Override
+    public int deleteDetachingTeachers(Long regionId) {
+        return BulkUpdateSupport.execute(em -> {
+            int detached = em.createQuery("UPDATE Teacher t SET t.region = null, t.version = t.version + 1"
+                            + " WHERE t.region.id = :regionId")
+                    .setParameter("regionId", regionId)
+                    .executeUpdate();
+            deleteById(em, regionId);
+            return detached;
+        });
+    }
+
+    @Override
+    public List<RegionTeacherCount> getTeacherCounts() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            // The teachers are grouped on their own, which the (region_id, active) index answers without
+            // reading the rows, and matched to the few regions here
+            Map<Long, long[]> counts = new HashMap<>();
+            em.createQuery("SELECT t.region.id, COUNT(t), SUM(CASE WHEN t.active = true THEN 1 ELSE 0 END)"
+                            + " FROM Teacher t GROUP BY t.region.id", Object[].class)
+                    .getResultStream()
+                    .forEach(row -> counts.put((Long) row[0],
+                            new long[]{(Long) row[1], ((Number) row[2]).longValue()}));
+            List<RegionTeacherCount> result = new ArrayList<>();
+            em.createQuery(SUMMARY_SELECT + " ORDER BY r.title", RegionSummary.class)
+                    .getResultStream()
+                    .forEach(region -> result.add(
+                            teacherCount(region.id(), region.title(), counts.get(region.id()))));
+            if (counts.containsKey(null)) {
+                result.add(teacherCount(null, null, counts.get(null)));
+            }
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static int moveAll(EntityManager em, Long fromRegionId, Long toRegionId) {
+        return em.createQuery("UPDATE Teacher t SET t.region = :region, t.version = t.version + 1"
+                        + " WHERE t.region.id = :fromRegionId")
+                .setParameter("region", em.getReference(Region.class, toRegionId))
+                .setParameter("fromRegionId", fromRegionId)
+                .executeUpdate();
+    }
+
+    private static RegionTeacherCount teacherCount(Long regionId, String title, long[] counts) {
+        return counts == null
+                ? new RegionTeacherCount(regionId, title, 0, 0)
+                : new RegionTeacherCount(regionId, title, counts[0], counts[1]);
+    }
+
+    private static void deleteById(EntityManager em, Long regionId) {
+        em.createQuery("DELETE FROM Region r WHERE r.id = :regionId")
+                .setParameter("regionId", regionId)
+                .executeUpdate();
+    }
 }
@@ -1,18 +1,53 @@
 package gr.aueb.cf.dao.impl;
 
+import gr.aueb.cf.dao.BatchProgressListener;
 import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherCriteria;
+import gr.aueb.cf.dao.TeacherFetchPlan;
+import gr.aueb.cf.dao.TeacherPatch;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
+import gr.aueb.cf.dto.AgeBucketCount;
+import gr.aueb.cf.dto.GenderCount;
+import gr.aueb.cf.dto.TeacherExportRow;
+import gr.aueb.cf.dto.TeacherMembershipRow;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.enums.GenderType;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Region;
 import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.model.TeacherMoreInfo;
 import gr.aueb.cf.util.JPAUtil;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ITeacherDAO using JPA EntityManager.
  */
 public class TeacherDAOImpl implements ITeacherDAO {
+    private static final String SUMMARY_SELECT = "SELECT new gr.aueb.cf.dto.TeacherSummary("
+            + "t.id, t.version, t.firstname, t.lastname, t.active, r.title) FROM Teacher t LEFT JOIN t.region r";
+    private static final Map<String, String> SEARCH_QUERIES = new ConcurrentHashMap<>();
 
     @Override
     public Teacher insert(Teacher teacher) {
@@ -32,6 +67,16 @@ public class TeacherDAOImpl implements ITeacherDAO {
         }
     }
 
+    @Override
+    public List<Teacher> insertAll(Collection<Teacher> teachers) {
+        return insertAll(teachers, JPAUtil.getBulkChunkSize(), BatchProgressListener.NONE);
+    }
+
+    @Override
+    public List<Teacher> insertAll(Collection<Teacher> teachers, int chunkSize, BatchProgressListener listener) {
+        return BatchSupport.persistInChunks(teachers, chunkSize, listener);
+    }
+
     @Override
     public Teacher update(Teacher teacher) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -50,42 +95,253 @@ public class TeacherDAOImpl implements ITeacherDAO {
         }
     }
 
+    @Override
+    public long patch(Long id, long version, TeacherPatch patch) {
+        BulkUpdateSupport.execute(em -> {
+            Map<String, Object> changes = new LinkedHashMap<>(patch.changes());
+            changes.computeIfPresent("region", (attribute, regionId) -> em.getReference(Region.class, regionId));
+            VersionedUpdateSupport.patch(em, Teacher.class, id, version, changes);
+            if (!patch.detailChanges().isEmpty()) {
+                Query details = em.createQuery("UPDATE TeacherMoreInfo m SET "
+                                + VersionedUpdateSupport.assignments("m", patch.detailChanges())
+                                + " WHERE m.id = (SELECT t.teacherMoreInfo.id FROM Teacher t WHERE t.id = :id)")
+                        .setParameter("id", id);
+                VersionedUpdateSupport.bind(details, patch.detailChanges());
+                if (details.executeUpdate() == 0) {
+                    // The teacher has no details row yet: create one holding the patched fields
+                    TeacherMoreInfo info = new TeacherMoreInfo();
+                    VersionedUpdateSupport.set(em, info, patch.detailChanges());
+                    em.persist(info);
+                    em.flush();
+                    em.createQuery("UPDATE Teacher t SET t.teacherMoreInfo = :info WHERE t.id = :id")
+                            .setParameter("info", info)
+                            .setParameter("id", id)
+                            .executeUpdate();
+                }
+            }
+            return 1;
+        });
+        return version + 1;
+    }
+
     @Override
     public void delete(Long id) {
+        deleteAll(List.of(id));
+    }
+
+    @Override
+    public Optional<Teacher> getById(Long id) {
         EntityManager em = JPAUtil.getEntityManager();
         try {
-            em.getTransaction().begin();
             Teacher teacher = em.find(Teacher.class, id);
-            if (teacher != null) {
-                em.remove(teacher);
+            return Optional.ofNullable(teacher);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Teacher> getAll() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Teacher> query = em.createQuery("SELECT t FROM Teacher t", Teacher.class);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Teacher> getByLastname(String lastname) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Teacher> query = em.createQuery(
+                    "SELECT t FROM Teacher t WHERE t.lastname = :lastname", Teacher.class);
+            query.setParameter("lastname", lastname);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Teacher> getActiveTeachers() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Teacher> query = em.createQuery(
+                    "SELECT t FROM Teacher t WHERE t.active = true", Teacher.class);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<Teacher> getAllPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Teacher> query = em.createQuery(
+                    "SELECT t FROM Teacher t LEFT JOIN FETCH t.teacherMoreInfo"
+                            + " WHERE t.id > :afterId ORDER BY t.id", Teacher.class);
+            return PagingSupport.page(query, pageToken, pageSize, Teacher::getId);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<Teacher> getByLastnamePage(String lastname, String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Teacher> query = em.createQuery(
+                    "SELECT t FROM Teacher t LEFT JOIN FETCH t.teacherMoreInfo"
+                            + " WHERE t.lastname = :lastname AND t.id > :afterId ORDER BY t.id", Teacher.class);
+            query.setParameter("lastname", lastname);
+            return PagingSupport.page(query, pageToken, pageSize, Teacher::getId);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<Teacher> getActiveTeachersPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Teacher> query = em.createQuery(
+                    "SELECT t FROM Teacher t LEFT JOIN FETCH t.teacherMoreInfo"
+                            + " WHERE t.active = true AND t.id > :afterId ORDER BY t.id", Teacher.class);
+            return PagingSupport.page(query, pageToken, pageSize, Teacher::getId);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Stream<Teacher> streamAll(int fetchSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        TypedQuery<Teacher> query = em.createQuery(
+                "SELECT t FROM Teacher t LEFT JOIN FETCH t.teacherMoreInfo ORDER BY t.id", Teacher.class);
+        return PagingSupport.stream(em, query, fetchSize);
+    }
+
+    @Override
+    public Stream<Teacher> streamByLastname(String lastname, int fetchSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        TypedQuery<Teacher> query = em.createQuery(
+                "SELECT t FROM Teacher t LEFT JOIN FETCH t.teacherMoreInfo"
+                        + " WHERE t.lastname = :lastname ORDER BY t.id", Teacher.class);
+        query.setParameter("lastname", lastname);
+        return PagingSupport.stream(em, query, fetchSize);
+    }
+
+    @Override
+    public Stream<Teacher> streamActiveTeachers(int fetchSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        TypedQuery<Teacher> query = em.createQuery(
+                "SELECT t FROM Teacher t LEFT JOIN FETCH t.teacherMoreInfo"
+                        + " WHERE t.active = true ORDER BY t.id", Teacher.class);
+        return PagingSupport.stream(em, query, fetchSize);
+    }
+
+    @Override
+    public Stream<TeacherSummary> streamSummaries(int fetchSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        TypedQuery<TeacherSummary> query = em.createQuery(SUMMARY_SELECT + " ORDER BY t.id", TeacherSummary.class);
+        return PagingSupport.streamValues(em, query, fetchSize);
+    }
+
+    @Override
+    public Stream<TeacherMembershipRow> streamMemberships(int fetchSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        TypedQuery<TeacherMembershipRow> query = em.createQuery("SELECT new gr.aueb.cf.dto.TeacherMembershipRow("
+                + "t.id, t.version, t.region.id, t.active, m.gender, c.id) FROM Teacher t"
+                + " LEFT JOIN t.teacherMoreInfo m LEFT JOIN t.courses c ORDER BY t.id", TeacherMembershipRow.class);
+        return PagingSupport.streamValues(em, query, fetchSize);
+    }
+
+    @Override
+    public Map<Long, Long> countActiveByRegion() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            Map<Long, Long> counts = new HashMap<>();
+            em.createQuery("SELECT t.region.id, COUNT(t) FROM Teacher t WHERE t.active = true"
+                            + " GROUP BY t.region.id", Object[].class)
+                    .getResultStream()
+                    .forEach(row -> counts.put((Long) row[0], (Long) row[1]));
+            return counts;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<GenderCount> countByGender() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            return em.createQuery("SELECT new gr.aueb.cf.dto.GenderCount(m.gender, COUNT(t))"
+                            + " FROM Teacher t LEFT JOIN t.teacherMoreInfo m GROUP BY m.gender", GenderCount.class)
+                    .getResultStream()
+                    .sorted(Comparator.comparing(GenderCount::gender, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<AgeBucketCount> countByAge(LocalDate today, int[] ageBounds) {
+        // Range i holds the ages below ageBounds[i], i.e. the teachers born after today minus that many years
+        StringBuilder range = new StringBuilder("CASE WHEN m.dateOfBirth IS NULL THEN -1");
+        for (int i = 0; i < ageBounds.length; i++) {
+            range.append(" WHEN m.dateOfBirth > :bornAfter").append(i).append(" THEN ").append(i);
+        }
+        range.append(" ELSE ").append(ageBounds.length).append(" END");
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Object[]> query = em.createQuery("SELECT " + range + " AS ageRange, COUNT(t)"
+                    + " FROM Teacher t LEFT JOIN t.teacherMoreInfo m GROUP BY ageRange", Object[].class);
+            for (int i = 0; i < ageBounds.length; i++) {
+                query.setParameter("bornAfter" + i, today.minusYears(ageBounds[i]));
             }
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+            AgeBucketCount[] counts = new AgeBucketCount[ageBounds.length + 2];
+            for (Object[] row : query.getResultList()) {
+                int index = ((Number) row[0]).intValue();
+                long teachers = (Long) row[1];
+                if (index < 0) {
+                    counts[counts.length - 1] = new AgeBucketCount(null, null, teachers);
+                } else {
+                    counts[index] = new AgeBucketCount(index == 0 ? 0 : ageBounds[index - 1],
+                            index < ageBounds.length ? ageBounds[index] : null, teachers);
+                }
             }
-            throw e;
+            return Arrays.stream(counts).filter(Objects::nonNull).toList();
         } finally {
             em.close();
         }
     }
 
     @Override
-    public Optional<Teacher> getById(Long id) {
+    public Optional<Teacher> getById(Long id, TeacherFetchPlan plan) {
         EntityManager em = JPAUtil.getEntityManager();
         try {
-            Teacher teacher = em.find(Teacher.class, id);
-            return Optional.ofNullable(teacher);
+            // A query rather than find(): find() hands back an instance that is already cached as is,
+            // without applying the graph
+            TypedQuery<Teacher> query = em.createQuery(
+                    "SELECT t FROM Teacher t WHERE t.id = :id", Teacher.class);
+            query.setParameter("id", id);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
+            return query.getResultStream().findFirst();
         } finally {
             em.close();
         }
     }
 
     @Override
-    public List<Teacher> getAll() {
-        EntityManager em = JPAUtil.getEntityManager();
+    public List<Teacher> getAll(TeacherFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
         try {
             TypedQuery<Teacher> query = em.createQuery("SELECT t FROM Teacher t", Teacher.class);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
             return query.getResultList();
         } finally {
             em.close();
@@ -93,12 +349,13 @@ public class TeacherDAOImpl implements ITeacherDAO {
     }
 
     @Override
-    public List<Teacher> getByLastname(String lastname) {
-        EntityManager em = JPAUtil.getEntityManager();
+    public List<Teacher> getByLastname(String lastname, TeacherFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
         try {
             TypedQuery<Teacher> query = em.createQuery(
                     "SELECT t FROM Teacher t WHERE t.lastname = :lastname", Teacher.class);
             query.setParameter("lastname", lastname);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
             return query.getResultList();
         } finally {
             em.close();
@@ -106,14 +363,353 @@ public class TeacherDAOImpl implements ITeacherDAO {
     }
 
     @Override
-    public List<Teacher> getActiveTeachers() {
-        EntityManager em = JPAUtil.getEntityManager();
+    public List<Teacher> getActiveTeachers(TeacherFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
         try {
             TypedQuery<Teacher> query = em.createQuery(
                     "SELECT t FROM Teacher t WHERE t.active = true", Teacher.class);
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<Teacher> getAllPage(String pageToken, int pageSize, TeacherFetchPlan plan) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            // Page over IDs first: limiting a query that fetches a collection would paginate in memory
+            TypedQuery<Long> idQuery = em.createQuery(
+                    "SELECT t.id FROM Teacher t WHERE t.id > :afterId ORDER BY t.id", Long.class);
+            Page<Long> ids = PagingSupport.page(idQuery, pageToken, pageSize, Long::longValue);
+            if (ids.items().isEmpty()) {
+                return new Page<>(List.of(), null);
+            }
+            TypedQuery<Teacher> query = em.createQuery(
+                    "SELECT t FROM Teacher t WHERE t.id IN :ids ORDER BY t.id", Teacher.class);
+            query.setParameter("ids", ids.items());
+            query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, em.getEntityGraph(plan.getGraphName()));
+            return new Page<>(query.getResultList(), ids.nextToken());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<TeacherSummary> getAllSummaries() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<TeacherSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " ORDER BY t.id", TeacherSummary.class);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<TeacherSummary> getSummariesByLastname(String lastname) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<TeacherSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " WHERE t.lastname = :lastname ORDER BY t.id", TeacherSummary.class);
+            query.setParameter("lastname", lastname);
             return query.getResultList();
         } finally {
             em.close();
         }
     }
+
+    @Override
+    public List<TeacherSummary> getActiveSummaries() {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<TeacherSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " WHERE t.active = true ORDER BY t.id", TeacherSummary.class);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<TeacherSummary> getSummariesPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<TeacherSummary> query = em.createQuery(
+                    SUMMARY_SELECT + " WHERE t.id > :afterId ORDER BY t.id", TeacherSummary.class);
+            return PagingSupport.page(query, pageToken, pageSize, TeacherSummary::id);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Page<TeacherSummary> search(TeacherSearchCriteria criteria, TeacherSort sort, String pageToken,
+                                       int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        SearchPosition after = SearchPosition.decode(sort, pageToken);
+        String jpql = SEARCH_QUERIES.computeIfAbsent(searchShape(criteria, sort, after != null),
+                shape -> searchQuery(criteria, sort, after != null));
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<TeacherSummary> query = em.createQuery(jpql, TeacherSummary.class);
+            if (criteria.lastnamePrefix() != null) {
+                query.setParameter("lastnamePrefix", escapeLike(criteria.lastnamePrefix()) + "%");
+            }
+            if (criteria.active() != null) {
+                query.setParameter("active", criteria.active());
+            }
+            if (criteria.regionId() != null) {
+                query.setParameter("regionId", criteria.regionId());
+            }
+            if (criteria.courseId() != null) {
+                query.setParameter("courseId", criteria.courseId());
+            }
+            if (criteria.lessonType() != null) {
+                query.setParameter("lessonType", criteria.lessonType());
+            }
+            if (criteria.bornFrom() != null) {
+                query.setParameter("bornFrom", criteria.bornFrom());
+            }
+            if (criteria.bornTo() != null) {
+                query.setParameter("bornTo", criteria.bornTo());
+            }
+            if (after != null) {
+                query.setParameter("afterId", after.id());
+                if (sort == TeacherSort.LASTNAME) {
+                    query.setParameter("afterLastname", after.lastname());
+                }
+            }
+            List<TeacherSummary> rows = query.setMaxResults(pageSize + 1).getResultList();
+            if (rows.size() <= pageSize) {
+                return new Page<>(rows, null);
+            }
+            List<TeacherSummary> items = rows.subList(0, pageSize);
+            return new Page<>(items, SearchPosition.of(items.get(pageSize - 1)).encode(sort));
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * @return a key that is equal for all searches sharing the same JPQL
+     */
+    private static String searchShape(TeacherSearchCriteria criteria, TeacherSort sort, boolean hasPosition) {
+        StringBuilder shape = new StringBuilder(sort.name()).append(':');
+        for (Object component : new Object[]{criteria.lastnamePrefix(), criteria.active(), criteria.regionId(),
+                criteria.courseId(), criteria.lessonType(), criteria.bornFrom(), criteria.bornTo()}) {
+            shape.append(component == null ? '0' : '1');
+        }
+        return shape.append(hasPosition ? '1' : '0').toString();
+    }
+
+    private static String searchQuery(TeacherSearchCriteria criteria, TeacherSort sort, boolean hasPosition) {
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT);
+        boolean bornFilter = criteria.bornFrom() != null || criteria.bornTo() != null;
+        if (bornFilter) {
+            jpql.append(" JOIN t.teacherMoreInfo m");
+        }
+        List<String> conditions = new ArrayList<>();
+        if (criteria.lastnamePrefix() != null) {
+            conditions.add("t.lastname LIKE :lastnamePrefix ESCAPE '!'");
+        }
+        if (criteria.active() != null) {
+            conditions.add("t.active = :active");
+        }
+        if (criteria.regionId() != null) {
+            conditions.add("t.region.id = :regionId");
+        }
+        if (criteria.courseId() != null || criteria.lessonType() != null) {
+            // An uncorrelated IN lets the database start from the course side of the join table
+            // instead of probing it once per teacher
+            List<String> courseConditions = new ArrayList<>();
+            if (criteria.courseId() != null) {
+                courseConditions.add("c.id = :courseId");
+            }
+            if (criteria.lessonType() != null) {
+                courseConditions.add("c.lessonType = :lessonType");
+            }
+            conditions.add("t.id IN (SELECT ct.id FROM Course c JOIN c.teachers ct WHERE "
+                    + String.join(" AND ", courseConditions) + ")");
+        }
+        if (criteria.bornFrom() != null) {
+            conditions.add("m.dateOfBirth >= :bornFrom");
+        }
+        if (criteria.bornTo() != null) {
+            conditions.add("m.dateOfBirth <= :bornTo");
+        }
+        if (hasPosition) {
+            conditions.add(sort == TeacherSort.LASTNAME
+                    ? "(t.lastname > :afterLastname OR (t.lastname = :afterLastname AND t.id > :afterId))"
+                    : "t.id > :afterId");
+        }
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return jpql.append(sort == TeacherSort.LASTNAME ? " ORDER BY t.lastname, t.id" : " ORDER BY t.id")
+                .toString();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    @Override
+    public int setActive(Collection<Long> ids, boolean active) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return BulkUpdateSupport.execute(em -> {
+            Query query = em.createQuery("UPDATE Teacher t SET t.active = :active, t.version = t.version + 1"
+                            + " WHERE t.id IN :ids AND (t.active IS NULL OR t.active <> :active)")
+                    .setParameter("active", active);
+            int updated = 0;
+            for (List<Long> chunk : BulkUpdateSupport.chunks(ids)) {
+                updated += query.setParameter("ids", chunk).executeUpdate();
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public int setActive(TeacherCriteria criteria, boolean active) {
+        Map<String, Object> parameters = new HashMap<>();
+        String where = whereClause(criteria, parameters);
+        return BulkUpdateSupport.execute(em -> {
+            Query query = em.createQuery("UPDATE Teacher t SET t.active = :active, t.version = t.version + 1 WHERE "
+                    + where + "(t.active IS NULL OR t.active <> :active)");
+            query.setParameter("active", active);
+            parameters.forEach(query::setParameter);
+            return query.executeUpdate();
+        });
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return BulkUpdateSupport.execute(em -> {
+            NativeQuery<?> deleteLinks = em.createNativeQuery(
+                    "DELETE FROM " + Course.TEACHERS_JOIN_TABLE + " WHERE "
+                            + Course.TEACHERS_JOIN_TEACHER_COLUMN + " IN (:ids)")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(Course.TEACHERS_JOIN_TABLE);
+            TypedQuery<Long> selectInfoIds = em.createQuery("SELECT t.teacherMoreInfo.id FROM Teacher t"
+                    + " WHERE t.id IN :ids AND t.teacherMoreInfo IS NOT NULL", Long.class);
+            Query deleteTeachers = em.createQuery("DELETE FROM Teacher t WHERE t.id IN :ids");
+            Query deleteInfos = em.createQuery("DELETE FROM TeacherMoreInfo m WHERE m.id IN :ids");
+            int deleted = 0;
+            for (List<Long> chunk : BulkUpdateSupport.chunks(ids)) {
+                deleteLinks.setParameterList("ids", chunk).executeUpdate();
+                // Teachers reference their details, so the details go last
+                List<Long> infoIds = selectInfoIds.setParameter("ids", chunk).getResultList();
+                deleted += deleteTeachers.setParameter("ids", chunk).executeUpdate();
+                if (!infoIds.isEmpty()) {
+                    deleteInfos.setParameter("ids", infoIds).executeUpdate();
+                }
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Builds the JPQL conditions of the criteria, each followed by {@code AND}.
+     *
+     * @param criteria   the criteria
+     * @param parameters receives the parameter values of the conditions
+     * @return the conditions, empty if the criteria match every teacher
+     */
+    private static String whereClause(TeacherCriteria criteria, Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder();
+        if (criteria.lastname() != null) {
+            where.append("t.lastname = :lastname AND ");
+            parameters.put("lastname", criteria.lastname());
+        }
+        if (criteria.active() != null) {
+            where.append("t.active = :activeFilter AND ");
+            parameters.put("activeFilter", criteria.active());
+        }
+        if (criteria.regionId() != null) {
+            where.append("t.region.id = :regionId AND ");
+            parameters.put("regionId", criteria.regionId());
+        }
+        return where.toString();
+    }
+
+    @Override
+    public Page<TeacherExportRow> getExportPage(String pageToken, int pageSize) {
+        EntityManager em = JPAUtil.getReadEntityManager();
+        try {
+            TypedQuery<Object[]> query = em.createQuery(
+                    "SELECT t.id, t.firstname, t.lastname, t.active, m.dateOfBirth, m.gender, r.title"
+                            + " FROM Teacher t LEFT JOIN t.teacherMoreInfo m LEFT JOIN t.region r"
+                            + " WHERE t.id > :afterId ORDER BY t.id", Object[].class);
+            Page<Object[]> teachers = PagingSupport.page(query, pageToken, pageSize, row -> (Long) row[0]);
+            if (teachers.items().isEmpty()) {
+                return new Page<>(List.of(), null);
+            }
+
+            // The batch is a contiguous ID range, so its course titles are fetched by range rather than by an
+            // IN list of up to pageSize parameters.
+            List<Object[]> items = teachers.items();
+            Map<Long, List<String>> courseTitles = new HashMap<>();
+            em.createQuery("SELECT t.id, c.title FROM Teacher t JOIN t.courses c"
+                            + " WHERE t.id BETWEEN :firstId AND :lastId ORDER BY t.id, c.title", Object[].class)
+                    .setParameter("firstId", (Long) items.get(0)[0])
+                    .setParameter("lastId", (Long) items.get(items.size() - 1)[0])
+                    .getResultList()
+                    .forEach(row -> courseTitles.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                            .add((String) row[1]));
+
+            List<TeacherExportRow> rows = new ArrayList<>(items.size());
+            for (Object[] row : items) {
+                rows.add(new TeacherExportRow((Long) row[0], (String) row[1], (String) row[2], (Boolean) row[3],
+                        (LocalDate) row[4], (GenderType) row[5], (String) row[6],
+                        courseTitles.getOrDefault((Long) row[0], List.of())));
+            }
+            return new Page<>(rows, teachers.nextToken());
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * The sort key of the last row of a search page, carried in the continuation token:
+     * {@code <id>} for {@link TeacherSort#ID}, {@code <id>:<base64url lastname>} for {@link TeacherSort#LASTNAME}.
+     */
+    private record SearchPosition(long id, String lastname) {
+
+        static SearchPosition of(TeacherSummary summary) {
+            return new SearchPosition(summary.id(), summary.lastname());
+        }
+
+        static SearchPosition decode(TeacherSort sort, String pageToken) {
+            if (pageToken == null || pageToken.isEmpty()) {
+                return null;
+            }
+            try {
+                if (sort == TeacherSort.ID) {
+                    return new SearchPosition(Long.parseLong(pageToken), null);
+                }
+                int separator = pageToken.indexOf(':');
+                return new SearchPosition(Long.parseLong(pageToken.substring(0, separator)), new String(
+                        Base64.getUrlDecoder().decode(pageToken.substring(separator + 1)), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid page token '" + pageToken + "'", e);
+            }
+        }
+
+        String encode(TeacherSort sort) {
+            if (sort == TeacherSort.ID) {
+                return Long.toString(id);
+            }
+            return id + ":" + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(lastname.getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -0,0 +1,145 @@
+package gr.aueb.cf.dao.impl;
+
+import gr.aueb.cf.util.JPAUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Partial updates guarded by the {@code @Version} of the entity, shared by the DAO implementations.
+ * A patch is a single UPDATE of the changed columns that also increments the version and only matches the row
+ * at the version the caller read, so a concurrent change is detected instead of overwritten.
+ * <p>
+ * {@link #patch} runs it as a bulk statement through {@link BulkUpdateSupport}, with the same effect on an
+ * active unit of work; Hibernate then invalidates the whole second-level cache region of the entity.
+ * {@link #patchCached} is for cached entities: it loads the entity, usually from the cache, changes it in the
+ * persistence context and lets the flush write the UPDATE, which replaces just that entity's cache entry.
+ */
+final class VersionedUpdateSupport {
+
+    private VersionedUpdateSupport() {
+    }
+
+    /**
+     * Writes the changes to one row if it is still at the expected version.
+     *
+     * @param em the EntityManager of the transaction
+     * @param entityClass the entity
+     * @param id the ID of the row
+     * @param version the version the caller read
+     * @param changes the new values by attribute name; {@code null} values clear the attribute
+     * @throws EntityNotFoundException if there is no row with the ID
+     * @throws OptimisticLockException if the row is at another version
+     */
+    static void patch(EntityManager em, Class<?> entityClass, Long id, long version, Map<String, ?> changes) {
+        String entity = entityClass.getSimpleName();
+        String assignments = changes.isEmpty() ? "" : ", " + assignments("e", changes);
+        Query query = em.createQuery("UPDATE " + entity + " e SET e.version = e.version + 1" + assignments
+                        + " WHERE e.id = :id AND e.version = :version")
+                .setParameter("id", id)
+                .setParameter("version", version);
+        bind(query, changes);
+        if (query.executeUpdate() == 0) {
+            List<Long> current = em.createQuery("SELECT e.version FROM " + entity + " e WHERE e.id = :id", Long.class)
+                    .setParameter("id", id)
+                    .getResultList();
+            if (current.isEmpty()) {
+                throw new EntityNotFoundException(entity + " with ID " + id + " does not exist");
+            }
+            throw new OptimisticLockException(entity + " " + id + " was changed concurrently: expected version "
+                    + version + ", found " + current.get(0));
+        }
+    }
+
+    /**
+     * Changes an entity in the persistence context if it is still at the expected version, and flushes the
+     * change as one version-checked UPDATE of the changed columns. Meant for entities in the second-level
+     * cache, whose entry is then replaced instead of the whole region being invalidated. Inside a unit of work
+     * the change joins its transaction.
+     *
+     * @param entityClass the entity
+     * @param id the ID of the entity
+     * @param version the version the caller read
+     * @param changes the new values by attribute name; {@code null} values clear the attribute
+     * @throws EntityNotFoundException if there is no entity with the ID
+     * @throws OptimisticLockException if the entity is at another version, or is changed before the flush
+     */
+    static void patchCached(Class<?> entityClass, Long id, long version, Map<String, ?> changes) {
+        String entity = entityClass.getSimpleName();
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            Object found = em.find(entityClass, id);
+            if (found == null) {
+                throw new EntityNotFoundException(entity + " with ID " + id + " does not exist");
+            }
+            EntityPersister persister = persister(em, entityClass);
+            Object current = persister.getVersion(found);
+            if (!Long.valueOf(version).equals(current)) {
+                throw new OptimisticLockException(entity + " " + id + " was changed concurrently: expected version "
+                        + version + ", found " + current);
+            }
+            set(em, found, changes);
+            em.flush();
+            // Nothing was dirty, so nothing was written; the version still goes up, as with the bulk UPDATE
+            if (Long.valueOf(version).equals(persister.getVersion(found))) {
+                em.lock(found, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            }
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Sets attributes of an entity instance by name, through Hibernate's property access.
+     *
+     * @param em the EntityManager
+     * @param entity the entity instance
+     * @param values the new values by attribute name
+     */
+    static void set(EntityManager em, Object entity, Map<String, ?> values) {
+        EntityPersister persister = persister(em, entity.getClass());
+        values.forEach((attribute, value) ->
+                persister.findAttributeMapping(attribute).getPropertyAccess().getSetter().set(entity, value));
+    }
+
+    /**
+     * @return the SET assignments of the changes, with a named parameter per attribute or {@code NULL}
+     */
+    static String assignments(String alias, Map<String, ?> changes) {
+        return changes.entrySet().stream()
+                .map(change -> alias + "." + change.getKey() + " = "
+                        + (change.getValue() == null ? "NULL" : ":" + change.getKey()))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Binds the non-null values of {@link #assignments(String, Map)}.
+     */
+    static void bind(Query query, Map<String, ?> changes) {
+        changes.forEach((attribute, value) -> {
+            if (value != null) {
+                query.setParameter(attribute, value);
+            }
+        });
+    }
+
+    private static EntityPersister persister(EntityManager em, Class<?> entityClass) {
+        return em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .getEntityDescriptor(entityClass);
+    }
+}
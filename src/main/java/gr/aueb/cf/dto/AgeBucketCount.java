@@ -0,0 +1,12 @@
+package gr.aueb.cf.dto;
+
+/**
+ * Number of teachers whose age falls in a range, for age distributions.
+ *
+ * @param fromAge  the lowest age of the range, or {@code null} for teachers whose date of birth is not recorded
+ * @param toAge    the age the range stops before, or {@code null} if the range is open or the date of birth is
+ *                 not recorded
+ * @param teachers the teachers in the range
+ */
+public record AgeBucketCount(Integer fromAge, Integer toAge, long teachers) {
+}
@@ -0,0 +1,19 @@
+package gr.aueb.cf.dto;
+
+/**
+ * Size and estimated heap footprint of the teacher name autocomplete index.
+ *
+ * @param teachers       the teachers indexed
+ * @param terms          the distinct name words in the compacted part of the index
+ * @param pendingChanges changes kept on the side until the next compaction
+ * @param memoryBytes    the estimated heap used by the index
+ */
+public record AutocompleteStats(int teachers, int terms, int pendingChanges, long memoryBytes) {
+
+    /**
+     * @return the estimated heap the index would use for one million teachers like the current ones
+     */
+    public long bytesPerMillionTeachers() {
+        return teachers == 0 ? 0 : Math.round(memoryBytes * (1_000_000d / teachers));
+    }
+}
@@ -0,0 +1,13 @@
+package gr.aueb.cf.dto;
+
+import gr.aueb.cf.enums.LessonType;
+
+/**
+ * Read-only list view of a course, selected straight from the columns it needs.
+ *
+ * @param id         the course ID
+ * @param title      the course title
+ * @param lessonType the lesson type, may be {@code null}
+ */
+public record CourseSummary(Long id, String title, LessonType lessonType) {
+}
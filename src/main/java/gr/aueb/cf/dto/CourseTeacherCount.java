@@ -0,0 +1,14 @@
+package gr.aueb.cf.dto;
+
+import gr.aueb.cf.enums.LessonType;
+
+/**
+ * Number of teachers assigned to a course.
+ *
+ * @param courseId   the course ID
+ * @param title      the course title
+ * @param lessonType the lesson type, may be {@code null}
+ * @param teachers   the teachers assigned to the course
+ */
+public record CourseTeacherCount(Long courseId, String title, LessonType lessonType, long teachers) {
+}
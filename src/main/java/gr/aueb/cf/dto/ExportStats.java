@@ -0,0 +1,23 @@
+package gr.aueb.cf.dto;
+
+import java.time.Duration;
+
+/**
+ * Outcome of an export run.
+ *
+ * @param rows          the number of rows written
+ * @param batches       the number of batches read from the database
+ * @param elapsed       the wall-clock time of the run
+ * @param bytes         the number of bytes written
+ * @param peakHeapBytes the highest used heap observed after a batch, an upper bound of what the run held
+ */
+public record ExportStats(long rows, int batches, Duration elapsed, long bytes, long peakHeapBytes) {
+
+    /**
+     * @return the throughput of the run
+     */
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000d / nanos;
+    }
+}
@@ -0,0 +1,12 @@
+package gr.aueb.cf.dto;
+
+import gr.aueb.cf.enums.GenderType;
+
+/**
+ * Number of teachers of a gender.
+ *
+ * @param gender   the gender, or {@code null} for teachers whose gender is not recorded
+ * @param teachers the teachers of the gender
+ */
+public record GenderCount(GenderType gender, long teachers) {
+}
@@ -0,0 +1,10 @@
+package gr.aueb.cf.dto;
+
+/**
+ * A source record that was rejected by an import.
+ *
+ * @param line    the line of the source file on which the record starts
+ * @param message why the record was rejected
+ */
+public record ImportError(long line, String message) {
+}
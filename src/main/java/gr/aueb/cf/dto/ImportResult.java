@@ -0,0 +1,31 @@
+package gr.aueb.cf.dto;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of an import run.
+ *
+ * @param skipped  records already imported by an earlier run and skipped on resume
+ * @param records  records read by this run
+ * @param imported records written by this run
+ * @param rejected records rejected by validation in this run
+ * @param batches  the number of batches committed by this run
+ * @param elapsed  the wall-clock time of the run
+ * @param errors   the first rejected records with their reasons
+ */
+public record ImportResult(long skipped, long records, long imported, long rejected, int batches, Duration elapsed,
+                           List<ImportError> errors) {
+
+    public ImportResult {
+        errors = List.copyOf(errors);
+    }
+
+    /**
+     * @return the throughput of the run
+     */
+    public double recordsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : records * 1_000_000_000d / nanos;
+    }
+}
@@ -0,0 +1,12 @@
+package gr.aueb.cf.dto;
+
+import gr.aueb.cf.enums.LessonType;
+
+/**
+ * Number of courses of a lesson type.
+ *
+ * @param lessonType the lesson type, or {@code null} for courses without one
+ * @param courses    the courses of the type
+ */
+public record LessonTypeCount(LessonType lessonType, long courses) {
+}
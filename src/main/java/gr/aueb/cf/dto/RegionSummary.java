@@ -0,0 +1,10 @@
+package gr.aueb.cf.dto;
+
+/**
+ * Read-only list view of a region, selected straight from the columns it needs.
+ *
+ * @param id    the region ID
+ * @param title the region title
+ */
+public record RegionSummary(Long id, String title) {
+}
@@ -0,0 +1,19 @@
+package gr.aueb.cf.dto;
+
+/**
+ * Number of teachers in a region, and how many of them are active.
+ *
+ * @param regionId       the region ID, or {@code null} for teachers without a region
+ * @param title          the region title, or {@code null} for teachers without a region
+ * @param teachers       the teachers in the region
+ * @param activeTeachers the active teachers in the region
+ */
+public record RegionTeacherCount(Long regionId, String title, long teachers, long activeTeachers) {
+
+    /**
+     * @return the share of active teachers, from 0 to 1, or 0 if the region has no teachers
+     */
+    public double activeRatio() {
+        return teachers == 0 ? 0 : (double) activeTeachers / teachers;
+    }
+}
@@ -0,0 +1,12 @@
+package gr.aueb.cf.dto;
+
+/**
+ * A count that differs between the in-memory school statistics and the database.
+ *
+ * @param counter  the name of the counter, e.g. {@code activeTeachersByRegion}
+ * @param key      the key of the count within the counter, e.g. the region ID, or {@code null}
+ * @param database the count in the database
+ * @param model    the count in memory
+ */
+public record StatsDiscrepancy(String counter, String key, long database, long model) {
+}
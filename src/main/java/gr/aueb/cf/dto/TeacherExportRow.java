@@ -0,0 +1,26 @@
+package gr.aueb.cf.dto;
+
+import gr.aueb.cf.enums.GenderType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Flat, read-only view of a teacher with its details, region and courses, as written by the export.
+ *
+ * @param id           the teacher ID
+ * @param firstname    the first name
+ * @param lastname     the last name
+ * @param active       whether the teacher is active
+ * @param dateOfBirth  the date of birth, may be {@code null}
+ * @param gender       the gender, may be {@code null}
+ * @param regionTitle  the title of the teacher's region, {@code null} if none is assigned
+ * @param courseTitles the titles of the teacher's courses, sorted
+ */
+public record TeacherExportRow(Long id, String firstname, String lastname, Boolean active, LocalDate dateOfBirth,
+                               GenderType gender, String regionTitle, List<String> courseTitles) {
+
+    public TeacherExportRow {
+        courseTitles = List.copyOf(courseTitles);
+    }
+}
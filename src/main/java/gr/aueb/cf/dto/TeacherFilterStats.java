@@ -0,0 +1,18 @@
+package gr.aueb.cf.dto;
+
+/**
+ * Size and heap footprint of the in-memory teacher filter index.
+ *
+ * @param teachers    the teachers indexed
+ * @param bitmaps     the bitmaps kept, one per flag, region, course and gender value in use
+ * @param memoryBytes the estimated heap used by the bitmaps and the teacher versions
+ */
+public record TeacherFilterStats(int teachers, int bitmaps, long memoryBytes) {
+
+    /**
+     * @return the bytes used per teacher indexed
+     */
+    public double bytesPerTeacher() {
+        return teachers == 0 ? 0 : (double) memoryBytes / teachers;
+    }
+}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.dto;
+
+import gr.aueb.cf.enums.GenderType;
+
+/**
+ * One course assignment of a teacher together with the teacher's grouping attributes, as streamed to rebuild
+ * in-memory aggregates. A teacher without courses has a single row with a {@code null} course.
+ *
+ * @param teacherId the teacher ID
+ * @param version   the version of the teacher row
+ * @param regionId  the ID of the teacher's region, {@code null} if none is assigned
+ * @param active    whether the teacher is active
+ * @param gender    the teacher's gender, {@code null} if unknown
+ * @param courseId  the ID of a course the teacher is assigned to, {@code null} if none
+ */
+public record TeacherMembershipRow(Long teacherId,
+                                   long version,
+                                   Long regionId,
+                                   Boolean active,
+                                   GenderType gender,
+                                   Long courseId) {
+}
@@ -0,0 +1,19 @@
+package gr.aueb.cf.dto;
+
+/**
+ * Read-only list view of a teacher, selected straight from the columns it needs.
+ *
+ * @param id          the teacher ID
+ * @param version     the version of the teacher row
+ * @param firstname   the first name
+ * @param lastname    the last name
+ * @param active      whether the teacher is active
+ * @param regionTitle the title of the teacher's region, {@code null} if none is assigned
+ */
+public record TeacherSummary(Long id,
+                             long version,
+                             String firstname,
+                             String lastname,
+                             Boolean active,
+                             String regionTitle) {
+}
@@ -0,0 +1,6 @@
+package gr.aueb.cf.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
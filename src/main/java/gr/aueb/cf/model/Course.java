@@ -6,6 +6,9 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -15,11 +18,27 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "courses")
+@DynamicUpdate
+@Table(name = "courses", indexes = @Index(name = "idx_courses_lesson_type", columnList = "lesson_type"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
+@NamedEntityGraph(name = Course.GRAPH_WITH_TEACHERS, attributeNodes = @NamedAttributeNode("teachers"))
+@NamedEntityGraph(name = Course.GRAPH_WITH_TEACHER_PROFILES,
+        attributeNodes = @NamedAttributeNode(value = "teachers", subgraph = "teacherProfile"),
+        subgraphs = @NamedSubgraph(name = "teacherProfile", attributeNodes = {
+                @NamedAttributeNode("region"),
+                @NamedAttributeNode("teacherMoreInfo")
+        }))
 public class Course {
+    public static final String GRAPH_WITH_TEACHERS = "Course.withTeachers";
+    public static final String GRAPH_WITH_TEACHER_PROFILES = "Course.withTeacherProfiles";
+    public static final String TEACHERS_JOIN_TABLE = "courses_teachers";
+    // The names JPA defaults the join columns to (after Teacher.courses and Course.teachers), kept for native SQL
+    public static final String TEACHERS_JOIN_COURSE_COLUMN = "courses_id";
+    public static final String TEACHERS_JOIN_TEACHER_COLUMN = "teachers_id";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("courses")
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -32,10 +51,19 @@ public class Course {
     @Column(name = "lesson_type")
     private LessonType lessonType;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @Getter(AccessLevel.PROTECTED)
     @Setter(AccessLevel.NONE)
     @ManyToMany()
-    @JoinTable(name = "courses_teachers")
+    @JoinTable(name = Course.TEACHERS_JOIN_TABLE,
+            joinColumns = @JoinColumn(name = Course.TEACHERS_JOIN_COURSE_COLUMN),
+            inverseJoinColumns = @JoinColumn(name = Course.TEACHERS_JOIN_TEACHER_COLUMN),
+            indexes = @Index(name = "idx_courses_teachers_teacher",
+                    columnList = Course.TEACHERS_JOIN_TEACHER_COLUMN + ", " + Course.TEACHERS_JOIN_COURSE_COLUMN))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses.teachers")
     private Set<Teacher> teachers = new HashSet<>();
 
     public Set<Teacher> getAllTeachers() {
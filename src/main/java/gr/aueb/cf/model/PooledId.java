@@ -0,0 +1,22 @@
+package gr.aueb.cf.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an identifier as generated by {@link PooledIdGenerator}: a table-backed, pooled-lo generator
+ * that hands out IDs from memory and keeps JDBC insert batching enabled (unlike IDENTITY columns).
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+    /**
+     * @return the segment (row) of the generator table holding this entity's next ID; by convention its table name
+     */
+    String value();
+}
@@ -0,0 +1,44 @@
+package gr.aueb.cf.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Table-backed identifier generator used through {@link PooledId}.
+ * All entities share the {@value #TABLE} table, one row per segment. Each round trip to that table
+ * reserves a block of {@code allocation size} IDs which are then handed out from memory (pooled-lo).
+ * The allocation size comes from the {@value #ALLOCATION_SIZE_SETTING} setting, see {@code db.id.allocation-size}.
+ */
+public class PooledIdGenerator extends TableGenerator {
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "segment_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final String ALLOCATION_SIZE_SETTING = "school.id.allocation_size";
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String segment;
+
+    public PooledIdGenerator(PooledId config) {
+        this.segment = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, value -> Integer.parseInt(value.toString()), DEFAULT_ALLOCATION_SIZE);
+        parameters.setProperty(TABLE_PARAM, TABLE);
+        parameters.setProperty(SEGMENT_COLUMN_PARAM, SEGMENT_COLUMN);
+        parameters.setProperty(VALUE_COLUMN_PARAM, VALUE_COLUMN);
+        parameters.setProperty(SEGMENT_VALUE_PARAM, segment);
+        parameters.setProperty(INITIAL_PARAM, "1");
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.setProperty(OptimizableGenerator.OPT_PARAM, "pooled-lo");
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -6,6 +6,9 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -16,18 +19,33 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@DynamicUpdate
 @Table(name = "regions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "regions")
+@NamedEntityGraph(name = Region.GRAPH_WITH_TEACHERS, attributeNodes = @NamedAttributeNode("teachers"))
+@NamedEntityGraph(name = Region.GRAPH_WITH_TEACHER_PROFILES,
+        attributeNodes = @NamedAttributeNode(value = "teachers", subgraph = "teacherProfile"),
+        subgraphs = @NamedSubgraph(name = "teacherProfile", attributeNodes = @NamedAttributeNode("teacherMoreInfo")))
 public class Region {
+    public static final String GRAPH_WITH_TEACHERS = "Region.withTeachers";
+    public static final String GRAPH_WITH_TEACHER_PROFILES = "Region.withTeacherProfiles";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("regions")
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String title;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @Setter(AccessLevel.NONE)
     @Getter(AccessLevel.PROTECTED)
     @OneToMany(mappedBy = "region")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "regions.teachers")
     private Set<Teacher> teachers = new HashSet<>();
 
 
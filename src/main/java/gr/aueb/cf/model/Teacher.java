@@ -6,6 +6,7 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -15,12 +16,34 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "teachers")
+@DynamicUpdate
+@Table(name = "teachers", indexes = {
+        @Index(name = "idx_teachers_lastname_id", columnList = "lastname, id"),
+        @Index(name = "idx_teachers_active_id", columnList = "active, id"),
+        @Index(name = "idx_teachers_region_id", columnList = "region_id, id"),
+        @Index(name = "idx_teachers_region_lastname_id", columnList = "region_id, lastname, id"),
+        @Index(name = "idx_teachers_region_active", columnList = "region_id, active")
+})
+@NamedEntityGraph(name = Teacher.GRAPH_WITH_REGION, attributeNodes = {
+        @NamedAttributeNode("region"),
+        @NamedAttributeNode("teacherMoreInfo")
+})
+@NamedEntityGraph(name = Teacher.GRAPH_WITH_COURSES, attributeNodes = {
+        @NamedAttributeNode("courses"),
+        @NamedAttributeNode("teacherMoreInfo")
+})
+@NamedEntityGraph(name = Teacher.GRAPH_FULL_PROFILE, attributeNodes = {
+        @NamedAttributeNode("region"),
+        @NamedAttributeNode("courses"),
+        @NamedAttributeNode("teacherMoreInfo")
+})
 public class Teacher {
-
+    public static final String GRAPH_WITH_REGION = "Teacher.withRegion";
+    public static final String GRAPH_WITH_COURSES = "Teacher.withCourses";
+    public static final String GRAPH_FULL_PROFILE = "Teacher.fullProfile";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("teachers")
     private Long id;
 
     @Column(nullable = false)
@@ -30,6 +53,10 @@ public class Teacher {
     private String lastname;
     private Boolean active;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "region_id")
     private Region region;
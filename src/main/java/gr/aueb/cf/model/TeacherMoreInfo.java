@@ -13,10 +13,10 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
-@Table(name = "teacher_more_info")
+@Table(name = "teacher_more_info", indexes = @Index(name = "idx_teacher_more_info_dob", columnList = "date_of_birth"))
 public class TeacherMoreInfo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("teacher_more_info")
     private Long id;
 
     @Column(name = "date_of_birth")
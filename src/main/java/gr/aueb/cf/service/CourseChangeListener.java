@@ -0,0 +1,47 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.model.Course;
+
+import java.util.Collection;
+
+/**
+ * Callback notified by ICourseService once course changes have been committed, delivered like
+ * {@link TeacherChangeListener} notifications: when the unit of work commits, on the thread that made the
+ * change, with failing listeners logged and skipped.
+ */
+public interface CourseChangeListener {
+
+    /**
+     * Called after a course has been created, updated, or returned by a create-or-get.
+     *
+     * @param course the saved course, with its ID
+     */
+    default void courseSaved(Course course) {
+    }
+
+    /**
+     * Called after courses have been deleted, together with their teacher assignments.
+     *
+     * @param ids the IDs of the deleted courses
+     */
+    default void coursesDeleted(Collection<Long> ids) {
+    }
+
+    /**
+     * Called after teachers have been assigned to courses: every teacher to every course, where both exist.
+     *
+     * @param courseIds the IDs of the courses
+     * @param teacherIds the IDs of the teachers
+     */
+    default void teachersAssigned(Collection<Long> courseIds, Collection<Long> teacherIds) {
+    }
+
+    /**
+     * Called after teachers have been removed from courses: every teacher from every course.
+     *
+     * @param courseIds the IDs of the courses
+     * @param teacherIds the IDs of the teachers
+     */
+    default void teachersUnassigned(Collection<Long> courseIds, Collection<Long> teacherIds) {
+    }
+}
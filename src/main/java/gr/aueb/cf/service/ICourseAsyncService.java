@@ -0,0 +1,140 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dao.CourseFetchPlan;
+import gr.aueb.cf.dao.CoursePatch;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dto.CourseSummary;
+import gr.aueb.cf.model.Course;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link ICourseService}.
+ * Each call runs on a virtual thread with bounded database concurrency; the returned future completes
+ * with the result of the blocking {@link ICourseService} method, or exceptionally with its exception.
+ */
+public interface ICourseAsyncService {
+    /**
+     * Creates a new course.
+     *
+     * @see ICourseService#createCourse(Course)
+     */
+    CompletableFuture<Course> createCourse(Course course);
+
+    /**
+     * Creates a course, or returns the existing one with the same title.
+     *
+     * @see ICourseService#createOrGetCourse(Course)
+     */
+    CompletableFuture<Course> createOrGetCourse(Course course);
+
+    /**
+     * Creates the courses whose titles are free and returns the existing ones for the rest.
+     *
+     * @see ICourseService#createOrGetCourses(Collection)
+     */
+    CompletableFuture<List<Course>> createOrGetCourses(Collection<Course> courses);
+
+    /**
+     * Updates an existing course.
+     *
+     * @see ICourseService#updateCourse(Course)
+     */
+    CompletableFuture<Course> updateCourse(Course course);
+
+    /**
+     * Writes the fields of the patch to a course if it is still at the given version.
+     *
+     * @see ICourseService#patchCourse(Long, long, CoursePatch)
+     */
+    CompletableFuture<Long> patchCourse(Long id, long version, CoursePatch patch);
+
+    /**
+     * Updates a course with a patch derived from its current state, retrying on version conflicts.
+     *
+     * @see ICourseService#updateCourse(Long, Function)
+     */
+    CompletableFuture<Long> updateCourse(Long id, Function<Course, CoursePatch> change);
+
+    /**
+     * Deletes a course by ID.
+     *
+     * @see ICourseService#deleteCourse(Long)
+     */
+    CompletableFuture<Void> deleteCourse(Long id);
+
+    /**
+     * Retrieves a course by ID.
+     *
+     * @see ICourseService#getCourseById(Long)
+     */
+    CompletableFuture<Optional<Course>> getCourseById(Long id);
+
+    /**
+     * Retrieves a course by ID with the associations of the fetch plan.
+     *
+     * @see ICourseService#getCourseById(Long, CourseFetchPlan)
+     */
+    CompletableFuture<Optional<Course>> getCourseById(Long id, CourseFetchPlan plan);
+
+    /**
+     * Finds a course by title.
+     *
+     * @see ICourseService#getCourseByTitle(String)
+     */
+    CompletableFuture<Optional<Course>> getCourseByTitle(String title);
+
+    /**
+     * Checks whether a course title is taken.
+     *
+     * @see ICourseService#courseExistsByTitle(String)
+     */
+    CompletableFuture<Boolean> courseExistsByTitle(String title);
+
+    /**
+     * Retrieves one page of course summaries ordered by ID.
+     *
+     * @see ICourseService#getCourseSummariesPage(String, int)
+     */
+    CompletableFuture<Page<CourseSummary>> getCourseSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Adds a teacher to a course.
+     *
+     * @see ICourseService#addTeacherToCourse(Long, Long)
+     */
+    CompletableFuture<Void> addTeacherToCourse(Long courseId, Long teacherId);
+
+    /**
+     * Removes a teacher from a course.
+     *
+     * @see ICourseService#removeTeacherFromCourse(Long, Long)
+     */
+    CompletableFuture<Void> removeTeacherFromCourse(Long courseId, Long teacherId);
+
+    /**
+     * Assigns many teachers to one course.
+     *
+     * @see ICourseService#addTeachersToCourse(Long, Collection)
+     */
+    CompletableFuture<Integer> addTeachersToCourse(Long courseId, Collection<Long> teacherIds);
+
+    /**
+     * Registers a listener for committed changes made through this service; it is called on the executor's
+     * threads.
+     *
+     * @see ICourseService#addChangeListener(CourseChangeListener)
+     */
+    void addChangeListener(CourseChangeListener listener);
+
+    /**
+     * Unregisters a listener.
+     *
+     * @see ICourseService#removeChangeListener(CourseChangeListener)
+     */
+    void removeChangeListener(CourseChangeListener listener);
+}
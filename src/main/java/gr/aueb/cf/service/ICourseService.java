@@ -1,10 +1,18 @@
 package gr.aueb.cf.service;
 
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.CourseFetchPlan;
+import gr.aueb.cf.dao.CoursePatch;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dto.CourseSummary;
 import gr.aueb.cf.model.Course;
 import gr.aueb.cf.model.Teacher;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service interface for Course business logic.
@@ -20,6 +28,55 @@ public interface ICourseService {
      */
     Course createCourse(Course course) throws Exception;
 
+    /**
+     * Creates a course, or returns the existing one with the same title.
+     * Relies on the unique title constraint instead of a lookup before the insert, so it is safe under concurrency.
+     *
+     * @param course the course to create
+     * @return the created course, or the existing course with the same title
+     * @throws Exception if the operation fails
+     */
+    Course createOrGetCourse(Course course) throws Exception;
+
+    /**
+     * Creates the courses whose titles are not taken yet and returns the existing ones for the rest,
+     * with one title lookup per chunk and batched inserts. Titles another writer takes meanwhile are settled
+     * one by one, except inside a unit of work, which the title's constraint violation fails instead.
+     *
+     * @param courses the courses to create
+     * @return for each given course, in order, the created or existing course with its title
+     * @throws Exception if the operation fails
+     */
+    List<Course> createOrGetCourses(Collection<Course> courses) throws Exception;
+
+    /**
+     * Checks whether a course title is taken, without loading the course.
+     *
+     * @param title the title to check
+     * @return {@code true} if a course with this title exists
+     */
+    boolean courseExistsByTitle(String title);
+
+    /**
+     * Creates many courses in chunked, batched transactions after validating all of them.
+     *
+     * @param courses the courses to create
+     * @return the created courses with generated IDs
+     * @throws Exception if validation or persistence fails
+     */
+    List<Course> createCourses(Collection<Course> courses) throws Exception;
+
+    /**
+     * Creates many courses in chunked, batched transactions after validating all of them,
+     * reporting progress after every committed chunk.
+     *
+     * @param courses the courses to create
+     * @param listener notified after every committed chunk
+     * @return the created courses with generated IDs
+     * @throws Exception if validation or persistence fails
+     */
+    List<Course> createCourses(Collection<Course> courses, BatchProgressListener listener) throws Exception;
+
     /**
      * Updates an existing course.
      *
@@ -29,6 +86,32 @@ public interface ICourseService {
      */
     Course updateCourse(Course course) throws Exception;
 
+    /**
+     * Writes the fields of the patch to a course with a single UPDATE, provided the course is still at the given
+     * version, so that concurrent writers do not overwrite each other.
+     *
+     * @param id the ID of the course
+     * @param version the version the caller read ({@link Course#getVersion()})
+     * @param patch the fields to change
+     * @return the new version
+     * @throws Exception if the patch is invalid, the course does not exist or it was changed since that version;
+     * in the last case the cause is a {@link jakarta.persistence.OptimisticLockException}
+     */
+    long patchCourse(Long id, long version, CoursePatch patch) throws Exception;
+
+    /**
+     * Reads a course, derives a patch from it and writes it as {@link #patchCourse(Long, long, CoursePatch)} does.
+     * When another writer changed the course in between, it is read again and the patch derived again, up to
+     * {@code db.update.max-attempts} times (once inside a unit of work).
+     *
+     * @param id the ID of the course
+     * @param change derives the patch from the current state; called once per attempt, so it should have no
+     *               side effects
+     * @return the new version
+     * @throws Exception if the course does not exist, a patch is invalid or every attempt hit a conflict
+     */
+    long updateCourse(Long id, Function<Course, CoursePatch> change) throws Exception;
+
     /**
      * Deletes a course by ID.
      *
@@ -61,7 +144,8 @@ public interface ICourseService {
     Optional<Course> getCourseByTitle(String title);
 
     /**
-     * Adds a teacher to a course.
+     * Adds a teacher to a course by writing the association row directly.
+     * Adding a teacher that is already assigned is a no-op.
      *
      * @param courseId the ID of the course
      * @param teacherId the ID of the teacher
@@ -70,11 +154,124 @@ public interface ICourseService {
     void addTeacherToCourse(Long courseId, Long teacherId) throws Exception;
 
     /**
-     * Removes a teacher from a course.
+     * Assigns many teachers to one course, skipping those already assigned.
+     *
+     * @param courseId the ID of the course
+     * @param teacherIds the IDs of the teachers
+     * @return the number of new assignments
+     * @throws Exception if the operation fails
+     */
+    int addTeachersToCourse(Long courseId, Collection<Long> teacherIds) throws Exception;
+
+    /**
+     * Assigns one teacher to many courses, skipping those already assigned.
+     *
+     * @param teacherId the ID of the teacher
+     * @param courseIds the IDs of the courses
+     * @return the number of new assignments
+     * @throws Exception if the operation fails
+     */
+    int addTeacherToCourses(Long teacherId, Collection<Long> courseIds) throws Exception;
+
+    /**
+     * Removes a teacher from a course by deleting the association row directly.
      *
      * @param courseId the ID of the course
      * @param teacherId the ID of the teacher
      * @throws Exception if the operation fails
      */
     void removeTeacherFromCourse(Long courseId, Long teacherId) throws Exception;
+
+    /**
+     * Removes many teachers from one course.
+     *
+     * @param courseId the ID of the course
+     * @param teacherIds the IDs of the teachers
+     * @return the number of assignments removed
+     * @throws Exception if the operation fails
+     */
+    int removeTeachersFromCourse(Long courseId, Collection<Long> teacherIds) throws Exception;
+
+    /**
+     * Removes one teacher from many courses.
+     *
+     * @param teacherId the ID of the teacher
+     * @param courseIds the IDs of the courses
+     * @return the number of assignments removed
+     * @throws Exception if the operation fails
+     */
+    int removeTeacherFromCourses(Long teacherId, Collection<Long> courseIds) throws Exception;
+
+    /**
+     * Retrieves one page of courses ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of courses to return
+     * @return the page and the token for the next one
+     */
+    Page<Course> getAllCoursesPage(String pageToken, int pageSize);
+
+    /**
+     * Streams all courses ordered by ID in constant memory. The stream must be closed.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of courses
+     */
+    Stream<Course> streamAllCourses(int fetchSize);
+
+    /**
+     * Retrieves a course by ID with the associations of the given fetch plan.
+     *
+     * @param id the ID of the course
+     * @param plan the associations to load
+     * @return Optional containing the course if found, empty otherwise
+     */
+    Optional<Course> getCourseById(Long id, CourseFetchPlan plan);
+
+    /**
+     * Retrieves all courses with the associations of the given fetch plan.
+     *
+     * @param plan the associations to load
+     * @return a list of all courses
+     */
+    List<Course> getAllCourses(CourseFetchPlan plan);
+
+    /**
+     * Finds a course by title with the associations of the given fetch plan.
+     *
+     * @param title the title to search for
+     * @param plan the associations to load
+     * @return Optional containing the course if found, empty otherwise
+     */
+    Optional<Course> getCourseByTitle(String title, CourseFetchPlan plan);
+
+    /**
+     * Retrieves read-only summaries of all courses for list views.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<CourseSummary> getAllCourseSummaries();
+
+    /**
+     * Retrieves one page of course summaries ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     */
+    Page<CourseSummary> getCourseSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Registers a listener for committed course changes and teacher assignments made through this service.
+     *
+     * @param listener the listener
+     */
+    void addChangeListener(CourseChangeListener listener);
+
+    /**
+     * Unregisters a listener; does nothing if it is not registered.
+     *
+     * @param listener the listener
+     */
+    void removeChangeListener(CourseChangeListener listener);
 }
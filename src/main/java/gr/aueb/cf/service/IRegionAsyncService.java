@@ -0,0 +1,140 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.RegionFetchPlan;
+import gr.aueb.cf.dao.RegionPatch;
+import gr.aueb.cf.dto.RegionSummary;
+import gr.aueb.cf.model.Region;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link IRegionService}.
+ * Each call runs on a virtual thread with bounded database concurrency; the returned future completes
+ * with the result of the blocking {@link IRegionService} method, or exceptionally with its exception.
+ */
+public interface IRegionAsyncService {
+    /**
+     * Creates a new region.
+     *
+     * @see IRegionService#createRegion(Region)
+     */
+    CompletableFuture<Region> createRegion(Region region);
+
+    /**
+     * Creates a region, or returns the existing one with the same title.
+     *
+     * @see IRegionService#createOrGetRegion(Region)
+     */
+    CompletableFuture<Region> createOrGetRegion(Region region);
+
+    /**
+     * Creates the regions whose titles are free and returns the existing ones for the rest.
+     *
+     * @see IRegionService#createOrGetRegions(Collection)
+     */
+    CompletableFuture<List<Region>> createOrGetRegions(Collection<Region> regions);
+
+    /**
+     * Updates an existing region.
+     *
+     * @see IRegionService#updateRegion(Region)
+     */
+    CompletableFuture<Region> updateRegion(Region region);
+
+    /**
+     * Writes the fields of the patch to a region if it is still at the given version.
+     *
+     * @see IRegionService#patchRegion(Long, long, RegionPatch)
+     */
+    CompletableFuture<Long> patchRegion(Long id, long version, RegionPatch patch);
+
+    /**
+     * Updates a region with a patch derived from its current state, retrying on version conflicts.
+     *
+     * @see IRegionService#updateRegion(Long, Function)
+     */
+    CompletableFuture<Long> updateRegion(Long id, Function<Region, RegionPatch> change);
+
+    /**
+     * Deletes a region by ID.
+     *
+     * @see IRegionService#deleteRegion(Long)
+     */
+    CompletableFuture<Void> deleteRegion(Long id);
+
+    /**
+     * Retrieves a region by ID.
+     *
+     * @see IRegionService#getRegionById(Long)
+     */
+    CompletableFuture<Optional<Region>> getRegionById(Long id);
+
+    /**
+     * Retrieves a region by ID with the associations of the fetch plan.
+     *
+     * @see IRegionService#getRegionById(Long, RegionFetchPlan)
+     */
+    CompletableFuture<Optional<Region>> getRegionById(Long id, RegionFetchPlan plan);
+
+    /**
+     * Finds a region by title.
+     *
+     * @see IRegionService#getRegionByTitle(String)
+     */
+    CompletableFuture<Optional<Region>> getRegionByTitle(String title);
+
+    /**
+     * Checks whether a region title is taken.
+     *
+     * @see IRegionService#regionExistsByTitle(String)
+     */
+    CompletableFuture<Boolean> regionExistsByTitle(String title);
+
+    /**
+     * Retrieves one page of region summaries ordered by ID.
+     *
+     * @see IRegionService#getRegionSummariesPage(String, int)
+     */
+    CompletableFuture<Page<RegionSummary>> getRegionSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Adds a teacher to a region.
+     *
+     * @see IRegionService#addTeacherToRegion(Long, Long)
+     */
+    CompletableFuture<Void> addTeacherToRegion(Long regionId, Long teacherId);
+
+    /**
+     * Moves a set of teachers to a region.
+     *
+     * @see IRegionService#moveTeachersToRegion(Collection, Long)
+     */
+    CompletableFuture<Integer> moveTeachersToRegion(Collection<Long> teacherIds, Long regionId);
+
+    /**
+     * Merges the source region into the target and deletes the source.
+     *
+     * @see IRegionService#mergeRegions(Long, Long)
+     */
+    CompletableFuture<Integer> mergeRegions(Long sourceRegionId, Long targetRegionId);
+
+    /**
+     * Registers a listener for committed changes made through this service; it is called on the executor's
+     * threads.
+     *
+     * @see IRegionService#addChangeListener(RegionChangeListener)
+     */
+    void addChangeListener(RegionChangeListener listener);
+
+    /**
+     * Unregisters a listener.
+     *
+     * @see IRegionService#removeChangeListener(RegionChangeListener)
+     */
+    void removeChangeListener(RegionChangeListener listener);
+}
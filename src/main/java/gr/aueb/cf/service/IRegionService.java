@@ -1,10 +1,18 @@
 package gr.aueb.cf.service;
 
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.RegionFetchPlan;
+import gr.aueb.cf.dao.RegionPatch;
+import gr.aueb.cf.dto.RegionSummary;
 import gr.aueb.cf.model.Region;
 import gr.aueb.cf.model.Teacher;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service interface for Region business logic.
@@ -20,6 +28,55 @@ public interface IRegionService {
      */
     Region createRegion(Region region) throws Exception;
 
+    /**
+     * Creates a region, or returns the existing one with the same title.
+     * Relies on the unique title constraint instead of a lookup before the insert, so it is safe under concurrency.
+     *
+     * @param region the region to create
+     * @return the created region, or the existing region with the same title
+     * @throws Exception if the operation fails
+     */
+    Region createOrGetRegion(Region region) throws Exception;
+
+    /**
+     * Creates the regions whose titles are not taken yet and returns the existing ones for the rest,
+     * with one title lookup per chunk and batched inserts. Titles another writer takes meanwhile are settled
+     * one by one, except inside a unit of work, which the title's constraint violation fails instead.
+     *
+     * @param regions the regions to create
+     * @return for each given region, in order, the created or existing region with its title
+     * @throws Exception if the operation fails
+     */
+    List<Region> createOrGetRegions(Collection<Region> regions) throws Exception;
+
+    /**
+     * Checks whether a region title is taken, without loading the region.
+     *
+     * @param title the title to check
+     * @return {@code true} if a region with this title exists
+     */
+    boolean regionExistsByTitle(String title);
+
+    /**
+     * Creates many regions in chunked, batched transactions after validating all of them.
+     *
+     * @param regions the regions to create
+     * @return the created regions with generated IDs
+     * @throws Exception if validation or persistence fails
+     */
+    List<Region> createRegions(Collection<Region> regions) throws Exception;
+
+    /**
+     * Creates many regions in chunked, batched transactions after validating all of them,
+     * reporting progress after every committed chunk.
+     *
+     * @param regions the regions to create
+     * @param listener notified after every committed chunk
+     * @return the created regions with generated IDs
+     * @throws Exception if validation or persistence fails
+     */
+    List<Region> createRegions(Collection<Region> regions, BatchProgressListener listener) throws Exception;
+
     /**
      * Updates an existing region.
      *
@@ -29,6 +86,32 @@ public interface IRegionService {
      */
     Region updateRegion(Region region) throws Exception;
 
+    /**
+     * Writes the fields of the patch to a region with a single UPDATE, provided the region is still at the given
+     * version, so that concurrent writers do not overwrite each other.
+     *
+     * @param id the ID of the region
+     * @param version the version the caller read ({@link Region#getVersion()})
+     * @param patch the fields to change
+     * @return the new version
+     * @throws Exception if the patch is invalid, the region does not exist or it was changed since that version;
+     * in the last case the cause is a {@link jakarta.persistence.OptimisticLockException}
+     */
+    long patchRegion(Long id, long version, RegionPatch patch) throws Exception;
+
+    /**
+     * Reads a region, derives a patch from it and writes it as {@link #patchRegion(Long, long, RegionPatch)} does.
+     * When another writer changed the region in between, it is read again and the patch derived again, up to
+     * {@code db.update.max-attempts} times (once inside a unit of work).
+     *
+     * @param id the ID of the region
+     * @param change derives the patch from the current state; called once per attempt, so it should have no
+     *               side effects
+     * @return the new version
+     * @throws Exception if the region does not exist, a patch is invalid or every attempt hit a conflict
+     */
+    long updateRegion(Long id, Function<Region, RegionPatch> change) throws Exception;
+
     /**
      * Deletes a region by ID.
      *
@@ -61,7 +144,7 @@ public interface IRegionService {
     Optional<Region> getRegionByTitle(String title);
 
     /**
-     * Adds a teacher to a region.
+     * Adds a teacher to a region with a direct UPDATE of the teacher, moving it from any previous region.
      *
      * @param regionId the ID of the region
      * @param teacherId the ID of the teacher
@@ -70,11 +153,123 @@ public interface IRegionService {
     void addTeacherToRegion(Long regionId, Long teacherId) throws Exception;
 
     /**
-     * Removes a teacher from a region.
+     * Removes a teacher from a region with a direct UPDATE; a teacher in another region is left untouched.
      *
      * @param regionId the ID of the region
      * @param teacherId the ID of the teacher
      * @throws Exception if the operation fails
      */
     void removeTeacherFromRegion(Long regionId, Long teacherId) throws Exception;
+
+    /**
+     * Retrieves one page of regions ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of regions to return
+     * @return the page and the token for the next one
+     */
+    Page<Region> getAllRegionsPage(String pageToken, int pageSize);
+
+    /**
+     * Streams all regions ordered by ID in constant memory. The stream must be closed.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of regions
+     */
+    Stream<Region> streamAllRegions(int fetchSize);
+
+    /**
+     * Retrieves a region by ID with the associations of the given fetch plan.
+     *
+     * @param id the ID of the region
+     * @param plan the associations to load
+     * @return Optional containing the region if found, empty otherwise
+     */
+    Optional<Region> getRegionById(Long id, RegionFetchPlan plan);
+
+    /**
+     * Retrieves all regions with the associations of the given fetch plan.
+     *
+     * @param plan the associations to load
+     * @return a list of all regions
+     */
+    List<Region> getAllRegions(RegionFetchPlan plan);
+
+    /**
+     * Finds a region by title with the associations of the given fetch plan.
+     *
+     * @param title the title to search for
+     * @param plan the associations to load
+     * @return Optional containing the region if found, empty otherwise
+     */
+    Optional<Region> getRegionByTitle(String title, RegionFetchPlan plan);
+
+    /**
+     * Retrieves read-only summaries of all regions for list views.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<RegionSummary> getAllRegionSummaries();
+
+    /**
+     * Retrieves one page of region summaries ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     */
+    Page<RegionSummary> getRegionSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Moves a set of teachers to a region in one transaction.
+     *
+     * @param teacherIds the IDs of the teachers
+     * @param regionId the ID of the target region
+     * @return the number of teachers moved
+     * @throws Exception if the region does not exist or the operation fails
+     */
+    int moveTeachersToRegion(Collection<Long> teacherIds, Long regionId) throws Exception;
+
+    /**
+     * Moves every teacher of one region to another.
+     *
+     * @param fromRegionId the ID of the region to empty
+     * @param toRegionId the ID of the target region
+     * @return the number of teachers moved
+     * @throws Exception if either region does not exist or the operation fails
+     */
+    int moveAllTeachers(Long fromRegionId, Long toRegionId) throws Exception;
+
+    /**
+     * Merges the source region into the target: its teachers move to the target and the source is deleted.
+     *
+     * @param sourceRegionId the ID of the region to merge and delete
+     * @param targetRegionId the ID of the region that is kept
+     * @return the number of teachers moved
+     * @throws Exception if either region does not exist, they are the same, or the operation fails
+     */
+    int mergeRegions(Long sourceRegionId, Long targetRegionId) throws Exception;
+
+    /**
+     * Deletes a region after clearing the region of all its teachers.
+     *
+     * @param regionId the ID of the region
+     * @return the number of teachers left without a region
+     * @throws Exception if the region does not exist or the operation fails
+     */
+    int deleteRegionDetachingTeachers(Long regionId) throws Exception;
+
+    /**
+     * Registers a listener for committed region deletes and teacher moves made through this service.
+     *
+     * @param listener the listener
+     */
+    void addChangeListener(RegionChangeListener listener);
+
+    /**
+     * Unregisters a listener; does nothing if it is not registered.
+     *
+     * @param listener the listener
+     */
+    void removeChangeListener(RegionChangeListener listener);
 }
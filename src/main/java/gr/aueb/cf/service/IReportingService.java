@@ -0,0 +1,64 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dto.AgeBucketCount;
+import gr.aueb.cf.dto.CourseTeacherCount;
+import gr.aueb.cf.dto.GenderCount;
+import gr.aueb.cf.dto.LessonTypeCount;
+import gr.aueb.cf.dto.RegionTeacherCount;
+
+import java.util.List;
+
+/**
+ * Service interface for reports over teachers, courses and regions.
+ * Every report is a GROUP BY query whose result has one small record per group, so its cost does not include
+ * loading the entities it counts. With read replicas configured the reports may lag slightly behind the primary.
+ */
+public interface IReportingService {
+
+    /**
+     * Counts the teachers and the active teachers of every region.
+     *
+     * @return the counts of all regions ordered by title, then the teachers without a region if there are any
+     */
+    List<RegionTeacherCount> getTeachersPerRegion();
+
+    /**
+     * Counts the courses of every lesson type.
+     *
+     * @return the counts in lesson type order, then the courses without a type; unused types are absent
+     */
+    List<LessonTypeCount> getCoursesPerLessonType();
+
+    /**
+     * Counts the teachers by age today, in the ranges under 25, 25 to 34, 35 to 44, 45 to 54, 55 to 64 and
+     * 65 or over.
+     *
+     * @return the counts in age order, then the teachers without a date of birth; empty ranges are absent
+     */
+    List<AgeBucketCount> getAgeDistribution();
+
+    /**
+     * Counts the teachers by age today, in the given ranges.
+     *
+     * @param ageBounds the ages that start each range after the first, strictly ascending and positive;
+     *                  {@code {30, 50}} gives the ranges under 30, 30 to 49 and 50 or over
+     * @return the counts in age order, then the teachers without a date of birth; empty ranges are absent
+     */
+    List<AgeBucketCount> getAgeDistribution(int[] ageBounds);
+
+    /**
+     * Counts the teachers of every gender.
+     *
+     * @return the counts in gender order, then the teachers whose gender is not recorded; genders without
+     * teachers are absent
+     */
+    List<GenderCount> getGenderSplit();
+
+    /**
+     * Finds the courses with the most teachers.
+     *
+     * @param limit the maximum number of courses to return
+     * @return the courses by descending teacher count, then by ID; courses without teachers are absent
+     */
+    List<CourseTeacherCount> getTopCoursesByTeacherCount(int limit);
+}
@@ -0,0 +1,74 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dto.StatsDiscrepancy;
+import gr.aueb.cf.enums.LessonType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for the counts shown on dashboards: active teachers per region, teachers per course,
+ * and courses and teacher assignments per lesson type.
+ * <p>
+ * The counts are kept in memory and answered without touching the database. They are built by
+ * {@link #rebuild()} in one streaming pass over the teachers and then kept current from the change
+ * notifications of the teacher, course and region services:
+ * <pre>{@code
+ * SchoolStatsServiceImpl stats = new SchoolStatsServiceImpl();
+ * teacherService.addChangeListener(stats);
+ * courseService.addChangeListener(stats);
+ * regionService.addChangeListener(stats);
+ * stats.rebuild();
+ * }</pre>
+ * Changes that bypass the services are not seen; {@link #verify()} compares the counts with the database.
+ */
+public interface ISchoolStatsService extends TeacherChangeListener, CourseChangeListener, RegionChangeListener {
+
+    /**
+     * Recounts everything from the database into a new model, which replaces the current one.
+     * Counts keep coming from the current model while rebuilding, and changes reported meanwhile are applied
+     * to the new one. Called at startup and after bulk changes that bypass the services.
+     *
+     * @throws Exception if the database cannot be read or a rebuild is already running
+     */
+    void rebuild() throws Exception;
+
+    /**
+     * @param regionId the ID of the region, or {@code null} for teachers without a region
+     * @return the number of active teachers in the region
+     */
+    long getActiveTeacherCount(Long regionId);
+
+    /**
+     * @return the number of active teachers by region ID, with the {@code null} key for teachers without a
+     * region; regions without active teachers are absent
+     */
+    Map<Long, Long> getActiveTeacherCounts();
+
+    /**
+     * @param courseId the ID of the course
+     * @return the number of teachers assigned to the course
+     */
+    long getCourseTeacherCount(Long courseId);
+
+    /**
+     * @param lessonType the lesson type, or {@code null} for courses without one
+     * @return the number of courses of the lesson type
+     */
+    long getCourseCount(LessonType lessonType);
+
+    /**
+     * @param lessonType the lesson type, or {@code null} for courses without one
+     * @return the number of teacher assignments to courses of the lesson type
+     */
+    long getAssignmentCount(LessonType lessonType);
+
+    /**
+     * Recounts everything with GROUP BY queries and compares the results with the in-memory counts.
+     * Changes committed while it runs may show up as discrepancies that are gone on the next run.
+     *
+     * @return the counts that differ, empty if the model agrees with the database
+     * @throws Exception if the database cannot be read
+     */
+    List<StatsDiscrepancy> verify() throws Exception;
+}
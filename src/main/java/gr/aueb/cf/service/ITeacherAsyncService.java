@@ -0,0 +1,150 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherFetchPlan;
+import gr.aueb.cf.dao.TeacherPatch;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.model.Teacher;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link ITeacherService}.
+ * Each call runs on a virtual thread with bounded database concurrency; the returned future completes
+ * with the result of the blocking {@link ITeacherService} method, or exceptionally with its exception.
+ */
+public interface ITeacherAsyncService {
+    /**
+     * Creates a new teacher.
+     *
+     * @see ITeacherService#createTeacher(Teacher)
+     */
+    CompletableFuture<Teacher> createTeacher(Teacher teacher);
+
+    /**
+     * Creates many teachers in batched chunks.
+     *
+     * @see ITeacherService#createTeachers(Collection)
+     */
+    CompletableFuture<List<Teacher>> createTeachers(Collection<Teacher> teachers);
+
+    /**
+     * Updates an existing teacher.
+     *
+     * @see ITeacherService#updateTeacher(Teacher)
+     */
+    CompletableFuture<Teacher> updateTeacher(Teacher teacher);
+
+    /**
+     * Writes the fields of the patch to a teacher if it is still at the given version.
+     *
+     * @see ITeacherService#patchTeacher(Long, long, TeacherPatch)
+     */
+    CompletableFuture<Long> patchTeacher(Long id, long version, TeacherPatch patch);
+
+    /**
+     * Updates a teacher with a patch derived from its current state, retrying on version conflicts.
+     *
+     * @see ITeacherService#updateTeacher(Long, Function)
+     */
+    CompletableFuture<Long> updateTeacher(Long id, Function<Teacher, TeacherPatch> change);
+
+    /**
+     * Deletes a teacher by ID.
+     *
+     * @see ITeacherService#deleteTeacher(Long)
+     */
+    CompletableFuture<Void> deleteTeacher(Long id);
+
+    /**
+     * Retrieves a teacher by ID.
+     *
+     * @see ITeacherService#getTeacherById(Long)
+     */
+    CompletableFuture<Optional<Teacher>> getTeacherById(Long id);
+
+    /**
+     * Retrieves a teacher by ID with the associations of the fetch plan.
+     *
+     * @see ITeacherService#getTeacherById(Long, TeacherFetchPlan)
+     */
+    CompletableFuture<Optional<Teacher>> getTeacherById(Long id, TeacherFetchPlan plan);
+
+    /**
+     * Finds teachers by lastname.
+     *
+     * @see ITeacherService#getTeachersByLastname(String)
+     */
+    CompletableFuture<List<Teacher>> getTeachersByLastname(String lastname);
+
+    /**
+     * Retrieves one page of teachers ordered by ID.
+     *
+     * @see ITeacherService#getAllTeachersPage(String, int)
+     */
+    CompletableFuture<Page<Teacher>> getAllTeachersPage(String pageToken, int pageSize);
+
+    /**
+     * Retrieves one page of teacher summaries ordered by ID.
+     *
+     * @see ITeacherService#getTeacherSummariesPage(String, int)
+     */
+    CompletableFuture<Page<TeacherSummary>> getTeacherSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Searches teacher summaries by any combination of criteria, one keyset page at a time.
+     *
+     * @see ITeacherService#searchTeachers(TeacherSearchCriteria, TeacherSort, String, int)
+     */
+    CompletableFuture<Page<TeacherSummary>> searchTeachers(TeacherSearchCriteria criteria, TeacherSort sort,
+                                                           String pageToken, int pageSize);
+
+    /**
+     * Retrieves summaries of the teachers with the given lastname.
+     *
+     * @see ITeacherService#getTeacherSummariesByLastname(String)
+     */
+    CompletableFuture<List<TeacherSummary>> getTeacherSummariesByLastname(String lastname);
+
+    /**
+     * Activates the given teachers.
+     *
+     * @see ITeacherService#activateTeachers(Collection)
+     */
+    CompletableFuture<Integer> activateTeachers(Collection<Long> ids);
+
+    /**
+     * Deactivates the given teachers.
+     *
+     * @see ITeacherService#deactivateTeachers(Collection)
+     */
+    CompletableFuture<Integer> deactivateTeachers(Collection<Long> ids);
+
+    /**
+     * Deletes the given teachers.
+     *
+     * @see ITeacherService#deleteTeachers(Collection)
+     */
+    CompletableFuture<Integer> deleteTeachers(Collection<Long> ids);
+
+    /**
+     * Registers a listener for committed changes made through this service; it is called on the executor's
+     * threads.
+     *
+     * @see ITeacherService#addChangeListener(TeacherChangeListener)
+     */
+    void addChangeListener(TeacherChangeListener listener);
+
+    /**
+     * Unregisters a listener.
+     *
+     * @see ITeacherService#removeChangeListener(TeacherChangeListener)
+     */
+    void removeChangeListener(TeacherChangeListener listener);
+}
@@ -0,0 +1,44 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dto.AutocompleteStats;
+
+import java.util.List;
+
+/**
+ * Service interface for type-ahead over teacher names, answered from memory instead of a {@code LIKE} query
+ * per keystroke.
+ * <p>
+ * A query matches a teacher when each of its words starts one of the words of the teacher's first or last name,
+ * ignoring case and accents, so "pap geo" finds "Georgios Papadopoulos". Hits rank whole-word matches first,
+ * then lastname matches, then the shortest completion. The index is filled by {@link #load()} and then kept
+ * current as a {@link TeacherChangeListener} registered with the teacher service:
+ * <pre>{@code
+ * TeacherAutocompleteServiceImpl autocomplete = new TeacherAutocompleteServiceImpl();
+ * teacherService.addChangeListener(autocomplete);
+ * autocomplete.load();
+ * }</pre>
+ */
+public interface ITeacherAutocompleteService extends TeacherChangeListener {
+    /**
+     * Streams the names of all teachers from the database into a new index, which replaces the current one.
+     * Suggestions keep coming from the current index while loading, and changes reported meanwhile are applied
+     * to the new one. Called at startup and after bulk changes that bypass the teacher service.
+     *
+     * @throws Exception if the teachers cannot be read or a load is already running
+     */
+    void load() throws Exception;
+
+    /**
+     * Suggests teachers for what has been typed so far.
+     *
+     * @param query the typed text; blank text matches nothing
+     * @param limit the maximum number of suggestions
+     * @return the IDs of the best matching teachers, best first
+     */
+    List<Long> suggest(String query, int limit);
+
+    /**
+     * @return the size and estimated heap footprint of the index
+     */
+    AutocompleteStats getStats();
+}
@@ -0,0 +1,45 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dto.ExportStats;
+import gr.aueb.cf.enums.ExportFormat;
+
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Service interface for exporting every teacher with its details, region and course titles.
+ * The export reads the teachers in ID order one batch at a time and writes each batch before reading the next,
+ * so memory use does not depend on the number of teachers. The target is flushed but not closed.
+ */
+public interface ITeacherExportService {
+    /**
+     * Exports all teachers in batches of the bulk chunk size.
+     *
+     * @param out the stream to write to
+     * @param format the output format
+     * @return rows written, throughput and memory of the run
+     * @throws Exception if reading or writing fails
+     */
+    ExportStats exportTeachers(OutputStream out, ExportFormat format) throws Exception;
+
+    /**
+     * Exports all teachers in batches of the given size.
+     *
+     * @param out the stream to write to
+     * @param format the output format
+     * @param batchSize the number of teachers read per round trip
+     * @return rows written, throughput and memory of the run
+     * @throws Exception if reading or writing fails
+     */
+    ExportStats exportTeachers(OutputStream out, ExportFormat format, int batchSize) throws Exception;
+
+    /**
+     * Exports all teachers in batches of the bulk chunk size.
+     *
+     * @param channel the channel to write to
+     * @param format the output format
+     * @return rows written, throughput and memory of the run
+     * @throws Exception if reading or writing fails
+     */
+    ExportStats exportTeachers(WritableByteChannel channel, ExportFormat format) throws Exception;
+}
@@ -0,0 +1,55 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dto.TeacherFilterStats;
+
+import java.util.List;
+
+/**
+ * Service interface for filtering teachers by any combination of active flag, region, course and gender,
+ * answered from memory instead of a multi-join query per combination.
+ * <p>
+ * Every value of those attributes has a compressed bitmap of the IDs of the teachers that have it, and a
+ * {@link TeacherFilter} is evaluated by intersecting, uniting and subtracting bitmaps. Teacher IDs must fit in
+ * 32 bits, unsigned. The bitmaps are filled by {@link #load()} and then kept current from the change
+ * notifications of the teacher, course and region services:
+ * <pre>{@code
+ * TeacherFilterServiceImpl filters = new TeacherFilterServiceImpl();
+ * teacherService.addChangeListener(filters);
+ * courseService.addChangeListener(filters);
+ * regionService.addChangeListener(filters);
+ * filters.load();
+ * }</pre>
+ */
+public interface ITeacherFilterService extends TeacherChangeListener, CourseChangeListener, RegionChangeListener {
+
+    /**
+     * Streams the memberships of all teachers from the database into new bitmaps, which replace the current
+     * ones. Queries keep being answered from the current bitmaps while loading, and changes reported meanwhile
+     * are applied to the new ones. Called at startup and after bulk changes that bypass the services.
+     *
+     * @throws Exception if the teachers cannot be read, an ID does not fit in 32 bits, or a load is already
+     *                   running
+     */
+    void load() throws Exception;
+
+    /**
+     * @param filter the filter
+     * @return the number of teachers matching the filter
+     */
+    long count(TeacherFilter filter);
+
+    /**
+     * Finds the teachers matching a filter, one page at a time.
+     *
+     * @param filter  the filter
+     * @param afterId the last ID of the previous page, or {@code null} for the first page
+     * @param limit   the maximum number of IDs to return
+     * @return the IDs of the matching teachers in ascending order
+     */
+    List<Long> find(TeacherFilter filter, Long afterId, int limit);
+
+    /**
+     * @return the size and heap footprint of the index
+     */
+    TeacherFilterStats getStats();
+}
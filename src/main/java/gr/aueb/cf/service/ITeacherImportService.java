@@ -0,0 +1,42 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.dto.ImportResult;
+
+import java.nio.file.Path;
+
+/**
+ * Service interface for loading teachers and their course assignments from CSV.
+ * <p>
+ * The source has a header row naming its columns: {@code firstname} and {@code lastname} are required,
+ * {@code active}, {@code date_of_birth} (ISO-8601), {@code gender}, {@code region} and {@code courses}
+ * (titles separated by {@code ;}) are optional and other columns are ignored, so a file written by
+ * {@link ITeacherExportService} can be imported as is. Records are validated with the same rules as
+ * {@link ITeacherService#createTeacher}; invalid records are reported and skipped. Region and course titles that
+ * do not exist yet are created.
+ * <p>
+ * Records are written in batches, each teachers-plus-assignments batch in its own transaction. With a checkpoint
+ * file, the position after every committed batch is recorded there and a later run with the same checkpoint
+ * resumes after it. A run interrupted between a commit and the checkpoint update repeats that one batch.
+ */
+public interface ITeacherImportService {
+    /**
+     * Imports the source in batches of the bulk chunk size.
+     *
+     * @param source the CSV file
+     * @param checkpoint the checkpoint file to resume from and update, or {@code null} to import from the start
+     * @return the counts of the run and the first rejected records
+     * @throws Exception if the source cannot be read, does not belong to the checkpoint, or a batch fails
+     */
+    ImportResult importTeachers(Path source, Path checkpoint) throws Exception;
+
+    /**
+     * Imports the source in batches of the given size.
+     *
+     * @param source the CSV file
+     * @param checkpoint the checkpoint file to resume from and update, or {@code null} to import from the start
+     * @param batchSize the number of records per transaction
+     * @return the counts of the run and the first rejected records
+     * @throws Exception if the source cannot be read, does not belong to the checkpoint, or a batch fails
+     */
+    ImportResult importTeachers(Path source, Path checkpoint, int batchSize) throws Exception;
+}
@@ -1,9 +1,20 @@
 package gr.aueb.cf.service;
 
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherCriteria;
+import gr.aueb.cf.dao.TeacherFetchPlan;
+import gr.aueb.cf.dao.TeacherPatch;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
+import gr.aueb.cf.dto.TeacherSummary;
 import gr.aueb.cf.model.Teacher;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service interface for Teacher business logic.
@@ -19,6 +30,26 @@ public interface ITeacherService {
      */
     Teacher createTeacher(Teacher teacher) throws Exception;
 
+    /**
+     * Creates many teachers in chunked, batched transactions after validating all of them.
+     *
+     * @param teachers the teachers to create
+     * @return the created teachers with generated IDs
+     * @throws Exception if validation or persistence fails
+     */
+    List<Teacher> createTeachers(Collection<Teacher> teachers) throws Exception;
+
+    /**
+     * Creates many teachers in chunked, batched transactions after validating all of them,
+     * reporting progress after every committed chunk.
+     *
+     * @param teachers the teachers to create
+     * @param listener notified after every committed chunk
+     * @return the created teachers with generated IDs
+     * @throws Exception if validation or persistence fails
+     */
+    List<Teacher> createTeachers(Collection<Teacher> teachers, BatchProgressListener listener) throws Exception;
+
     /**
      * Updates an existing teacher.
      *
@@ -28,6 +59,32 @@ public interface ITeacherService {
      */
     Teacher updateTeacher(Teacher teacher) throws Exception;
 
+    /**
+     * Writes the fields of the patch to a teacher with a single UPDATE, provided the teacher is still at the given
+     * version, so that concurrent writers do not overwrite each other.
+     *
+     * @param id the ID of the teacher
+     * @param version the version the caller read ({@link Teacher#getVersion()})
+     * @param patch the fields to change
+     * @return the new version
+     * @throws Exception if the patch is invalid, the teacher does not exist or it was changed since that version;
+     * in the last case the cause is a {@link jakarta.persistence.OptimisticLockException}
+     */
+    long patchTeacher(Long id, long version, TeacherPatch patch) throws Exception;
+
+    /**
+     * Reads a teacher, derives a patch from it and writes it as {@link #patchTeacher(Long, long, TeacherPatch)} does.
+     * When another writer changed the teacher in between, it is read again and the patch derived again, up to
+     * {@code db.update.max-attempts} times (once inside a unit of work).
+     *
+     * @param id the ID of the teacher
+     * @param change derives the patch from the current state; called once per attempt, so it should have no
+     *               side effects
+     * @return the new version
+     * @throws Exception if the teacher does not exist, a patch is invalid or every attempt hit a conflict
+     */
+    long updateTeacher(Long id, Function<Teacher, TeacherPatch> change) throws Exception;
+
     /**
      * Deletes a teacher by ID.
      *
@@ -65,4 +122,206 @@ public interface ITeacherService {
      * @return a list of active teachers
      */
     List<Teacher> getActiveTeachers();
+
+    /**
+     * Retrieves one page of teachers ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getAllTeachersPage(String pageToken, int pageSize);
+
+    /**
+     * Retrieves one page of teachers with the given lastname, ordered by ID.
+     *
+     * @param lastname the lastname to search for
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getTeachersByLastnamePage(String lastname, String pageToken, int pageSize);
+
+    /**
+     * Retrieves one page of active teachers, ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getActiveTeachersPage(String pageToken, int pageSize);
+
+    /**
+     * Streams all teachers ordered by ID in constant memory. The stream must be closed.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of teachers
+     */
+    Stream<Teacher> streamAllTeachers(int fetchSize);
+
+    /**
+     * Streams the teachers with the given lastname ordered by ID. The stream must be closed.
+     *
+     * @param lastname the lastname to search for
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of teachers
+     */
+    Stream<Teacher> streamTeachersByLastname(String lastname, int fetchSize);
+
+    /**
+     * Streams the active teachers ordered by ID. The stream must be closed.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the open stream of teachers
+     */
+    Stream<Teacher> streamActiveTeachers(int fetchSize);
+
+    /**
+     * Retrieves a teacher by ID with the associations of the given fetch plan.
+     *
+     * @param id the ID of the teacher
+     * @param plan the associations to load
+     * @return Optional containing the teacher if found, empty otherwise
+     */
+    Optional<Teacher> getTeacherById(Long id, TeacherFetchPlan plan);
+
+    /**
+     * Retrieves all teachers with the associations of the given fetch plan.
+     *
+     * @param plan the associations to load
+     * @return a list of all teachers
+     */
+    List<Teacher> getAllTeachers(TeacherFetchPlan plan);
+
+    /**
+     * Finds teachers by lastname with the associations of the given fetch plan.
+     *
+     * @param lastname the lastname to search for
+     * @param plan the associations to load
+     * @return a list of teachers with the specified lastname
+     */
+    List<Teacher> getTeachersByLastname(String lastname, TeacherFetchPlan plan);
+
+    /**
+     * Retrieves all active teachers with the associations of the given fetch plan.
+     *
+     * @param plan the associations to load
+     * @return a list of active teachers
+     */
+    List<Teacher> getActiveTeachers(TeacherFetchPlan plan);
+
+    /**
+     * Retrieves one page of teachers ordered by ID with the associations of the given fetch plan.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of teachers to return
+     * @param plan the associations to load
+     * @return the page and the token for the next one
+     */
+    Page<Teacher> getAllTeachersPage(String pageToken, int pageSize, TeacherFetchPlan plan);
+
+    /**
+     * Retrieves read-only summaries of all teachers for list views.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<TeacherSummary> getAllTeacherSummaries();
+
+    /**
+     * Retrieves read-only summaries of the teachers with the given lastname.
+     *
+     * @param lastname the lastname to search for
+     * @return the summaries ordered by ID
+     */
+    List<TeacherSummary> getTeacherSummariesByLastname(String lastname);
+
+    /**
+     * Retrieves read-only summaries of the active teachers.
+     *
+     * @return the summaries ordered by ID
+     */
+    List<TeacherSummary> getActiveTeacherSummaries();
+
+    /**
+     * Retrieves one page of teacher summaries ordered by ID.
+     *
+     * @param pageToken the continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     */
+    Page<TeacherSummary> getTeacherSummariesPage(String pageToken, int pageSize);
+
+    /**
+     * Searches teacher summaries by any combination of criteria, one keyset page at a time.
+     * A blank lastname prefix is ignored.
+     *
+     * @param criteria the criteria; {@code null} components do not restrict the result
+     * @param sort the order of the results
+     * @param pageToken the continuation token of the previous page (same criteria and sort),
+     *                  or {@code null} for the first page
+     * @param pageSize the maximum number of summaries to return
+     * @return the page and the token for the next one
+     * @throws IllegalArgumentException if the criteria or sort are missing or the date range is reversed
+     */
+    Page<TeacherSummary> searchTeachers(TeacherSearchCriteria criteria, TeacherSort sort, String pageToken,
+                                        int pageSize);
+
+    /**
+     * Activates the given teachers with set-based updates.
+     *
+     * @param ids the IDs of the teachers
+     * @return the number of teachers that were inactive
+     * @throws Exception if the operation fails
+     */
+    int activateTeachers(Collection<Long> ids) throws Exception;
+
+    /**
+     * Deactivates the given teachers with set-based updates.
+     *
+     * @param ids the IDs of the teachers
+     * @return the number of teachers that were active
+     * @throws Exception if the operation fails
+     */
+    int deactivateTeachers(Collection<Long> ids) throws Exception;
+
+    /**
+     * Activates every teacher matching the criteria with a single update.
+     *
+     * @param criteria the teachers to activate
+     * @return the number of teachers that were inactive
+     * @throws Exception if the operation fails
+     */
+    int activateTeachers(TeacherCriteria criteria) throws Exception;
+
+    /**
+     * Deactivates every teacher matching the criteria with a single update.
+     *
+     * @param criteria the teachers to deactivate
+     * @return the number of teachers that were active
+     * @throws Exception if the operation fails
+     */
+    int deactivateTeachers(TeacherCriteria criteria) throws Exception;
+
+    /**
+     * Deletes the given teachers, their details and their course assignments with set-based statements.
+     *
+     * @param ids the IDs of the teachers
+     * @return the number of teachers deleted
+     * @throws Exception if the operation fails
+     */
+    int deleteTeachers(Collection<Long> ids) throws Exception;
+
+    /**
+     * Registers a listener for committed creates, updates, deletes and activations made through this service.
+     *
+     * @param listener the listener
+     */
+    void addChangeListener(TeacherChangeListener listener);
+
+    /**
+     * Unregisters a listener; does nothing if it is not registered.
+     *
+     * @param listener the listener
+     */
+    void removeChangeListener(TeacherChangeListener listener);
 }
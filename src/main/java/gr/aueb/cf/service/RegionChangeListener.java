@@ -0,0 +1,37 @@
+package gr.aueb.cf.service;
+
+import java.util.Collection;
+
+/**
+ * Callback notified by IRegionService once changes to regions and their teachers have been committed, delivered
+ * like {@link TeacherChangeListener} notifications: when the unit of work commits, on the thread that made the
+ * change, with failing listeners logged and skipped.
+ */
+public interface RegionChangeListener {
+
+    /**
+     * Called after teachers have been moved to a region or removed from theirs.
+     *
+     * @param teacherIds the IDs of the teachers
+     * @param regionId the ID of their new region, or {@code null} if they no longer have one
+     */
+    default void teachersMoved(Collection<Long> teacherIds, Long regionId) {
+    }
+
+    /**
+     * Called after every teacher of a region has been moved to another region or removed from it.
+     *
+     * @param fromRegionId the ID of the region the teachers were in
+     * @param toRegionId the ID of their new region, or {@code null} if they no longer have one
+     */
+    default void allTeachersMoved(Long fromRegionId, Long toRegionId) {
+    }
+
+    /**
+     * Called after regions have been deleted; they no longer had teachers.
+     *
+     * @param ids the IDs of the deleted regions
+     */
+    default void regionsDeleted(Collection<Long> ids) {
+    }
+}
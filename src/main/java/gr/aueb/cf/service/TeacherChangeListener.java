@@ -0,0 +1,50 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.model.Teacher;
+
+import java.util.Collection;
+
+/**
+ * Callback notified by ITeacherService once teacher changes have been committed, for in-memory structures
+ * that mirror the teachers table. Notifications of a unit of work are delivered when it commits and dropped
+ * when it rolls back. They run on the thread that made the change, so listeners must be thread-safe and quick;
+ * an exception thrown by a listener is logged and does not affect the change or the other listeners.
+ * <p>
+ * Only changes made through the service are reported: bulk imports and direct DAO calls are not, nor are the
+ * committed chunks of a bulk create that fails part-way outside a unit of work. Listeners reload from the
+ * database after those, and after {@link #teachersChanged()}.
+ */
+public interface TeacherChangeListener {
+
+    /**
+     * Called after a teacher has been created or updated.
+     *
+     * @param teacher the saved teacher, with its ID
+     */
+    default void teacherSaved(Teacher teacher) {
+    }
+
+    /**
+     * Called after teachers have been deleted.
+     *
+     * @param ids the IDs of the deleted teachers
+     */
+    default void teachersDeleted(Collection<Long> ids) {
+    }
+
+    /**
+     * Called after the active flag of the given teachers has been set.
+     *
+     * @param ids the IDs of the teachers; some may not have changed, or not exist
+     * @param active the new value of the flag
+     */
+    default void teachersActiveChanged(Collection<Long> ids, boolean active) {
+    }
+
+    /**
+     * Called after a set-based change to teachers that are not known individually, such as activating every
+     * teacher matching some criteria.
+     */
+    default void teachersChanged() {
+    }
+}
@@ -0,0 +1,118 @@
+package gr.aueb.cf.service;
+
+import gr.aueb.cf.enums.GenderType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A condition on teachers for {@link ITeacherFilterService}, built with the factory methods and combined with
+ * {@link #and}, {@link #or} and {@link #not}:
+ * <pre>{@code
+ * TeacherFilter filter = TeacherFilter.and(TeacherFilter.active(true),
+ *         TeacherFilter.or(TeacherFilter.course(mathId), TeacherFilter.course(physicsId)),
+ *         TeacherFilter.not(TeacherFilter.region(athensId)));
+ * }</pre>
+ */
+public sealed interface TeacherFilter {
+
+    /**
+     * @param active {@code true} for active teachers, {@code false} for the others, including those without a flag
+     * @return the filter
+     */
+    static TeacherFilter active(boolean active) {
+        return new Active(active);
+    }
+
+    /**
+     * @param regionId the ID of the region, or {@code null} for teachers without a region
+     * @return the filter
+     */
+    static TeacherFilter region(Long regionId) {
+        return new InRegion(regionId);
+    }
+
+    /**
+     * @param courseId the ID of a course
+     * @return the filter matching the teachers assigned to the course
+     */
+    static TeacherFilter course(Long courseId) {
+        return new InCourse(courseId);
+    }
+
+    /**
+     * @param gender the gender, or {@code null} for teachers whose gender is not recorded
+     * @return the filter
+     */
+    static TeacherFilter gender(GenderType gender) {
+        return new HasGender(gender);
+    }
+
+    /**
+     * @param filters the filters; none matches every teacher
+     * @return the filter matching the teachers that match all of them
+     */
+    static TeacherFilter and(TeacherFilter... filters) {
+        return new And(Arrays.asList(filters));
+    }
+
+    /**
+     * @param filters the filters; none matches no teacher
+     * @return the filter matching the teachers that match any of them
+     */
+    static TeacherFilter or(TeacherFilter... filters) {
+        return new Or(Arrays.asList(filters));
+    }
+
+    /**
+     * @param filter the filter
+     * @return the filter matching the teachers that do not match it
+     */
+    static TeacherFilter not(TeacherFilter filter) {
+        return new Not(filter);
+    }
+
+    record Active(boolean active) implements TeacherFilter {
+    }
+
+    record InRegion(Long regionId) implements TeacherFilter {
+    }
+
+    record InCourse(Long courseId) implements TeacherFilter {
+        public InCourse {
+            if (courseId == null) {
+                throw new IllegalArgumentException("Course ID cannot be null");
+            }
+        }
+    }
+
+    record HasGender(GenderType gender) implements TeacherFilter {
+    }
+
+    record And(List<TeacherFilter> filters) implements TeacherFilter {
+        public And {
+            filters = operands(filters);
+        }
+    }
+
+    record Or(List<TeacherFilter> filters) implements TeacherFilter {
+        public Or {
+            filters = operands(filters);
+        }
+    }
+
+    record Not(TeacherFilter filter) implements TeacherFilter {
+        public Not {
+            if (filter == null) {
+                throw new IllegalArgumentException("Filter cannot be null");
+            }
+        }
+    }
+
+    private static List<TeacherFilter> operands(List<TeacherFilter> filters) {
+        if (filters == null || filters.stream().anyMatch(filter -> filter == null)) {
+            throw new IllegalArgumentException("Filters cannot be null");
+        }
+        return List.copyOf(filters);
+    }
+}
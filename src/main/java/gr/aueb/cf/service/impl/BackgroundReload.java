@@ -0,0 +1,60 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.util.DatabaseExecutor;
+import gr.aueb.cf.util.UnitOfWork;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a reload on the shared DatabaseExecutor when requested, one run at a time. Requests made while a run is
+ * in progress are coalesced into one more run after it; failures are logged.
+ */
+final class BackgroundReload {
+    private static final System.Logger LOGGER = System.getLogger(BackgroundReload.class.getName());
+
+    private final String name;
+    private final UnitOfWork.VoidWork reload;
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * @param name   what is reloaded, for the log
+     * @param reload the reload
+     */
+    BackgroundReload(String name, UnitOfWork.VoidWork reload) {
+        this.name = name;
+        this.reload = reload;
+    }
+
+    void request() {
+        requested.set(true);
+        schedule();
+    }
+
+    private void schedule() {
+        if (running.compareAndSet(false, true)) {
+            DatabaseExecutor.shared().submit(() -> {
+                runRequested();
+                return null;
+            });
+        }
+    }
+
+    private void runRequested() {
+        try {
+            while (requested.getAndSet(false)) {
+                try {
+                    reload.execute();
+                } catch (Exception e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Cannot reload the " + name, e);
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        // A request made after the loop ended but before the flag was cleared found the reload still running
+        if (requested.get()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.util.UnitOfWork;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The change listeners registered with a service.
+ *
+ * @param <L> the listener type
+ */
+final class ChangeListeners<L> {
+    private static final System.Logger LOGGER = System.getLogger(ChangeListeners.class.getName());
+
+    private final List<L> listeners = new CopyOnWriteArrayList<>();
+
+    void add(L listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    void remove(L listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return {@code true} if nobody listens, so that notifications need not be prepared
+     */
+    boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    /**
+     * Delivers a notification to every listener once the current unit of work commits, or at once outside a
+     * unit (the DAO has committed by then). A failing listener is logged and skipped.
+     *
+     * @param notification the call to make on each listener
+     */
+    void notify(Consumer<L> notification) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        UnitOfWork.afterCommit(() -> {
+            for (L listener : listeners) {
+                try {
+                    notification.accept(listener);
+                } catch (RuntimeException e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Change listener " + listener + " failed", e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.CourseFetchPlan;
+import gr.aueb.cf.dao.CoursePatch;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dto.CourseSummary;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.service.CourseChangeListener;
+import gr.aueb.cf.service.ICourseAsyncService;
+import gr.aueb.cf.service.ICourseService;
+import gr.aueb.cf.util.DatabaseExecutor;
+import gr.aueb.cf.util.Metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Implementation of ICourseAsyncService that runs the blocking ICourseService on a DatabaseExecutor.
+ */
+public class CourseAsyncServiceImpl implements ICourseAsyncService {
+    private final ICourseService courseService;
+    private final DatabaseExecutor executor;
+
+    public CourseAsyncServiceImpl() {
+        this(Metrics.instrument(ICourseService.class, new CourseServiceImpl()), DatabaseExecutor.shared());
+    }
+
+    public CourseAsyncServiceImpl(ICourseService courseService, DatabaseExecutor executor) {
+        this.courseService = courseService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Course> createCourse(Course course) {
+        return executor.submit(() -> courseService.createCourse(course));
+    }
+
+    @Override
+    public CompletableFuture<Course> createOrGetCourse(Course course) {
+        return executor.submit(() -> courseService.createOrGetCourse(course));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> createOrGetCourses(Collection<Course> courses) {
+        return executor.submit(() -> courseService.createOrGetCourses(courses));
+    }
+
+    @Override
+    public CompletableFuture<Course> updateCourse(Course course) {
+        return executor.submit(() -> courseService.updateCourse(course));
+    }
+
+    @Override
+    public CompletableFuture<Long> patchCourse(Long id, long version, CoursePatch patch) {
+        return executor.submit(() -> courseService.patchCourse(id, version, patch));
+    }
+
+    @Override
+    public CompletableFuture<Long> updateCourse(Long id, Function<Course, CoursePatch> change) {
+        return executor.submit(() -> courseService.updateCourse(id, change));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteCourse(Long id) {
+        return executor.submit(() -> {
+            courseService.deleteCourse(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Course>> getCourseById(Long id) {
+        return executor.submit(() -> courseService.getCourseById(id));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Course>> getCourseById(Long id, CourseFetchPlan plan) {
+        return executor.submit(() -> courseService.getCourseById(id, plan));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Course>> getCourseByTitle(String title) {
+        return executor.submit(() -> courseService.getCourseByTitle(title));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> courseExistsByTitle(String title) {
+        return executor.submit(() -> courseService.courseExistsByTitle(title));
+    }
+
+    @Override
+    public CompletableFuture<Page<CourseSummary>> getCourseSummariesPage(String pageToken, int pageSize) {
+        return executor.submit(() -> courseService.getCourseSummariesPage(pageToken, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Void> addTeacherToCourse(Long courseId, Long teacherId) {
+        return executor.submit(() -> {
+            courseService.addTeacherToCourse(courseId, teacherId);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> removeTeacherFromCourse(Long courseId, Long teacherId) {
+        return executor.submit(() -> {
+            courseService.removeTeacherFromCourse(courseId, teacherId);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> addTeachersToCourse(Long courseId, Collection<Long> teacherIds) {
+        return executor.submit(() -> courseService.addTeachersToCourse(courseId, teacherIds));
+    }
+
+    @Override
+    public void addChangeListener(CourseChangeListener listener) {
+        courseService.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(CourseChangeListener listener) {
+        courseService.removeChangeListener(listener);
+    }
+}
@@ -1,15 +1,33 @@
 package gr.aueb.cf.service.impl;
 
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.ConstraintViolations;
+import gr.aueb.cf.dao.CourseFetchPlan;
+import gr.aueb.cf.dao.CoursePatch;
 import gr.aueb.cf.dao.ICourseDAO;
 import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
 import gr.aueb.cf.dao.impl.CourseDAOImpl;
 import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.CourseSummary;
 import gr.aueb.cf.model.Course;
-import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.CourseChangeListener;
 import gr.aueb.cf.service.ICourseService;
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.Metrics;
+import gr.aueb.cf.util.UnitOfWork;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ICourseService.
@@ -18,10 +36,11 @@ import java.util.Optional;
 public class CourseServiceImpl implements ICourseService {
     private final ICourseDAO courseDAO;
     private final ITeacherDAO teacherDAO;
+    private final ChangeListeners<CourseChangeListener> listeners = new ChangeListeners<>();
 
     public CourseServiceImpl() {
-        this.courseDAO = new CourseDAOImpl();
-        this.teacherDAO = new TeacherDAOImpl();
+        this.courseDAO = Metrics.instrument(ICourseDAO.class, new CourseDAOImpl());
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
     }
 
     public CourseServiceImpl(ICourseDAO courseDAO, ITeacherDAO teacherDAO) {
@@ -32,26 +51,157 @@ public class CourseServiceImpl implements ICourseService {
     @Override
     public Course createCourse(Course course) throws Exception {
         try {
-            validateCourse(course);
-            // Check if course with same title already exists
-            Optional<Course> existingCourse = courseDAO.getByTitle(course.getTitle());
-            if (existingCourse.isPresent()) {
+            Validation.validateCourse(course);
+            // The unique title constraint decides, so this is one INSERT rather than a lookup plus an insert
+            if (!courseDAO.insertIfAbsent(course)) {
                 throw new IllegalArgumentException("Course with title '" + course.getTitle() + "' already exists");
             }
-            return courseDAO.insert(course);
+            listeners.notify(listener -> listener.courseSaved(course));
+            return course;
         } catch (Exception e) {
             throw new Exception("Error creating course: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public Course createOrGetCourse(Course course) throws Exception {
+        try {
+            Validation.validateCourse(course);
+            Course saved = courseDAO.insertIfAbsent(course) ? course : courseDAO.getByTitle(course.getTitle())
+                    .orElseThrow(() -> new IllegalStateException("Course with title '" + course.getTitle()
+                            + "' was deleted concurrently"));
+            listeners.notify(listener -> listener.courseSaved(saved));
+            return saved;
+        } catch (Exception e) {
+            throw new Exception("Error creating or getting course: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Course> createOrGetCourses(Collection<Course> courses) throws Exception {
+        try {
+            if (courses == null) {
+                throw new IllegalArgumentException("Courses cannot be null");
+            }
+            courses.forEach(Validation::validateCourse);
+            // The first course given for a title is the one inserted
+            Map<String, Course> candidates = new LinkedHashMap<>();
+            courses.forEach(course -> candidates.putIfAbsent(course.getTitle(), course));
+
+            Map<String, Course> resolved = new HashMap<>();
+            courseDAO.getByTitles(candidates.keySet()).forEach(existing -> resolved.put(existing.getTitle(), existing));
+            List<Course> missing = candidates.values().stream()
+                    .filter(course -> !resolved.containsKey(course.getTitle()))
+                    .toList();
+            try {
+                courseDAO.insertAll(missing).forEach(inserted -> resolved.put(inserted.getTitle(), inserted));
+            } catch (RuntimeException e) {
+                // Another writer took some of the titles meanwhile: pick up those, settle the rest one by one.
+                // Any other failure is real, and a unit of work is rollback-only by now, so neither is retried
+                if (UnitOfWork.isActive() || !ConstraintViolations.isConstraintViolation(e)) {
+                    throw e;
+                }
+                courseDAO.getByTitles(missing.stream().map(Course::getTitle).toList())
+                        .forEach(existing -> resolved.put(existing.getTitle(), existing));
+                for (Course course : missing) {
+                    if (!resolved.containsKey(course.getTitle())) {
+                        course.setId(null);
+                        resolved.put(course.getTitle(), createOrGetCourse(course));
+                    }
+                }
+            }
+            resolved.values().forEach(saved -> listeners.notify(listener -> listener.courseSaved(saved)));
+            return courses.stream().map(course -> resolved.get(course.getTitle())).toList();
+        } catch (Exception e) {
+            throw new Exception("Error creating or getting courses: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean courseExistsByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return false;
+        }
+        return courseDAO.existsByTitle(title);
+    }
+
+    @Override
+    public List<Course> createCourses(Collection<Course> courses) throws Exception {
+        return createCourses(courses, BatchProgressListener.NONE);
+    }
+
+    @Override
+    public List<Course> createCourses(Collection<Course> courses, BatchProgressListener listener) throws Exception {
+        try {
+            if (courses == null) {
+                throw new IllegalArgumentException("Courses cannot be null");
+            }
+            courses.forEach(Validation::validateCourse);
+            // Check titles are unique within the batch and not already taken, with one query per chunk
+            Set<String> titles = new HashSet<>();
+            for (Course course : courses) {
+                if (!titles.add(course.getTitle())) {
+                    throw new IllegalArgumentException("Course title '" + course.getTitle() + "' appears more than once");
+                }
+            }
+            Set<String> existingTitles = courseDAO.findExistingTitles(titles);
+            if (!existingTitles.isEmpty()) {
+                throw new IllegalArgumentException("Courses with titles " + existingTitles + " already exist");
+            }
+            List<Course> created = courseDAO.insertAll(courses, JPAUtil.getBulkChunkSize(), listener);
+            listeners.notify(changeListener -> created.forEach(changeListener::courseSaved));
+            return created;
+        } catch (Exception e) {
+            throw new Exception("Error creating courses: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Course updateCourse(Course course) throws Exception {
         try {
-            validateCourse(course);
+            Validation.validateCourse(course);
             if (course.getId() == null) {
                 throw new IllegalArgumentException("Course ID cannot be null for update");
             }
-            return courseDAO.update(course);
+            Course updated = courseDAO.update(course);
+            listeners.notify(listener -> listener.courseSaved(updated));
+            return updated;
+        } catch (Exception e) {
+            throw new Exception("Error updating course: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long patchCourse(Long id, long version, CoursePatch patch) throws Exception {
+        try {
+            if (id == null) {
+                throw new IllegalArgumentException("Course ID cannot be null for update");
+            }
+            Validation.validateCoursePatch(patch);
+            if (patch.isEmpty()) {
+                return version;
+            }
+            return notifySaved(id, courseDAO.patch(id, version, patch));
+        } catch (Exception e) {
+            throw new Exception("Error updating course: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long updateCourse(Long id, Function<Course, CoursePatch> change) throws Exception {
+        try {
+            if (id == null || change == null) {
+                throw new IllegalArgumentException("Course ID and change cannot be null for update");
+            }
+            return notifySaved(id, OptimisticRetry.update(
+                    () -> courseDAO.getById(id).orElseThrow(
+                            () -> new IllegalArgumentException("Course with ID " + id + " does not exist")),
+                    current -> {
+                        CoursePatch patch = change.apply(current);
+                        Validation.validateCoursePatch(patch);
+                        return patch.isEmpty() ? current.getVersion()
+                                : courseDAO.patch(id, current.getVersion(), patch);
+                    }));
         } catch (Exception e) {
             throw new Exception("Error updating course: " + e.getMessage(), e);
         }
@@ -64,6 +214,7 @@ public class CourseServiceImpl implements ICourseService {
                 throw new IllegalArgumentException("Course ID cannot be null");
             }
             courseDAO.delete(id);
+            listeners.notify(listener -> listener.coursesDeleted(List.of(id)));
         } catch (Exception e) {
             throw new Exception("Error deleting course: " + e.getMessage(), e);
         }
@@ -82,6 +233,16 @@ public class CourseServiceImpl implements ICourseService {
         return courseDAO.getAll();
     }
 
+    @Override
+    public Page<Course> getAllCoursesPage(String pageToken, int pageSize) {
+        return courseDAO.getAllPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Stream<Course> streamAllCourses(int fetchSize) {
+        return courseDAO.streamAll(fetchSize);
+    }
+
     @Override
     public Optional<Course> getCourseByTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
@@ -90,31 +251,69 @@ public class CourseServiceImpl implements ICourseService {
         return courseDAO.getByTitle(title);
     }
 
+    @Override
+    public Optional<Course> getCourseById(Long id, CourseFetchPlan plan) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return courseDAO.getById(id, plan);
+    }
+
+    @Override
+    public List<Course> getAllCourses(CourseFetchPlan plan) {
+        return courseDAO.getAll(plan);
+    }
+
+    @Override
+    public Optional<Course> getCourseByTitle(String title, CourseFetchPlan plan) {
+        if (title == null || title.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return courseDAO.getByTitle(title, plan);
+    }
+
+    @Override
+    public List<CourseSummary> getAllCourseSummaries() {
+        return courseDAO.getAllSummaries();
+    }
+
+    @Override
+    public Page<CourseSummary> getCourseSummariesPage(String pageToken, int pageSize) {
+        return courseDAO.getSummariesPage(pageToken, pageSize);
+    }
+
     @Override
     public void addTeacherToCourse(Long courseId, Long teacherId) throws Exception {
         try {
             if (courseId == null || teacherId == null) {
                 throw new IllegalArgumentException("Course ID and Teacher ID cannot be null");
             }
-
-            Optional<Course> courseOpt = courseDAO.getById(courseId);
-            if (courseOpt.isEmpty()) {
-                throw new IllegalArgumentException("Course with ID " + courseId + " not found");
-            }
-
-            Optional<Teacher> teacherOpt = teacherDAO.getById(teacherId);
-            if (teacherOpt.isEmpty()) {
-                throw new IllegalArgumentException("Teacher with ID " + teacherId + " not found");
+            if (assign(List.of(courseId), List.of(teacherId)) == 0) {
+                // Nothing inserted: either already assigned, or one of the two does not exist
+                requireCourseAndTeacher(courseId, teacherId);
             }
+        } catch (Exception e) {
+            throw new Exception("Error adding teacher to course: " + e.getMessage(), e);
+        }
+    }
 
-            Course course = courseOpt.get();
-            Teacher teacher = teacherOpt.get();
+    @Override
+    public int addTeachersToCourse(Long courseId, Collection<Long> teacherIds) throws Exception {
+        try {
+            validateIds(courseId, teacherIds);
+            return assign(List.of(courseId), teacherIds);
+        } catch (Exception e) {
+            throw new Exception("Error adding teachers to course: " + e.getMessage(), e);
+        }
+    }
 
-            // Use the bidirectional relationship management
-            course.addTeacher(teacher);
-            courseDAO.update(course);
+    @Override
+    public int addTeacherToCourses(Long teacherId, Collection<Long> courseIds) throws Exception {
+        try {
+            validateIds(teacherId, courseIds);
+            return assign(courseIds, List.of(teacherId));
         } catch (Exception e) {
-            throw new Exception("Error adding teacher to course: " + e.getMessage(), e);
+            throw new Exception("Error adding teacher to courses: " + e.getMessage(), e);
         }
     }
 
@@ -124,40 +323,116 @@ public class CourseServiceImpl implements ICourseService {
             if (courseId == null || teacherId == null) {
                 throw new IllegalArgumentException("Course ID and Teacher ID cannot be null");
             }
-
-            Optional<Course> courseOpt = courseDAO.getById(courseId);
-            if (courseOpt.isEmpty()) {
-                throw new IllegalArgumentException("Course with ID " + courseId + " not found");
-            }
-
-            Optional<Teacher> teacherOpt = teacherDAO.getById(teacherId);
-            if (teacherOpt.isEmpty()) {
-                throw new IllegalArgumentException("Teacher with ID " + teacherId + " not found");
+            if (unassign(List.of(courseId), List.of(teacherId)) == 0) {
+                requireCourseAndTeacher(courseId, teacherId);
             }
+        } catch (Exception e) {
+            throw new Exception("Error removing teacher from course: " + e.getMessage(), e);
+        }
+    }
 
-            Course course = courseOpt.get();
-            Teacher teacher = teacherOpt.get();
+    @Override
+    public int removeTeachersFromCourse(Long courseId, Collection<Long> teacherIds) throws Exception {
+        try {
+            validateIds(courseId, teacherIds);
+            return unassign(List.of(courseId), teacherIds);
+        } catch (Exception e) {
+            throw new Exception("Error removing teachers from course: " + e.getMessage(), e);
+        }
+    }
 
-            // Use the bidirectional relationship management
-            course.removeTeacher(teacher);
-            courseDAO.update(course);
+    @Override
+    public int removeTeacherFromCourses(Long teacherId, Collection<Long> courseIds) throws Exception {
+        try {
+            validateIds(teacherId, courseIds);
+            return unassign(courseIds, List.of(teacherId));
         } catch (Exception e) {
-            throw new Exception("Error removing teacher from course: " + e.getMessage(), e);
+            throw new Exception("Error removing teacher from courses: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void addChangeListener(CourseChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(CourseChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies the listeners of a course changed by a patch; the course is read again after the commit, and only
+     * if someone is listening.
+     *
+     * @param id the ID of the patched course
+     * @param version the new version of the course
+     * @return the given version
+     */
+    private long notifySaved(Long id, long version) {
+        if (listeners.isEmpty()) {
+            return version;
+        }
+        UnitOfWork.afterCommit(() -> courseDAO.getById(id)
+                .ifPresent(saved -> listeners.notify(listener -> listener.courseSaved(saved))));
+        return version;
+    }
+
+    /**
+     * Inserts the assignments and notifies the listeners if any was new.
+     *
+     * @return the number of assignments inserted
+     */
+    private int assign(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        int added = courseDAO.addTeachers(courseIds, teacherIds);
+        if (added > 0) {
+            List<Long> courses = List.copyOf(courseIds);
+            List<Long> teachers = List.copyOf(teacherIds);
+            listeners.notify(listener -> listener.teachersAssigned(courses, teachers));
+        }
+        return added;
+    }
+
+    /**
+     * Deletes the assignments and notifies the listeners if any existed.
+     *
+     * @return the number of assignments deleted
+     */
+    private int unassign(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        int removed = courseDAO.removeTeachers(courseIds, teacherIds);
+        if (removed > 0) {
+            List<Long> courses = List.copyOf(courseIds);
+            List<Long> teachers = List.copyOf(teacherIds);
+            listeners.notify(listener -> listener.teachersUnassigned(courses, teachers));
+        }
+        return removed;
+    }
+
+    /**
+     * Reports which side of an assignment is missing.
+     *
+     * @throws IllegalArgumentException if the course or the teacher does not exist
+     */
+    private void requireCourseAndTeacher(Long courseId, Long teacherId) {
+        if (courseDAO.getById(courseId).isEmpty()) {
+            throw new IllegalArgumentException("Course with ID " + courseId + " not found");
+        }
+        if (teacherDAO.getById(teacherId).isEmpty()) {
+            throw new IllegalArgumentException("Teacher with ID " + teacherId + " not found");
         }
     }
 
     /**
-     * Validates course data before persistence.
+     * Validates the IDs of a bulk assignment.
      *
-     * @param course the course to validate
-     * @throws IllegalArgumentException if validation fails
+     * @throws IllegalArgumentException if the ID, the collection or any of its elements is null
      */
-    private void validateCourse(Course course) {
-        if (course == null) {
-            throw new IllegalArgumentException("Course cannot be null");
+    private void validateIds(Long id, Collection<Long> ids) {
+        if (id == null || ids == null) {
+            throw new IllegalArgumentException("IDs cannot be null");
         }
-        if (course.getTitle() == null || course.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("Course title cannot be null or empty");
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("IDs cannot contain null");
         }
     }
 }
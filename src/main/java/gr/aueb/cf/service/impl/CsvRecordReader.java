@@ -0,0 +1,113 @@
+package gr.aueb.cf.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits RFC 4180 CSV into records and fields.
+ * Finding where a record ends only needs to track quotes, which is cheap and must happen in order;
+ * splitting a record into fields is left to {@link #parseFields(String)} so that callers can do it in parallel.
+ */
+final class CsvRecordReader {
+    private final BufferedReader reader;
+    private long lineNumber;
+    private long recordLine;
+    private boolean quoteOpen;
+
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next non-blank record, joining the lines of quoted fields that span several lines.
+     *
+     * @return the raw record without its line terminator, or {@code null} at the end of the input
+     * @throws IOException if reading fails or the input ends inside a quoted field
+     */
+    String readRecord() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        recordLine = lineNumber;
+
+        if (isQuoteBalanced(line, true)) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        boolean balanced = false;
+        while (!balanced) {
+            line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Unterminated quoted field in record starting at line " + recordLine);
+            }
+            lineNumber++;
+            record.append('\n').append(line);
+            balanced = isQuoteBalanced(line, false);
+        }
+        return record.toString();
+    }
+
+    /**
+     * @return the line on which the last record returned by {@link #readRecord()} starts
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Splits a record into its fields, unquoting quoted ones.
+     *
+     * @param record the raw record
+     * @return the fields, empty strings for empty fields
+     */
+    static List<String> parseFields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Doubled quotes inside a quoted field toggle the state twice, so the parity of all quotes seen since the
+     * start of the record tells whether a field is still open at the end of the line.
+     */
+    private boolean isQuoteBalanced(String line, boolean startOfRecord) {
+        if (startOfRecord) {
+            quoteOpen = false;
+        }
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quoteOpen = !quoteOpen;
+            }
+        }
+        return !quoteOpen;
+    }
+}
@@ -0,0 +1,42 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.UnitOfWork;
+import jakarta.persistence.OptimisticLockException;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-modify-write loop of the services' version-checked updates. Each attempt reads the entity again and
+ * writes a change derived from that state; when a concurrent writer got there first, the attempt fails with an
+ * {@link OptimisticLockException} and the loop starts over, up to {@link JPAUtil#getUpdateAttempts()} times.
+ * Inside a {@link UnitOfWork} a conflict has already doomed the unit's transaction, so it is not retried.
+ */
+final class OptimisticRetry {
+    private static final System.Logger LOGGER = System.getLogger(OptimisticRetry.class.getName());
+
+    private OptimisticRetry() {
+    }
+
+    /**
+     * @param read reads the current state of the entity
+     * @param write writes the change derived from that state and returns the new version
+     * @return the new version of the entity
+     * @throws OptimisticLockException if the last attempt also lost to a concurrent writer
+     */
+    static <T> long update(Supplier<T> read, ToLongFunction<T> write) {
+        int attempts = UnitOfWork.isActive() ? 1 : JPAUtil.getUpdateAttempts();
+        for (int attempt = 1; ; attempt++) {
+            T current = read.get();
+            try {
+                return write.applyAsLong(current);
+            } catch (OptimisticLockException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                LOGGER.log(System.Logger.Level.DEBUG, () -> "Retrying after a version conflict: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.RegionFetchPlan;
+import gr.aueb.cf.dao.RegionPatch;
+import gr.aueb.cf.dto.RegionSummary;
+import gr.aueb.cf.model.Region;
+import gr.aueb.cf.service.IRegionAsyncService;
+import gr.aueb.cf.service.IRegionService;
+import gr.aueb.cf.service.RegionChangeListener;
+import gr.aueb.cf.util.DatabaseExecutor;
+import gr.aueb.cf.util.Metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Implementation of IRegionAsyncService that runs the blocking IRegionService on a DatabaseExecutor.
+ */
+public class RegionAsyncServiceImpl implements IRegionAsyncService {
+    private final IRegionService regionService;
+    private final DatabaseExecutor executor;
+
+    public RegionAsyncServiceImpl() {
+        this(Metrics.instrument(IRegionService.class, new RegionServiceImpl()), DatabaseExecutor.shared());
+    }
+
+    public RegionAsyncServiceImpl(IRegionService regionService, DatabaseExecutor executor) {
+        this.regionService = regionService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Region> createRegion(Region region) {
+        return executor.submit(() -> regionService.createRegion(region));
+    }
+
+    @Override
+    public CompletableFuture<Region> createOrGetRegion(Region region) {
+        return executor.submit(() -> regionService.createOrGetRegion(region));
+    }
+
+    @Override
+    public CompletableFuture<List<Region>> createOrGetRegions(Collection<Region> regions) {
+        return executor.submit(() -> regionService.createOrGetRegions(regions));
+    }
+
+    @Override
+    public CompletableFuture<Region> updateRegion(Region region) {
+        return executor.submit(() -> regionService.updateRegion(region));
+    }
+
+    @Override
+    public CompletableFuture<Long> patchRegion(Long id, long version, RegionPatch patch) {
+        return executor.submit(() -> regionService.patchRegion(id, version, patch));
+    }
+
+    @Override
+    public CompletableFuture<Long> updateRegion(Long id, Function<Region, RegionPatch> change) {
+        return executor.submit(() -> regionService.updateRegion(id, change));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteRegion(Long id) {
+        return executor.submit(() -> {
+            regionService.deleteRegion(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Region>> getRegionById(Long id) {
+        return executor.submit(() -> regionService.getRegionById(id));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Region>> getRegionById(Long id, RegionFetchPlan plan) {
+        return executor.submit(() -> regionService.getRegionById(id, plan));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Region>> getRegionByTitle(String title) {
+        return executor.submit(() -> regionService.getRegionByTitle(title));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> regionExistsByTitle(String title) {
+        return executor.submit(() -> regionService.regionExistsByTitle(title));
+    }
+
+    @Override
+    public CompletableFuture<Page<RegionSummary>> getRegionSummariesPage(String pageToken, int pageSize) {
+        return executor.submit(() -> regionService.getRegionSummariesPage(pageToken, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Void> addTeacherToRegion(Long regionId, Long teacherId) {
+        return executor.submit(() -> {
+            regionService.addTeacherToRegion(regionId, teacherId);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> moveTeachersToRegion(Collection<Long> teacherIds, Long regionId) {
+        return executor.submit(() -> regionService.moveTeachersToRegion(teacherIds, regionId));
+    }
+
+    @Override
+    public CompletableFuture<Integer> mergeRegions(Long sourceRegionId, Long targetRegionId) {
+        return executor.submit(() -> regionService.mergeRegions(sourceRegionId, targetRegionId));
+    }
+
+    @Override
+    public void addChangeListener(RegionChangeListener listener) {
+        regionService.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(RegionChangeListener listener) {
+        regionService.removeChangeListener(listener);
+    }
+}
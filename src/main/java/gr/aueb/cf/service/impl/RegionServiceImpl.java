@@ -1,15 +1,33 @@
 package gr.aueb.cf.service.impl;
 
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.ConstraintViolations;
 import gr.aueb.cf.dao.IRegionDAO;
 import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.RegionFetchPlan;
+import gr.aueb.cf.dao.RegionPatch;
 import gr.aueb.cf.dao.impl.RegionDAOImpl;
 import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.RegionSummary;
 import gr.aueb.cf.model.Region;
-import gr.aueb.cf.model.Teacher;
 import gr.aueb.cf.service.IRegionService;
+import gr.aueb.cf.service.RegionChangeListener;
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.Metrics;
+import gr.aueb.cf.util.UnitOfWork;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Implementation of IRegionService.
@@ -18,10 +36,11 @@ import java.util.Optional;
 public class RegionServiceImpl implements IRegionService {
     private final IRegionDAO regionDAO;
     private final ITeacherDAO teacherDAO;
+    private final ChangeListeners<RegionChangeListener> listeners = new ChangeListeners<>();
 
     public RegionServiceImpl() {
-        this.regionDAO = new RegionDAOImpl();
-        this.teacherDAO = new TeacherDAOImpl();
+        this.regionDAO = Metrics.instrument(IRegionDAO.class, new RegionDAOImpl());
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
     }
 
     public RegionServiceImpl(IRegionDAO regionDAO, ITeacherDAO teacherDAO) {
@@ -32,22 +51,112 @@ public class RegionServiceImpl implements IRegionService {
     @Override
     public Region createRegion(Region region) throws Exception {
         try {
-            validateRegion(region);
-            // Check if region with same title already exists
-            Optional<Region> existingRegion = regionDAO.getByTitle(region.getTitle());
-            if (existingRegion.isPresent()) {
+            Validation.validateRegion(region);
+            // The unique title constraint decides, so this is one INSERT rather than a lookup plus an insert
+            if (!regionDAO.insertIfAbsent(region)) {
                 throw new IllegalArgumentException("Region with title '" + region.getTitle() + "' already exists");
             }
-            return regionDAO.insert(region);
+            return region;
         } catch (Exception e) {
             throw new Exception("Error creating region: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public Region createOrGetRegion(Region region) throws Exception {
+        try {
+            Validation.validateRegion(region);
+            if (regionDAO.insertIfAbsent(region)) {
+                return region;
+            }
+            return regionDAO.getByTitle(region.getTitle())
+                    .orElseThrow(() -> new IllegalStateException("Region with title '" + region.getTitle()
+                            + "' was deleted concurrently"));
+        } catch (Exception e) {
+            throw new Exception("Error creating or getting region: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Region> createOrGetRegions(Collection<Region> regions) throws Exception {
+        try {
+            if (regions == null) {
+                throw new IllegalArgumentException("Regions cannot be null");
+            }
+            regions.forEach(Validation::validateRegion);
+            // The first region given for a title is the one inserted
+            Map<String, Region> candidates = new LinkedHashMap<>();
+            regions.forEach(region -> candidates.putIfAbsent(region.getTitle(), region));
+
+            Map<String, Region> resolved = new HashMap<>();
+            regionDAO.getByTitles(candidates.keySet()).forEach(existing -> resolved.put(existing.getTitle(), existing));
+            List<Region> missing = candidates.values().stream()
+                    .filter(region -> !resolved.containsKey(region.getTitle()))
+                    .toList();
+            try {
+                regionDAO.insertAll(missing).forEach(inserted -> resolved.put(inserted.getTitle(), inserted));
+            } catch (RuntimeException e) {
+                // Another writer took some of the titles meanwhile: pick up those, settle the rest one by one.
+                // Any other failure is real, and a unit of work is rollback-only by now, so neither is retried
+                if (UnitOfWork.isActive() || !ConstraintViolations.isConstraintViolation(e)) {
+                    throw e;
+                }
+                regionDAO.getByTitles(missing.stream().map(Region::getTitle).toList())
+                        .forEach(existing -> resolved.put(existing.getTitle(), existing));
+                for (Region region : missing) {
+                    if (!resolved.containsKey(region.getTitle())) {
+                        region.setId(null);
+                        resolved.put(region.getTitle(), createOrGetRegion(region));
+                    }
+                }
+            }
+            return regions.stream().map(region -> resolved.get(region.getTitle())).toList();
+        } catch (Exception e) {
+            throw new Exception("Error creating or getting regions: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean regionExistsByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return false;
+        }
+        return regionDAO.existsByTitle(title);
+    }
+
+    @Override
+    public List<Region> createRegions(Collection<Region> regions) throws Exception {
+        return createRegions(regions, BatchProgressListener.NONE);
+    }
+
+    @Override
+    public List<Region> createRegions(Collection<Region> regions, BatchProgressListener listener) throws Exception {
+        try {
+            if (regions == null) {
+                throw new IllegalArgumentException("Regions cannot be null");
+            }
+            regions.forEach(Validation::validateRegion);
+            // Check titles are unique within the batch and not already taken, with one query per chunk
+            Set<String> titles = new HashSet<>();
+            for (Region region : regions) {
+                if (!titles.add(region.getTitle())) {
+                    throw new IllegalArgumentException("Region title '" + region.getTitle() + "' appears more than once");
+                }
+            }
+            Set<String> existingTitles = regionDAO.findExistingTitles(titles);
+            if (!existingTitles.isEmpty()) {
+                throw new IllegalArgumentException("Regions with titles " + existingTitles + " already exist");
+            }
+            return regionDAO.insertAll(regions, JPAUtil.getBulkChunkSize(), listener);
+        } catch (Exception e) {
+            throw new Exception("Error creating regions: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Region updateRegion(Region region) throws Exception {
         try {
-            validateRegion(region);
+            Validation.validateRegion(region);
             if (region.getId() == null) {
                 throw new IllegalArgumentException("Region ID cannot be null for update");
             }
@@ -57,6 +166,42 @@ public class RegionServiceImpl implements IRegionService {
         }
     }
 
+    @Override
+    public long patchRegion(Long id, long version, RegionPatch patch) throws Exception {
+        try {
+            if (id == null) {
+                throw new IllegalArgumentException("Region ID cannot be null for update");
+            }
+            Validation.validateRegionPatch(patch);
+            if (patch.isEmpty()) {
+                return version;
+            }
+            return regionDAO.patch(id, version, patch);
+        } catch (Exception e) {
+            throw new Exception("Error updating region: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long updateRegion(Long id, Function<Region, RegionPatch> change) throws Exception {
+        try {
+            if (id == null || change == null) {
+                throw new IllegalArgumentException("Region ID and change cannot be null for update");
+            }
+            return OptimisticRetry.update(
+                    () -> regionDAO.getById(id).orElseThrow(
+                            () -> new IllegalArgumentException("Region with ID " + id + " does not exist")),
+                    current -> {
+                        RegionPatch patch = change.apply(current);
+                        Validation.validateRegionPatch(patch);
+                        return patch.isEmpty() ? current.getVersion()
+                                : regionDAO.patch(id, current.getVersion(), patch);
+                    });
+        } catch (Exception e) {
+            throw new Exception("Error updating region: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public void deleteRegion(Long id) throws Exception {
         try {
@@ -64,6 +209,7 @@ public class RegionServiceImpl implements IRegionService {
                 throw new IllegalArgumentException("Region ID cannot be null");
             }
             regionDAO.delete(id);
+            listeners.notify(listener -> listener.regionsDeleted(List.of(id)));
         } catch (Exception e) {
             throw new Exception("Error deleting region: " + e.getMessage(), e);
         }
@@ -82,6 +228,16 @@ public class RegionServiceImpl implements IRegionService {
         return regionDAO.getAll();
     }
 
+    @Override
+    public Page<Region> getAllRegionsPage(String pageToken, int pageSize) {
+        return regionDAO.getAllPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Stream<Region> streamAllRegions(int fetchSize) {
+        return regionDAO.streamAll(fetchSize);
+    }
+
     @Override
     public Optional<Region> getRegionByTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
@@ -90,29 +246,50 @@ public class RegionServiceImpl implements IRegionService {
         return regionDAO.getByTitle(title);
     }
 
+    @Override
+    public Optional<Region> getRegionById(Long id, RegionFetchPlan plan) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return regionDAO.getById(id, plan);
+    }
+
+    @Override
+    public List<Region> getAllRegions(RegionFetchPlan plan) {
+        return regionDAO.getAll(plan);
+    }
+
+    @Override
+    public Optional<Region> getRegionByTitle(String title, RegionFetchPlan plan) {
+        if (title == null || title.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return regionDAO.getByTitle(title, plan);
+    }
+
+    @Override
+    public List<RegionSummary> getAllRegionSummaries() {
+        return regionDAO.getAllSummaries();
+    }
+
+    @Override
+    public Page<RegionSummary> getRegionSummariesPage(String pageToken, int pageSize) {
+        return regionDAO.getSummariesPage(pageToken, pageSize);
+    }
+
     @Override
     public void addTeacherToRegion(Long regionId, Long teacherId) throws Exception {
         try {
             if (regionId == null || teacherId == null) {
                 throw new IllegalArgumentException("Region ID and Teacher ID cannot be null");
             }
-
-            Optional<Region> regionOpt = regionDAO.getById(regionId);
-            if (regionOpt.isEmpty()) {
-                throw new IllegalArgumentException("Region with ID " + regionId + " not found");
-            }
-
-            Optional<Teacher> teacherOpt = teacherDAO.getById(teacherId);
-            if (teacherOpt.isEmpty()) {
-                throw new IllegalArgumentException("Teacher with ID " + teacherId + " not found");
-            }
-
-            Region region = regionOpt.get();
-            Teacher teacher = teacherOpt.get();
-
-            // Use the bidirectional relationship management
-            region.addTeacher(teacher);
-            regionDAO.update(region);
+            UnitOfWork.run(() -> {
+                requireRegion(regionId);
+                if (regionDAO.moveTeachers(List.of(teacherId), regionId) == 0) {
+                    throw new IllegalArgumentException("Teacher with ID " + teacherId + " not found");
+                }
+            });
+            listeners.notify(listener -> listener.teachersMoved(List.of(teacherId), regionId));
         } catch (Exception e) {
             throw new Exception("Error adding teacher to region: " + e.getMessage(), e);
         }
@@ -124,40 +301,128 @@ public class RegionServiceImpl implements IRegionService {
             if (regionId == null || teacherId == null) {
                 throw new IllegalArgumentException("Region ID and Teacher ID cannot be null");
             }
+            if (regionDAO.detachTeachers(regionId, List.of(teacherId)) == 0) {
+                // Nothing updated: either not in this region, or one of the two does not exist
+                requireRegion(regionId);
+                if (teacherDAO.getById(teacherId).isEmpty()) {
+                    throw new IllegalArgumentException("Teacher with ID " + teacherId + " not found");
+                }
+            } else {
+                listeners.notify(listener -> listener.teachersMoved(List.of(teacherId), null));
+            }
+        } catch (Exception e) {
+            throw new Exception("Error removing teacher from region: " + e.getMessage(), e);
+        }
+    }
 
-            Optional<Region> regionOpt = regionDAO.getById(regionId);
-            if (regionOpt.isEmpty()) {
-                throw new IllegalArgumentException("Region with ID " + regionId + " not found");
+    @Override
+    public int moveTeachersToRegion(Collection<Long> teacherIds, Long regionId) throws Exception {
+        try {
+            if (teacherIds == null || regionId == null) {
+                throw new IllegalArgumentException("Teacher IDs and Region ID cannot be null");
+            }
+            if (teacherIds.stream().anyMatch(Objects::isNull)) {
+                throw new IllegalArgumentException("Teacher IDs cannot contain null");
             }
+            int moved = UnitOfWork.execute(() -> {
+                requireRegion(regionId);
+                return regionDAO.moveTeachers(teacherIds, regionId);
+            });
+            if (moved > 0) {
+                List<Long> movedIds = List.copyOf(teacherIds);
+                listeners.notify(listener -> listener.teachersMoved(movedIds, regionId));
+            }
+            return moved;
+        } catch (Exception e) {
+            throw new Exception("Error moving teachers to region: " + e.getMessage(), e);
+        }
+    }
 
-            Optional<Teacher> teacherOpt = teacherDAO.getById(teacherId);
-            if (teacherOpt.isEmpty()) {
-                throw new IllegalArgumentException("Teacher with ID " + teacherId + " not found");
+    @Override
+    public int moveAllTeachers(Long fromRegionId, Long toRegionId) throws Exception {
+        try {
+            if (fromRegionId == null || toRegionId == null) {
+                throw new IllegalArgumentException("Region IDs cannot be null");
+            }
+            if (fromRegionId.equals(toRegionId)) {
+                return 0;
+            }
+            int moved = UnitOfWork.execute(() -> {
+                requireRegion(fromRegionId);
+                requireRegion(toRegionId);
+                return regionDAO.moveAllTeachers(fromRegionId, toRegionId);
+            });
+            if (moved > 0) {
+                listeners.notify(listener -> listener.allTeachersMoved(fromRegionId, toRegionId));
             }
+            return moved;
+        } catch (Exception e) {
+            throw new Exception("Error moving teachers between regions: " + e.getMessage(), e);
+        }
+    }
 
-            Region region = regionOpt.get();
-            Teacher teacher = teacherOpt.get();
+    @Override
+    public int mergeRegions(Long sourceRegionId, Long targetRegionId) throws Exception {
+        try {
+            if (sourceRegionId == null || targetRegionId == null) {
+                throw new IllegalArgumentException("Region IDs cannot be null");
+            }
+            if (sourceRegionId.equals(targetRegionId)) {
+                throw new IllegalArgumentException("Cannot merge region " + sourceRegionId + " into itself");
+            }
+            int moved = UnitOfWork.execute(() -> {
+                requireRegion(sourceRegionId);
+                requireRegion(targetRegionId);
+                return regionDAO.mergeInto(sourceRegionId, targetRegionId);
+            });
+            listeners.notify(listener -> {
+                listener.allTeachersMoved(sourceRegionId, targetRegionId);
+                listener.regionsDeleted(List.of(sourceRegionId));
+            });
+            return moved;
+        } catch (Exception e) {
+            throw new Exception("Error merging regions: " + e.getMessage(), e);
+        }
+    }
 
-            // Use the bidirectional relationship management
-            region.removeTeacher(teacher);
-            regionDAO.update(region);
+    @Override
+    public int deleteRegionDetachingTeachers(Long regionId) throws Exception {
+        try {
+            if (regionId == null) {
+                throw new IllegalArgumentException("Region ID cannot be null");
+            }
+            int detached = UnitOfWork.execute(() -> {
+                requireRegion(regionId);
+                return regionDAO.deleteDetachingTeachers(regionId);
+            });
+            listeners.notify(listener -> {
+                listener.allTeachersMoved(regionId, null);
+                listener.regionsDeleted(List.of(regionId));
+            });
+            return detached;
         } catch (Exception e) {
-            throw new Exception("Error removing teacher from region: " + e.getMessage(), e);
+            throw new Exception("Error deleting region: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public void addChangeListener(RegionChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(RegionChangeListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
-     * Validates region data before persistence.
+     * Checks that a region exists; usually answered from the second-level cache.
      *
-     * @param region the region to validate
-     * @throws IllegalArgumentException if validation fails
+     * @throws IllegalArgumentException if the region does not exist
      */
-    private void validateRegion(Region region) {
-        if (region == null) {
-            throw new IllegalArgumentException("Region cannot be null");
-        }
-        if (region.getTitle() == null || region.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("Region title cannot be null or empty");
+    private void requireRegion(Long regionId) {
+        if (regionDAO.getById(regionId).isEmpty()) {
+            throw new IllegalArgumentException("Region with ID " + regionId + " not found");
         }
     }
 }
@@ -0,0 +1,92 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.ICourseDAO;
+import gr.aueb.cf.dao.IRegionDAO;
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.CourseDAOImpl;
+import gr.aueb.cf.dao.impl.RegionDAOImpl;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.AgeBucketCount;
+import gr.aueb.cf.dto.CourseTeacherCount;
+import gr.aueb.cf.dto.GenderCount;
+import gr.aueb.cf.dto.LessonTypeCount;
+import gr.aueb.cf.dto.RegionTeacherCount;
+import gr.aueb.cf.enums.LessonType;
+import gr.aueb.cf.service.IReportingService;
+import gr.aueb.cf.util.Metrics;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of IReportingService on the aggregation queries of the DAOs.
+ */
+public class ReportingServiceImpl implements IReportingService {
+    private static final int[] DEFAULT_AGE_BOUNDS = {25, 35, 45, 55, 65};
+
+    private final ITeacherDAO teacherDAO;
+    private final ICourseDAO courseDAO;
+    private final IRegionDAO regionDAO;
+    private final Clock clock;
+
+    public ReportingServiceImpl() {
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
+        this.courseDAO = Metrics.instrument(ICourseDAO.class, new CourseDAOImpl());
+        this.regionDAO = Metrics.instrument(IRegionDAO.class, new RegionDAOImpl());
+        this.clock = Clock.systemDefaultZone();
+    }
+
+    public ReportingServiceImpl(ITeacherDAO teacherDAO, ICourseDAO courseDAO, IRegionDAO regionDAO, Clock clock) {
+        this.teacherDAO = teacherDAO;
+        this.courseDAO = courseDAO;
+        this.regionDAO = regionDAO;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<RegionTeacherCount> getTeachersPerRegion() {
+        return regionDAO.getTeacherCounts();
+    }
+
+    @Override
+    public List<LessonTypeCount> getCoursesPerLessonType() {
+        return courseDAO.countByLessonType().entrySet().stream()
+                .map(count -> new LessonTypeCount(count.getKey(), count.getValue()))
+                .sorted(Comparator.comparing(LessonTypeCount::lessonType,
+                        Comparator.nullsLast(Comparator.<LessonType>naturalOrder())))
+                .toList();
+    }
+
+    @Override
+    public List<AgeBucketCount> getAgeDistribution() {
+        return getAgeDistribution(DEFAULT_AGE_BOUNDS);
+    }
+
+    @Override
+    public List<AgeBucketCount> getAgeDistribution(int[] ageBounds) {
+        if (ageBounds == null) {
+            throw new IllegalArgumentException("Age bounds cannot be null");
+        }
+        for (int i = 0; i < ageBounds.length; i++) {
+            if (ageBounds[i] <= (i == 0 ? 0 : ageBounds[i - 1])) {
+                throw new IllegalArgumentException("Age bounds must be positive and strictly ascending");
+            }
+        }
+        return teacherDAO.countByAge(LocalDate.now(clock), ageBounds.clone());
+    }
+
+    @Override
+    public List<GenderCount> getGenderSplit() {
+        return teacherDAO.countByGender();
+    }
+
+    @Override
+    public List<CourseTeacherCount> getTopCoursesByTeacherCount(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return courseDAO.getTopByTeacherCount(limit);
+    }
+}
@@ -0,0 +1,525 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dto.CourseSummary;
+import gr.aueb.cf.dto.TeacherMembershipRow;
+import gr.aueb.cf.enums.LessonType;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory counts of active teachers per region, teachers per course, and courses and teacher assignments per
+ * lesson type.
+ * <p>
+ * Counters are {@link LongAdder}s in concurrent maps keyed by region or course, so changes to different keys
+ * never contend and a read is a lookup plus a sum. Next to them are the facts the counts derive from: every
+ * teacher's version, region, active flag and courses, and every course's lesson type. A change carrying only
+ * new values is turned into exact deltas against them, so repeating a change does nothing. Activations and
+ * region moves raise the version as their bulk updates do, so a save notified late, with an older version, is
+ * ignored; so is any save of a deleted teacher, since teacher IDs are never reused. A teacher's facts
+ * and counters change together inside {@link ConcurrentHashMap#compute}, which serializes changes to one
+ * teacher. Changes that may touch every teacher (deleting a course, moving all teachers of a region, saving a
+ * course) and deletions of teachers hold the write lock of {@code lock}; the others hold its read lock, only to
+ * keep out of their way.
+ * <p>
+ * Readers never lock, and a reader summing several counters may see a concurrent change half applied.
+ */
+final class SchoolAggregates {
+    private static final long NO_REGION = Long.MIN_VALUE;
+    private static final long[] NO_COURSES = {};
+    // One slot per lesson type, plus a last one for courses without a type
+    private static final int NO_TYPE = LessonType.values().length;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile State state = new State();
+    // Changes made while load() builds a new state, replayed onto it; set and cleared under the write lock
+    private volatile Queue<Consumer<State>> replay;
+    // IDs of deleted teachers, kept across loads so that a late save cannot bring one back; added to under the
+    // write lock of lock and read under its read lock
+    private final Roaring64NavigableMap deletedTeachers = new Roaring64NavigableMap();
+
+    /**
+     * Replaces the counts with ones computed from the given courses and teachers. The current counts stay
+     * readable, and changes made meanwhile are carried over. The suppliers are called in order, after changes
+     * start being recorded.
+     *
+     * @param courses     all courses
+     * @param memberships the membership rows of all teachers, ordered by teacher ID; closed when read
+     */
+    void load(Supplier<List<CourseSummary>> courses, Supplier<Stream<TeacherMembershipRow>> memberships) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                throw new IllegalStateException("The statistics are already loading");
+            }
+            replay = new ConcurrentLinkedQueue<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            State loaded = new State();
+            courses.get().forEach(course -> loaded.addCourse(course.id(), slot(course.lessonType())));
+            try (Stream<TeacherMembershipRow> rows = memberships.get()) {
+                loaded.addTeachers(rows.iterator());
+            }
+            lock.writeLock().lock();
+            try {
+                loaded.replaying = true;
+                replay.forEach(change -> change.accept(loaded));
+                loaded.replaying = false;
+                state = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a teacher or replaces its region and active flag, unless a newer version is already known or the
+     * teacher was deleted.
+     */
+    void saveTeacher(long id, long version, Long regionId, boolean active) {
+        long region = region(regionId);
+        change(lock.readLock(), state -> state.teachers.compute(id, (key, facts) -> {
+            if (deletedTeachers.contains(id)) {
+                return facts;
+            }
+            if (facts == null) {
+                return state.count(new TeacherFacts(version, region, active, NO_COURSES), 1);
+            }
+            return facts.version > version ? facts : state.replace(facts, facts.with(version, region, active));
+        }));
+    }
+
+    /**
+     * Removes teachers with their assignments; unknown IDs are skipped, but later saves of them still ignored.
+     */
+    void deleteTeachers(long[] ids) {
+        change(lock.writeLock(), state -> {
+            for (long id : ids) {
+                deletedTeachers.addLong(id);
+                state.teachers.computeIfPresent(id, (key, facts) -> {
+                    state.count(facts, -1);
+                    return null;
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets the active flag of teachers, raising the version of those whose flag changes; unknown IDs are
+     * skipped.
+     */
+    void setActive(long[] ids, boolean active) {
+        change(lock.readLock(), state -> {
+            for (long id : ids) {
+                state.teachers.computeIfPresent(id, (key, facts) -> facts.active == active ? facts
+                        : state.replace(facts, facts.with(facts.version + 1, facts.regionId, active)));
+            }
+        });
+    }
+
+    /**
+     * Moves teachers to a region, or out of theirs, raising their versions; unknown IDs are skipped.
+     */
+    void moveTeachers(long[] ids, Long regionId) {
+        long region = region(regionId);
+        change(lock.readLock(), state -> {
+            for (long id : ids) {
+                state.teachers.computeIfPresent(id, (key, facts) -> state.replaying && facts.regionId == region
+                        ? facts
+                        : state.replace(facts, facts.with(facts.version + 1, region, facts.active)));
+            }
+        });
+    }
+
+    /**
+     * Moves every teacher of a region to another region, or out of any, raising their versions.
+     */
+    void moveAllTeachers(long fromRegionId, Long toRegionId) {
+        long region = region(toRegionId);
+        change(lock.writeLock(), state -> state.teachers.replaceAll((id, facts) -> facts.regionId == fromRegionId
+                ? state.replace(facts, facts.with(facts.version + 1, region, facts.active))
+                : facts));
+    }
+
+    /**
+     * Drops the counters of deleted regions, which had no teachers left.
+     */
+    void deleteRegions(long[] ids) {
+        change(lock.readLock(), state -> {
+            for (long id : ids) {
+                state.activeByRegion.computeIfPresent(id, (key, active) -> active.sum() == 0 ? null : active);
+            }
+        });
+    }
+
+    /**
+     * Adds a course or changes its lesson type, and optionally sets its teachers.
+     *
+     * @param teacherIds the IDs of all teachers of the course, or {@code null} if they are unknown; unknown
+     *                   teacher IDs are skipped
+     */
+    void saveCourse(long id, LessonType lessonType, long[] teacherIds) {
+        int slot = slot(lessonType);
+        change(lock.writeLock(), state -> {
+            Integer previous = state.courseSlots.put(id, slot);
+            if (previous == null) {
+                state.coursesByType[slot].increment();
+            } else if (previous != slot) {
+                long assignments = sum(state.teachersByCourse.get(id));
+                state.coursesByType[previous].decrement();
+                state.coursesByType[slot].increment();
+                state.assignmentsByType[previous].add(-assignments);
+                state.assignmentsByType[slot].add(assignments);
+            }
+            if (teacherIds == null) {
+                return;
+            }
+            if (previous != null) {
+                Set<Long> kept = new HashSet<>();
+                for (long teacherId : teacherIds) {
+                    kept.add(teacherId);
+                }
+                List<Long> removed = new ArrayList<>();
+                state.teachers.forEach((teacherId, facts) -> {
+                    if (facts.hasCourse(id) && !kept.contains(teacherId)) {
+                        removed.add(teacherId);
+                    }
+                });
+                removed.forEach(teacherId -> state.unassign(id, teacherId));
+            }
+            for (long teacherId : teacherIds) {
+                state.assign(id, teacherId);
+            }
+        });
+    }
+
+    /**
+     * Removes courses with their assignments; unknown IDs are skipped.
+     */
+    void deleteCourses(long[] ids) {
+        change(lock.writeLock(), state -> {
+            Set<Long> deleted = new HashSet<>();
+            for (long id : ids) {
+                Integer slot = state.courseSlots.remove(id);
+                if (slot != null) {
+                    deleted.add(id);
+                    state.coursesByType[slot].decrement();
+                    state.assignmentsByType[slot].add(-sum(state.teachersByCourse.remove(id)));
+                }
+            }
+            if (!deleted.isEmpty()) {
+                state.teachers.replaceAll((teacherId, facts) -> facts.withoutCourses(deleted));
+            }
+        });
+    }
+
+    /**
+     * Assigns every teacher to every course; unknown IDs and existing assignments are skipped.
+     */
+    void assign(long[] courseIds, long[] teacherIds) {
+        change(lock.readLock(), state -> {
+            for (long courseId : courseIds) {
+                for (long teacherId : teacherIds) {
+                    state.assign(courseId, teacherId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes every teacher from every course; unknown IDs and missing assignments are skipped.
+     */
+    void unassign(long[] courseIds, long[] teacherIds) {
+        change(lock.readLock(), state -> {
+            for (long courseId : courseIds) {
+                for (long teacherId : teacherIds) {
+                    state.unassign(courseId, teacherId);
+                }
+            }
+        });
+    }
+
+    long activeTeachers(Long regionId) {
+        return sum(state.activeByRegion.get(region(regionId)));
+    }
+
+    /**
+     * @return the non-zero active teacher counts by region ID, with the {@code null} key for no region
+     */
+    Map<Long, Long> activeTeachersByRegion() {
+        Map<Long, Long> counts = new HashMap<>();
+        state.activeByRegion.forEach((region, active) -> {
+            long count = active.sum();
+            if (count != 0) {
+                counts.put(region == NO_REGION ? null : region, count);
+            }
+        });
+        return counts;
+    }
+
+    long courseTeachers(long courseId) {
+        return sum(state.teachersByCourse.get(courseId));
+    }
+
+    /**
+     * @return the non-zero teacher counts by course ID
+     */
+    Map<Long, Long> teachersByCourse() {
+        Map<Long, Long> counts = new HashMap<>();
+        state.teachersByCourse.forEach((course, teachers) -> {
+            long count = teachers.sum();
+            if (count != 0) {
+                counts.put(course, count);
+            }
+        });
+        return counts;
+    }
+
+    long courses(LessonType lessonType) {
+        return state.coursesByType[slot(lessonType)].sum();
+    }
+
+    long assignments(LessonType lessonType) {
+        return state.assignmentsByType[slot(lessonType)].sum();
+    }
+
+    /**
+     * @return the non-zero course counts by lesson type, with the {@code null} key for no type
+     */
+    Map<LessonType, Long> coursesByLessonType() {
+        return byLessonType(state.coursesByType);
+    }
+
+    /**
+     * @return the non-zero assignment counts by lesson type, with the {@code null} key for no type
+     */
+    Map<LessonType, Long> assignmentsByLessonType() {
+        return byLessonType(state.assignmentsByType);
+    }
+
+    /**
+     * Applies a change to the current state, and records it for the new state if a load is running.
+     */
+    private void change(Lock held, Consumer<State> change) {
+        held.lock();
+        try {
+            change.accept(state);
+            Queue<Consumer<State>> pending = replay;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            held.unlock();
+        }
+    }
+
+    private static Map<LessonType, Long> byLessonType(LongAdder[] counters) {
+        Map<LessonType, Long> counts = new HashMap<>();
+        for (int slot = 0; slot < counters.length; slot++) {
+            long count = counters[slot].sum();
+            if (count != 0) {
+                counts.put(slot == NO_TYPE ? null : LessonType.values()[slot], count);
+            }
+        }
+        return counts;
+    }
+
+    private static long region(Long regionId) {
+        return regionId == null ? NO_REGION : regionId;
+    }
+
+    private static int slot(LessonType lessonType) {
+        return lessonType == null ? NO_TYPE : lessonType.ordinal();
+    }
+
+    private static long sum(LongAdder counter) {
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private static LongAdder[] counters() {
+        LongAdder[] counters = new LongAdder[NO_TYPE + 1];
+        Arrays.setAll(counters, slot -> new LongAdder());
+        return counters;
+    }
+
+    /**
+     * What the counts of one teacher derive from. The course IDs only ever name known courses.
+     */
+    private record TeacherFacts(long version, long regionId, boolean active, long[] courseIds) {
+
+        TeacherFacts with(long version, long regionId, boolean active) {
+            return new TeacherFacts(version, regionId, active, courseIds);
+        }
+
+        boolean hasCourse(long courseId) {
+            for (long id : courseIds) {
+                if (id == courseId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        TeacherFacts withCourse(long courseId) {
+            long[] ids = Arrays.copyOf(courseIds, courseIds.length + 1);
+            ids[courseIds.length] = courseId;
+            return new TeacherFacts(version, regionId, active, ids);
+        }
+
+        TeacherFacts withoutCourse(long courseId) {
+            return new TeacherFacts(version, regionId, active,
+                    Arrays.stream(courseIds).filter(id -> id != courseId).toArray());
+        }
+
+        TeacherFacts withoutCourses(Set<Long> deleted) {
+            for (long id : courseIds) {
+                if (deleted.contains(id)) {
+                    return new TeacherFacts(version, regionId, active,
+                            Arrays.stream(courseIds).filter(courseId -> !deleted.contains(courseId)).toArray());
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class State {
+        final ConcurrentHashMap<Long, TeacherFacts> teachers = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, Integer> courseSlots = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, LongAdder> activeByRegion = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, LongAdder> teachersByCourse = new ConcurrentHashMap<>();
+        final LongAdder[] coursesByType = counters();
+        final LongAdder[] assignmentsByType = counters();
+        // Set while the changes recorded during a load are replayed onto this state. The loaded rows may already
+        // include a replayed move, which must then not raise the version a second time
+        boolean replaying;
+
+        void addCourse(long id, int slot) {
+            courseSlots.put(id, slot);
+            coursesByType[slot].increment();
+        }
+
+        /**
+         * Adds the teachers of the membership rows, grouping consecutive rows of the same teacher.
+         */
+        void addTeachers(Iterator<TeacherMembershipRow> rows) {
+            TeacherMembershipRow teacher = null;
+            long[] courseIds = new long[8];
+            int courses = 0;
+            while (rows.hasNext()) {
+                TeacherMembershipRow row = rows.next();
+                if (teacher == null || !teacher.teacherId().equals(row.teacherId())) {
+                    if (teacher != null) {
+                        addTeacher(teacher, courseIds, courses);
+                    }
+                    teacher = row;
+                    courses = 0;
+                }
+                // Courses created after the course list was read come with their assignments in the replay
+                if (row.courseId() != null && courseSlots.containsKey(row.courseId())) {
+                    if (courses == courseIds.length) {
+                        courseIds = Arrays.copyOf(courseIds, courses * 2);
+                    }
+                    courseIds[courses++] = row.courseId();
+                }
+            }
+            if (teacher != null) {
+                addTeacher(teacher, courseIds, courses);
+            }
+        }
+
+        private void addTeacher(TeacherMembershipRow row, long[] courseIds, int courses) {
+            TeacherFacts facts = new TeacherFacts(row.version(), region(row.regionId()),
+                    Boolean.TRUE.equals(row.active()), courses == 0 ? NO_COURSES : Arrays.copyOf(courseIds, courses));
+            teachers.put(row.teacherId(), count(facts, 1));
+        }
+
+        /**
+         * Adds the counts of a teacher, or subtracts them with a negative sign.
+         */
+        TeacherFacts count(TeacherFacts facts, int sign) {
+            if (facts.active) {
+                counter(activeByRegion, facts.regionId).add(sign);
+            }
+            for (long courseId : facts.courseIds) {
+                counter(teachersByCourse, courseId).add(sign);
+                assignmentsByType[courseSlots.get(courseId)].add(sign);
+            }
+            return facts;
+        }
+
+        /**
+         * Moves the active count of a teacher whose region or flag changed; its courses stay the same.
+         */
+        TeacherFacts replace(TeacherFacts previous, TeacherFacts facts) {
+            if (previous.active != facts.active || previous.regionId != facts.regionId) {
+                if (previous.active) {
+                    counter(activeByRegion, previous.regionId).decrement();
+                }
+                if (facts.active) {
+                    counter(activeByRegion, facts.regionId).increment();
+                }
+            }
+            return facts;
+        }
+
+        void assign(long courseId, long teacherId) {
+            Integer slot = courseSlots.get(courseId);
+            if (slot == null) {
+                return;
+            }
+            teachers.computeIfPresent(teacherId, (key, facts) -> {
+                if (facts.hasCourse(courseId)) {
+                    return facts;
+                }
+                counter(teachersByCourse, courseId).increment();
+                assignmentsByType[slot].increment();
+                return facts.withCourse(courseId);
+            });
+        }
+
+        void unassign(long courseId, long teacherId) {
+            Integer slot = courseSlots.get(courseId);
+            if (slot == null) {
+                return;
+            }
+            teachers.computeIfPresent(teacherId, (key, facts) -> {
+                if (!facts.hasCourse(courseId)) {
+                    return facts;
+                }
+                counter(teachersByCourse, courseId).decrement();
+                assignmentsByType[slot].decrement();
+                return facts.withoutCourse(courseId);
+            });
+        }
+
+        private static LongAdder counter(ConcurrentHashMap<Long, LongAdder> counters, long key) {
+            LongAdder counter = counters.get(key);
+            return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+    }
+}
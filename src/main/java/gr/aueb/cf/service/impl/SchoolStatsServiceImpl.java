@@ -0,0 +1,193 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.ICourseDAO;
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.CourseDAOImpl;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.CourseSummary;
+import gr.aueb.cf.dto.StatsDiscrepancy;
+import gr.aueb.cf.enums.LessonType;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ISchoolStatsService;
+import gr.aueb.cf.util.Metrics;
+import gr.aueb.cf.util.ReplicaRouting;
+import jakarta.persistence.Persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implementation of ISchoolStatsService backed by SchoolAggregates.
+ */
+public class SchoolStatsServiceImpl implements ISchoolStatsService {
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final ITeacherDAO teacherDAO;
+    private final ICourseDAO courseDAO;
+    private final SchoolAggregates aggregates = new SchoolAggregates();
+    private final BackgroundReload backgroundRebuild = new BackgroundReload("school statistics", this::rebuild);
+
+    public SchoolStatsServiceImpl() {
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
+        this.courseDAO = Metrics.instrument(ICourseDAO.class, new CourseDAOImpl());
+    }
+
+    public SchoolStatsServiceImpl(ITeacherDAO teacherDAO, ICourseDAO courseDAO) {
+        this.teacherDAO = teacherDAO;
+        this.courseDAO = courseDAO;
+    }
+
+    @Override
+    public void rebuild() throws Exception {
+        // From the primary: a lagging replica could miss changes notified just before the rebuild started
+        try {
+            ReplicaRouting.onPrimary(() -> aggregates.load(courseDAO::getAllSummaries,
+                    () -> teacherDAO.streamMemberships(LOAD_FETCH_SIZE)));
+        } catch (Exception e) {
+            throw new Exception("Error rebuilding school statistics: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long getActiveTeacherCount(Long regionId) {
+        return aggregates.activeTeachers(regionId);
+    }
+
+    @Override
+    public Map<Long, Long> getActiveTeacherCounts() {
+        return aggregates.activeTeachersByRegion();
+    }
+
+    @Override
+    public long getCourseTeacherCount(Long courseId) {
+        if (courseId == null) {
+            throw new IllegalArgumentException("Course ID cannot be null");
+        }
+        return aggregates.courseTeachers(courseId);
+    }
+
+    @Override
+    public long getCourseCount(LessonType lessonType) {
+        return aggregates.courses(lessonType);
+    }
+
+    @Override
+    public long getAssignmentCount(LessonType lessonType) {
+        return aggregates.assignments(lessonType);
+    }
+
+    @Override
+    public List<StatsDiscrepancy> verify() throws Exception {
+        try {
+            return ReplicaRouting.onPrimary(() -> {
+                List<StatsDiscrepancy> discrepancies = new ArrayList<>();
+                compare("activeTeachersByRegion", teacherDAO.countActiveByRegion(),
+                        aggregates.activeTeachersByRegion(), discrepancies);
+                Map<Long, Long> teachersByCourse = courseDAO.countTeachersByCourse();
+                compare("teachersByCourse", teachersByCourse, aggregates.teachersByCourse(), discrepancies);
+                compare("coursesByLessonType", courseDAO.countByLessonType(), aggregates.coursesByLessonType(),
+                        discrepancies);
+                Map<LessonType, Long> assignments = new HashMap<>();
+                for (CourseSummary course : courseDAO.getAllSummaries()) {
+                    Long teachers = teachersByCourse.get(course.id());
+                    if (teachers != null) {
+                        assignments.merge(course.lessonType(), teachers, Long::sum);
+                    }
+                }
+                compare("assignmentsByLessonType", assignments, aggregates.assignmentsByLessonType(),
+                        discrepancies);
+                return discrepancies;
+            });
+        } catch (Exception e) {
+            throw new Exception("Error verifying school statistics: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void teacherSaved(Teacher teacher) {
+        aggregates.saveTeacher(teacher.getId(), teacher.getVersion(),
+                teacher.getRegion() == null ? null : teacher.getRegion().getId(),
+                Boolean.TRUE.equals(teacher.getActive()));
+    }
+
+    @Override
+    public void teachersDeleted(Collection<Long> ids) {
+        aggregates.deleteTeachers(toArray(ids));
+    }
+
+    @Override
+    public void teachersActiveChanged(Collection<Long> ids, boolean active) {
+        aggregates.setActive(toArray(ids), active);
+    }
+
+    /**
+     * Rebuilds in the background; changes notified meanwhile trigger one more rebuild after it.
+     */
+    @Override
+    public void teachersChanged() {
+        backgroundRebuild.request();
+    }
+
+    @Override
+    public void courseSaved(Course course) {
+        // The teachers are only known if the saved instance has them loaded, as after a create or a merge
+        long[] teacherIds = Persistence.getPersistenceUtil().isLoaded(course, "teachers")
+                ? course.getAllTeachers().stream().mapToLong(Teacher::getId).toArray()
+                : null;
+        aggregates.saveCourse(course.getId(), course.getLessonType(), teacherIds);
+    }
+
+    @Override
+    public void coursesDeleted(Collection<Long> ids) {
+        aggregates.deleteCourses(toArray(ids));
+    }
+
+    @Override
+    public void teachersAssigned(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        aggregates.assign(toArray(courseIds), toArray(teacherIds));
+    }
+
+    @Override
+    public void teachersUnassigned(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        aggregates.unassign(toArray(courseIds), toArray(teacherIds));
+    }
+
+    @Override
+    public void teachersMoved(Collection<Long> teacherIds, Long regionId) {
+        aggregates.moveTeachers(toArray(teacherIds), regionId);
+    }
+
+    @Override
+    public void allTeachersMoved(Long fromRegionId, Long toRegionId) {
+        aggregates.moveAllTeachers(fromRegionId, toRegionId);
+    }
+
+    @Override
+    public void regionsDeleted(Collection<Long> ids) {
+        aggregates.deleteRegions(toArray(ids));
+    }
+
+    private static <K> void compare(String counter, Map<K, Long> database, Map<K, Long> model,
+                                    List<StatsDiscrepancy> discrepancies) {
+        Set<K> keys = new HashSet<>(database.keySet());
+        keys.addAll(model.keySet());
+        for (K key : keys) {
+            long expected = database.getOrDefault(key, 0L);
+            long actual = model.getOrDefault(key, 0L);
+            if (expected != actual) {
+                discrepancies.add(new StatsDiscrepancy(counter, Objects.toString(key, null), expected, actual));
+            }
+        }
+    }
+
+    private static long[] toArray(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,131 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherFetchPlan;
+import gr.aueb.cf.dao.TeacherPatch;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ITeacherAsyncService;
+import gr.aueb.cf.service.ITeacherService;
+import gr.aueb.cf.service.TeacherChangeListener;
+import gr.aueb.cf.util.DatabaseExecutor;
+import gr.aueb.cf.util.Metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Implementation of ITeacherAsyncService that runs the blocking ITeacherService on a DatabaseExecutor.
+ */
+public class TeacherAsyncServiceImpl implements ITeacherAsyncService {
+    private final ITeacherService teacherService;
+    private final DatabaseExecutor executor;
+
+    public TeacherAsyncServiceImpl() {
+        this(Metrics.instrument(ITeacherService.class, new TeacherServiceImpl()), DatabaseExecutor.shared());
+    }
+
+    public TeacherAsyncServiceImpl(ITeacherService teacherService, DatabaseExecutor executor) {
+        this.teacherService = teacherService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Teacher> createTeacher(Teacher teacher) {
+        return executor.submit(() -> teacherService.createTeacher(teacher));
+    }
+
+    @Override
+    public CompletableFuture<List<Teacher>> createTeachers(Collection<Teacher> teachers) {
+        return executor.submit(() -> teacherService.createTeachers(teachers));
+    }
+
+    @Override
+    public CompletableFuture<Teacher> updateTeacher(Teacher teacher) {
+        return executor.submit(() -> teacherService.updateTeacher(teacher));
+    }
+
+    @Override
+    public CompletableFuture<Long> patchTeacher(Long id, long version, TeacherPatch patch) {
+        return executor.submit(() -> teacherService.patchTeacher(id, version, patch));
+    }
+
+    @Override
+    public CompletableFuture<Long> updateTeacher(Long id, Function<Teacher, TeacherPatch> change) {
+        return executor.submit(() -> teacherService.updateTeacher(id, change));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteTeacher(Long id) {
+        return executor.submit(() -> {
+            teacherService.deleteTeacher(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Teacher>> getTeacherById(Long id) {
+        return executor.submit(() -> teacherService.getTeacherById(id));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Teacher>> getTeacherById(Long id, TeacherFetchPlan plan) {
+        return executor.submit(() -> teacherService.getTeacherById(id, plan));
+    }
+
+    @Override
+    public CompletableFuture<List<Teacher>> getTeachersByLastname(String lastname) {
+        return executor.submit(() -> teacherService.getTeachersByLastname(lastname));
+    }
+
+    @Override
+    public CompletableFuture<Page<Teacher>> getAllTeachersPage(String pageToken, int pageSize) {
+        return executor.submit(() -> teacherService.getAllTeachersPage(pageToken, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Page<TeacherSummary>> getTeacherSummariesPage(String pageToken, int pageSize) {
+        return executor.submit(() -> teacherService.getTeacherSummariesPage(pageToken, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Page<TeacherSummary>> searchTeachers(TeacherSearchCriteria criteria, TeacherSort sort,
+                                                                  String pageToken, int pageSize) {
+        return executor.submit(() -> teacherService.searchTeachers(criteria, sort, pageToken, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<List<TeacherSummary>> getTeacherSummariesByLastname(String lastname) {
+        return executor.submit(() -> teacherService.getTeacherSummariesByLastname(lastname));
+    }
+
+    @Override
+    public CompletableFuture<Integer> activateTeachers(Collection<Long> ids) {
+        return executor.submit(() -> teacherService.activateTeachers(ids));
+    }
+
+    @Override
+    public CompletableFuture<Integer> deactivateTeachers(Collection<Long> ids) {
+        return executor.submit(() -> teacherService.deactivateTeachers(ids));
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteTeachers(Collection<Long> ids) {
+        return executor.submit(() -> teacherService.deleteTeachers(ids));
+    }
+
+    @Override
+    public void addChangeListener(TeacherChangeListener listener) {
+        teacherService.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(TeacherChangeListener listener) {
+        teacherService.removeChangeListener(listener);
+    }
+}
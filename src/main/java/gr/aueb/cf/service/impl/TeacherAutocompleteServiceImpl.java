@@ -0,0 +1,69 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.AutocompleteStats;
+import gr.aueb.cf.dto.TeacherSummary;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ITeacherAutocompleteService;
+import gr.aueb.cf.util.Metrics;
+import gr.aueb.cf.util.ReplicaRouting;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of ITeacherAutocompleteService backed by a TeacherNameIndex.
+ */
+public class TeacherAutocompleteServiceImpl implements ITeacherAutocompleteService {
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final ITeacherDAO teacherDAO;
+    private final TeacherNameIndex index = new TeacherNameIndex();
+
+    public TeacherAutocompleteServiceImpl() {
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
+    }
+
+    public TeacherAutocompleteServiceImpl(ITeacherDAO teacherDAO) {
+        this.teacherDAO = teacherDAO;
+    }
+
+    @Override
+    public void load() throws Exception {
+        // From the primary: a lagging replica could miss changes notified just before the load started
+        try {
+            ReplicaRouting.onPrimary(() -> {
+                try (Stream<TeacherSummary> teachers = teacherDAO.streamSummaries(LOAD_FETCH_SIZE)) {
+                    index.load(teachers);
+                }
+            });
+        } catch (Exception e) {
+            throw new Exception("Error loading teacher names: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Long> suggest(String query, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return index.suggest(query, limit);
+    }
+
+    @Override
+    public AutocompleteStats getStats() {
+        return index.stats();
+    }
+
+    @Override
+    public void teacherSaved(Teacher teacher) {
+        index.put(teacher.getId(), teacher.getVersion(), teacher.getLastname(), teacher.getFirstname());
+    }
+
+    @Override
+    public void teachersDeleted(Collection<Long> ids) {
+        ids.forEach(index::remove);
+    }
+}
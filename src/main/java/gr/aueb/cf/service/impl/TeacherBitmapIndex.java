@@ -0,0 +1,471 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dto.TeacherFilterStats;
+import gr.aueb.cf.dto.TeacherMembershipRow;
+import gr.aueb.cf.enums.GenderType;
+import gr.aueb.cf.service.TeacherFilter;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory bitmap index of teacher IDs by active flag, region, course and gender.
+ * <p>
+ * Every value has a {@link RoaringBitmap} of the IDs of the teachers that have it, and one more bitmap holds
+ * all teachers, for negations. Roaring bitmaps split the 32-bit ID space into chunks of 64K IDs, each stored as
+ * a sorted array, a bitset or runs, whichever is smallest; a filter only touches the chunks its bitmaps share.
+ * Teachers are not stored otherwise, apart from their versions: a move takes the ID out of the bitmaps of the
+ * other regions (there are few), and a deletion out of every bitmap. Activations and region moves raise the
+ * version as their bulk updates do, so a save notified late, with an older version, is ignored; so is any
+ * save of a deleted teacher, since teacher IDs are never reused.
+ * <p>
+ * Bitmaps are not thread-safe, so queries hold the read lock of {@code lock} and changes, which flip a few
+ * bits, its write lock. {@link #load} builds new bitmaps off to the side while changes keep updating the
+ * current ones and are recorded; the recorded changes are replayed onto the new bitmaps before they replace
+ * the current ones.
+ */
+final class TeacherBitmapIndex {
+    private static final long NO_REGION = Long.MIN_VALUE;
+    // One slot per gender, plus a last one for teachers whose gender is not recorded
+    private static final int NO_GENDER = GenderType.values().length;
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+    // Versions are kept in pages of 4096 consecutive IDs, 8 bytes per teacher for IDs from a sequence
+    private static final int VERSION_PAGE_BITS = 12;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private Bitmaps bitmaps = new Bitmaps();
+    // Changes made while load() builds new bitmaps, replayed onto them; guarded by the write lock
+    private List<Consumer<Bitmaps>> replay;
+    // IDs of deleted teachers, kept across loads so that a late save cannot bring one back; guarded by the
+    // write lock
+    private final RoaringBitmap deletedTeachers = new RoaringBitmap();
+
+    /**
+     * Replaces the contents of the index with the given teachers. The current contents stay searchable, and
+     * changes made meanwhile are carried over. The supplier is called after changes start being recorded.
+     *
+     * @param memberships the membership rows of all teachers, ordered by teacher ID; closed when read
+     */
+    void load(Supplier<Stream<TeacherMembershipRow>> memberships) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                throw new IllegalStateException("The index is already loading");
+            }
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Bitmaps loaded = new Bitmaps();
+            try (Stream<TeacherMembershipRow> rows = memberships.get()) {
+                loaded.addTeachers(rows.iterator());
+            }
+            loaded.optimize();
+            lock.writeLock().lock();
+            try {
+                loaded.replaying = true;
+                replay.forEach(change -> change.accept(loaded));
+                loaded.replaying = false;
+                bitmaps = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a teacher or replaces its active flag, region and gender, unless a newer version is already known or
+     * the teacher was deleted; its courses stay the same.
+     */
+    void saveTeacher(long id, long version, boolean active, Long regionId, GenderType gender) {
+        int teacher = teacherId(id);
+        long region = region(regionId);
+        int slot = slot(gender);
+        change(index -> {
+            if (deletedTeachers.contains(teacher) || index.all.contains(teacher) && index.version(teacher) > version) {
+                return;
+            }
+            index.setVersion(teacher, version);
+            index.all.add(teacher);
+            if (active) {
+                index.active.add(teacher);
+            } else {
+                index.active.remove(teacher);
+            }
+            index.regions.values().forEach(members -> members.remove(teacher));
+            index.regions.computeIfAbsent(region, key -> new RoaringBitmap()).add(teacher);
+            for (RoaringBitmap members : index.genders) {
+                members.remove(teacher);
+            }
+            index.genders[slot].add(teacher);
+        });
+    }
+
+    /**
+     * Removes teachers from every bitmap; unknown IDs are skipped, but later saves of them still ignored.
+     */
+    void deleteTeachers(long[] ids) {
+        RoaringBitmap teachers = teacherIds(ids);
+        change(index -> {
+            deletedTeachers.or(teachers);
+            index.all.andNot(teachers);
+            index.active.andNot(teachers);
+            index.regions.values().forEach(members -> members.andNot(teachers));
+            index.courses.values().forEach(members -> members.andNot(teachers));
+            for (RoaringBitmap members : index.genders) {
+                members.andNot(teachers);
+            }
+        });
+    }
+
+    /**
+     * Sets the active flag of teachers, raising the version of those whose flag changes; unknown IDs are
+     * skipped.
+     */
+    void setActive(long[] ids, boolean active) {
+        RoaringBitmap teachers = teacherIds(ids);
+        change(index -> {
+            RoaringBitmap known = RoaringBitmap.and(teachers, index.all);
+            index.raiseVersions(active
+                    ? RoaringBitmap.andNot(known, index.active)
+                    : RoaringBitmap.and(known, index.active));
+            if (active) {
+                index.active.or(RoaringBitmap.and(teachers, index.all));
+            } else {
+                index.active.andNot(teachers);
+            }
+        });
+    }
+
+    /**
+     * Moves teachers to a region, or out of theirs, raising their versions; unknown IDs are skipped.
+     */
+    void moveTeachers(long[] ids, Long regionId) {
+        RoaringBitmap teachers = teacherIds(ids);
+        long region = region(regionId);
+        change(index -> {
+            RoaringBitmap known = RoaringBitmap.and(teachers, index.all);
+            // Loaded rows that already have a replayed move must not have their versions raised a second time
+            index.raiseVersions(index.replaying
+                    ? RoaringBitmap.andNot(known, index.regions.getOrDefault(region, EMPTY))
+                    : known);
+            index.regions.values().forEach(members -> members.andNot(known));
+            index.regions.computeIfAbsent(region, key -> new RoaringBitmap()).or(known);
+        });
+    }
+
+    /**
+     * Moves every teacher of a region to another region, or out of any, raising their versions.
+     */
+    void moveAllTeachers(long fromRegionId, Long toRegionId) {
+        long region = region(toRegionId);
+        change(index -> {
+            RoaringBitmap moved = index.regions.remove(fromRegionId);
+            if (moved != null) {
+                index.raiseVersions(moved);
+                index.regions.computeIfAbsent(region, key -> new RoaringBitmap()).or(moved);
+            }
+        });
+    }
+
+    /**
+     * Drops the bitmaps of deleted regions, which had no teachers left.
+     */
+    void deleteRegions(long[] ids) {
+        change(index -> {
+            for (long id : ids) {
+                index.regions.computeIfPresent(id, (key, members) -> members.isEmpty() ? null : members);
+            }
+        });
+    }
+
+    /**
+     * Adds a course, and optionally sets its teachers.
+     *
+     * @param teacherIds the IDs of all teachers of the course, or {@code null} if they are unknown; unknown
+     *                   teacher IDs are skipped
+     */
+    void saveCourse(long id, long[] teacherIds) {
+        RoaringBitmap teachers = teacherIds == null ? null : teacherIds(teacherIds);
+        change(index -> {
+            if (teachers == null) {
+                index.courses.computeIfAbsent(id, key -> new RoaringBitmap());
+            } else {
+                index.courses.put(id, RoaringBitmap.and(teachers, index.all));
+            }
+        });
+    }
+
+    /**
+     * Drops the bitmaps of deleted courses.
+     */
+    void deleteCourses(long[] ids) {
+        change(index -> {
+            for (long id : ids) {
+                index.courses.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Assigns every teacher to every course; unknown teacher IDs are skipped.
+     */
+    void assign(long[] courseIds, long[] teacherIds) {
+        RoaringBitmap teachers = teacherIds(teacherIds);
+        change(index -> {
+            RoaringBitmap known = RoaringBitmap.and(teachers, index.all);
+            for (long courseId : courseIds) {
+                index.courses.computeIfAbsent(courseId, key -> new RoaringBitmap()).or(known);
+            }
+        });
+    }
+
+    /**
+     * Removes every teacher from every course.
+     */
+    void unassign(long[] courseIds, long[] teacherIds) {
+        RoaringBitmap teachers = teacherIds(teacherIds);
+        change(index -> {
+            for (long courseId : courseIds) {
+                RoaringBitmap members = index.courses.get(courseId);
+                if (members != null) {
+                    members.andNot(teachers);
+                }
+            }
+        });
+    }
+
+    long count(TeacherFilter filter) {
+        lock.readLock().lock();
+        try {
+            return evaluate(bitmaps, filter).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} IDs of matching teachers above {@code afterId}, ascending
+     */
+    List<Long> find(TeacherFilter filter, long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        if (afterId >= 0xFFFF_FFFFL) {
+            return ids;
+        }
+        lock.readLock().lock();
+        try {
+            PeekableIntIterator matches = evaluate(bitmaps, filter).getIntIterator();
+            if (afterId >= 0) {
+                matches.advanceIfNeeded((int) (afterId + 1));
+            }
+            while (matches.hasNext() && ids.size() < limit) {
+                ids.add(Integer.toUnsignedLong(matches.next()));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    TeacherFilterStats stats() {
+        lock.readLock().lock();
+        try {
+            return bitmaps.stats();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void change(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(bitmaps);
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates a filter. The result may be one of the index's own bitmaps and must not be modified.
+     */
+    private static RoaringBitmap evaluate(Bitmaps index, TeacherFilter filter) {
+        return switch (filter) {
+            case TeacherFilter.Active active -> active.active()
+                    ? index.active
+                    : RoaringBitmap.andNot(index.all, index.active);
+            case TeacherFilter.InRegion region -> index.regions.getOrDefault(region(region.regionId()), EMPTY);
+            case TeacherFilter.InCourse course -> index.courses.getOrDefault(course.courseId(), EMPTY);
+            case TeacherFilter.HasGender gender -> index.genders[slot(gender.gender())];
+            case TeacherFilter.Not not -> RoaringBitmap.andNot(index.all, evaluate(index, not.filter()));
+            case TeacherFilter.Or or -> or(index, or.filters());
+            case TeacherFilter.And and -> and(index, and.filters());
+        };
+    }
+
+    /**
+     * Intersects the operands, subtracting the negated ones (and inactive) instead of complementing them.
+     */
+    private static RoaringBitmap and(Bitmaps index, List<TeacherFilter> filters) {
+        List<RoaringBitmap> included = new ArrayList<>(filters.size());
+        List<RoaringBitmap> excluded = new ArrayList<>();
+        for (TeacherFilter filter : filters) {
+            if (filter instanceof TeacherFilter.Not not) {
+                excluded.add(evaluate(index, not.filter()));
+            } else if (filter instanceof TeacherFilter.Active active && !active.active()) {
+                excluded.add(index.active);
+            } else {
+                included.add(evaluate(index, filter));
+            }
+        }
+        RoaringBitmap result = switch (included.size()) {
+            case 0 -> index.all;
+            case 1 -> included.get(0);
+            default -> FastAggregation.and(included.toArray(RoaringBitmap[]::new));
+        };
+        return switch (excluded.size()) {
+            case 0 -> result;
+            case 1 -> RoaringBitmap.andNot(result, excluded.get(0));
+            default -> RoaringBitmap.andNot(result, FastAggregation.or(excluded.toArray(RoaringBitmap[]::new)));
+        };
+    }
+
+    private static RoaringBitmap or(Bitmaps index, List<TeacherFilter> filters) {
+        return switch (filters.size()) {
+            case 0 -> EMPTY;
+            case 1 -> evaluate(index, filters.get(0));
+            default -> FastAggregation.or(filters.stream()
+                    .map(filter -> evaluate(index, filter))
+                    .toArray(RoaringBitmap[]::new));
+        };
+    }
+
+    private static int teacherId(long id) {
+        if (id < 0 || id > 0xFFFF_FFFFL) {
+            throw new IllegalArgumentException("Teacher ID " + id + " does not fit in 32 bits");
+        }
+        return (int) id;
+    }
+
+    private static RoaringBitmap teacherIds(long[] ids) {
+        RoaringBitmap teachers = new RoaringBitmap();
+        for (long id : ids) {
+            teachers.add(teacherId(id));
+        }
+        return teachers;
+    }
+
+    private static long region(Long regionId) {
+        return regionId == null ? NO_REGION : regionId;
+    }
+
+    private static int slot(GenderType gender) {
+        return gender == null ? NO_GENDER : gender.ordinal();
+    }
+
+    private static final class Bitmaps {
+        final RoaringBitmap all = new RoaringBitmap();
+        final RoaringBitmap active = new RoaringBitmap();
+        final Map<Long, RoaringBitmap> regions = new HashMap<>();
+        final Map<Long, RoaringBitmap> courses = new HashMap<>();
+        final RoaringBitmap[] genders = new RoaringBitmap[NO_GENDER + 1];
+        // The known versions of the teachers in all, by page; other slots are meaningless
+        final Map<Integer, long[]> versions = new HashMap<>();
+        // Set while the changes recorded during a load are replayed onto these bitmaps
+        boolean replaying;
+
+        Bitmaps() {
+            Arrays.setAll(genders, slot -> new RoaringBitmap());
+        }
+
+        /**
+         * Adds the teachers of the membership rows; the first row of a teacher carries its attributes.
+         */
+        void addTeachers(Iterator<TeacherMembershipRow> rows) {
+            Long previous = null;
+            while (rows.hasNext()) {
+                TeacherMembershipRow row = rows.next();
+                int teacher = teacherId(row.teacherId());
+                if (!row.teacherId().equals(previous)) {
+                    previous = row.teacherId();
+                    setVersion(teacher, row.version());
+                    all.add(teacher);
+                    if (Boolean.TRUE.equals(row.active())) {
+                        active.add(teacher);
+                    }
+                    regions.computeIfAbsent(region(row.regionId()), key -> new RoaringBitmap()).add(teacher);
+                    genders[slot(row.gender())].add(teacher);
+                }
+                if (row.courseId() != null) {
+                    courses.computeIfAbsent(row.courseId(), key -> new RoaringBitmap()).add(teacher);
+                }
+            }
+        }
+
+        /**
+         * Raises the known versions of the given teachers, all in {@code all}, by one, as a bulk update of their
+         * rows does.
+         */
+        void raiseVersions(RoaringBitmap teachers) {
+            teachers.forEach((int teacher) -> setVersion(teacher, version(teacher) + 1));
+        }
+
+        long version(int teacher) {
+            long[] page = versions.get(teacher >>> VERSION_PAGE_BITS);
+            return page == null ? 0 : page[teacher & (1 << VERSION_PAGE_BITS) - 1];
+        }
+
+        void setVersion(int teacher, long version) {
+            versions.computeIfAbsent(teacher >>> VERSION_PAGE_BITS, key -> new long[1 << VERSION_PAGE_BITS])
+                    [teacher & (1 << VERSION_PAGE_BITS) - 1] = version;
+        }
+
+        /**
+         * Converts runs of consecutive IDs to run-length containers where that is smaller.
+         */
+        void optimize() {
+            forEach(RoaringBitmap::runOptimize);
+        }
+
+        TeacherFilterStats stats() {
+            long[] bytes = {0};
+            int[] count = {0};
+            forEach(members -> {
+                bytes[0] += members.getLongSizeInBytes();
+                count[0]++;
+            });
+            bytes[0] += (long) versions.size() * (Long.BYTES << VERSION_PAGE_BITS);
+            return new TeacherFilterStats(all.getCardinality(), count[0], bytes[0]);
+        }
+
+        private void forEach(Consumer<RoaringBitmap> action) {
+            action.accept(all);
+            action.accept(active);
+            regions.values().forEach(action);
+            courses.values().forEach(action);
+            Arrays.stream(genders).forEach(action);
+        }
+    }
+}
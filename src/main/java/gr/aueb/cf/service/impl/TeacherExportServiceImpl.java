@@ -0,0 +1,219 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.ExportStats;
+import gr.aueb.cf.dto.TeacherExportRow;
+import gr.aueb.cf.enums.ExportFormat;
+import gr.aueb.cf.service.ITeacherExportService;
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.Metrics;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Implementation of ITeacherExportService.
+ * Writes CSV (RFC 4180, course titles joined with {@code ;}) or newline-delimited JSON.
+ */
+public class TeacherExportServiceImpl implements ITeacherExportService {
+    private static final String CSV_HEADER = "id,firstname,lastname,active,date_of_birth,gender,region,courses\r\n";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final ITeacherDAO teacherDAO;
+
+    public TeacherExportServiceImpl() {
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
+    }
+
+    public TeacherExportServiceImpl(ITeacherDAO teacherDAO) {
+        this.teacherDAO = teacherDAO;
+    }
+
+    @Override
+    public ExportStats exportTeachers(OutputStream out, ExportFormat format) throws Exception {
+        return exportTeachers(out, format, JPAUtil.getBulkChunkSize());
+    }
+
+    @Override
+    public ExportStats exportTeachers(WritableByteChannel channel, ExportFormat format) throws Exception {
+        if (channel == null) {
+            throw new Exception("Error exporting teachers: Channel cannot be null");
+        }
+        return exportTeachers(Channels.newOutputStream(channel), format, JPAUtil.getBulkChunkSize());
+    }
+
+    @Override
+    public ExportStats exportTeachers(OutputStream out, ExportFormat format, int batchSize) throws Exception {
+        try {
+            if (out == null || format == null) {
+                throw new IllegalArgumentException("Output and format cannot be null");
+            }
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            long start = System.nanoTime();
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            CountingOutputStream counted = new CountingOutputStream(out);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(counted, StandardCharsets.UTF_8),
+                    WRITE_BUFFER_SIZE);
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+
+            long rows = 0;
+            int batches = 0;
+            long peakHeap = 0;
+            String pageToken = null;
+            do {
+                Page<TeacherExportRow> page = teacherDAO.getExportPage(pageToken, batchSize);
+                for (TeacherExportRow row : page.items()) {
+                    if (format == ExportFormat.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writeJson(writer, row);
+                    }
+                }
+                writer.flush();
+                rows += page.items().size();
+                batches++;
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                pageToken = page.nextToken();
+            } while (pageToken != null);
+
+            return new ExportStats(rows, batches, Duration.ofNanos(System.nanoTime() - start),
+                    counted.count, peakHeap);
+        } catch (Exception e) {
+            throw new Exception("Error exporting teachers: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeCsv(Writer writer, TeacherExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writeCsvField(writer, row.firstname());
+        writer.write(',');
+        writeCsvField(writer, row.lastname());
+        writer.write(',');
+        writeCsvField(writer, row.active() == null ? null : row.active().toString());
+        writer.write(',');
+        writeCsvField(writer, row.dateOfBirth() == null ? null : row.dateOfBirth().toString());
+        writer.write(',');
+        writeCsvField(writer, row.gender() == null ? null : row.gender().name());
+        writer.write(',');
+        writeCsvField(writer, row.regionTitle());
+        writer.write(',');
+        writeCsvField(writer, String.join(";", row.courseTitles()));
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJson(Writer writer, TeacherExportRow row) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(String.valueOf(row.id()));
+        writer.write(",\"firstname\":");
+        writeJsonString(writer, row.firstname());
+        writer.write(",\"lastname\":");
+        writeJsonString(writer, row.lastname());
+        writer.write(",\"active\":");
+        writer.write(String.valueOf(row.active()));
+        writer.write(",\"dateOfBirth\":");
+        writeJsonString(writer, row.dateOfBirth() == null ? null : row.dateOfBirth().toString());
+        writer.write(",\"gender\":");
+        writeJsonString(writer, row.gender() == null ? null : row.gender().name());
+        writer.write(",\"region\":");
+        writeJsonString(writer, row.regionTitle());
+        writer.write(",\"courses\":[");
+        List<String> courseTitles = row.courseTitles();
+        for (int i = 0; i < courseTitles.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeJsonString(writer, courseTitles.get(i));
+        }
+        writer.write("]}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Counts the bytes written through it; closing it does not close the caller's stream.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.TeacherFilterStats;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ITeacherFilterService;
+import gr.aueb.cf.service.TeacherFilter;
+import gr.aueb.cf.util.Metrics;
+import gr.aueb.cf.util.ReplicaRouting;
+import jakarta.persistence.Persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of ITeacherFilterService backed by TeacherBitmapIndex.
+ */
+public class TeacherFilterServiceImpl implements ITeacherFilterService {
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final ITeacherDAO teacherDAO;
+    private final TeacherBitmapIndex index = new TeacherBitmapIndex();
+    private final BackgroundReload backgroundLoad = new BackgroundReload("teacher filters", this::load);
+
+    public TeacherFilterServiceImpl() {
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
+    }
+
+    public TeacherFilterServiceImpl(ITeacherDAO teacherDAO) {
+        this.teacherDAO = teacherDAO;
+    }
+
+    @Override
+    public void load() throws Exception {
+        // From the primary: a lagging replica could miss changes notified just before the load started
+        try {
+            ReplicaRouting.onPrimary(() -> index.load(() -> teacherDAO.streamMemberships(LOAD_FETCH_SIZE)));
+        } catch (Exception e) {
+            throw new Exception("Error loading teacher filters: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long count(TeacherFilter filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        return index.count(filter);
+    }
+
+    @Override
+    public List<Long> find(TeacherFilter filter, Long afterId, int limit) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return index.find(filter, afterId == null ? -1 : afterId, limit);
+    }
+
+    @Override
+    public TeacherFilterStats getStats() {
+        return index.stats();
+    }
+
+    @Override
+    public void teacherSaved(Teacher teacher) {
+        index.saveTeacher(teacher.getId(), teacher.getVersion(), Boolean.TRUE.equals(teacher.getActive()),
+                teacher.getRegion() == null ? null : teacher.getRegion().getId(),
+                teacher.getTeacherMoreInfo() == null ? null : teacher.getTeacherMoreInfo().getGender());
+    }
+
+    @Override
+    public void teachersDeleted(Collection<Long> ids) {
+        index.deleteTeachers(toArray(ids));
+    }
+
+    @Override
+    public void teachersActiveChanged(Collection<Long> ids, boolean active) {
+        index.setActive(toArray(ids), active);
+    }
+
+    /**
+     * Reloads in the background; changes notified meanwhile trigger one more load after it.
+     */
+    @Override
+    public void teachersChanged() {
+        backgroundLoad.request();
+    }
+
+    @Override
+    public void courseSaved(Course course) {
+        // The teachers are only known if the saved instance has them loaded, as after a create or a merge
+        long[] teacherIds = Persistence.getPersistenceUtil().isLoaded(course, "teachers")
+                ? course.getAllTeachers().stream().mapToLong(Teacher::getId).toArray()
+                : null;
+        index.saveCourse(course.getId(), teacherIds);
+    }
+
+    @Override
+    public void coursesDeleted(Collection<Long> ids) {
+        index.deleteCourses(toArray(ids));
+    }
+
+    @Override
+    public void teachersAssigned(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        index.assign(toArray(courseIds), toArray(teacherIds));
+    }
+
+    @Override
+    public void teachersUnassigned(Collection<Long> courseIds, Collection<Long> teacherIds) {
+        index.unassign(toArray(courseIds), toArray(teacherIds));
+    }
+
+    @Override
+    public void teachersMoved(Collection<Long> teacherIds, Long regionId) {
+        index.moveTeachers(toArray(teacherIds), regionId);
+    }
+
+    @Override
+    public void allTeachersMoved(Long fromRegionId, Long toRegionId) {
+        index.moveAllTeachers(fromRegionId, toRegionId);
+    }
+
+    @Override
+    public void regionsDeleted(Collection<Long> ids) {
+        index.deleteRegions(toArray(ids));
+    }
+
+    private static long[] toArray(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
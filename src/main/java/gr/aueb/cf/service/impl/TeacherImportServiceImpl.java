@@ -0,0 +1,344 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.BatchProgressListener;
+import gr.aueb.cf.dao.ICourseDAO;
+import gr.aueb.cf.dao.IRegionDAO;
+import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.impl.CourseDAOImpl;
+import gr.aueb.cf.dao.impl.RegionDAOImpl;
+import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.ImportError;
+import gr.aueb.cf.dto.ImportResult;
+import gr.aueb.cf.enums.GenderType;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Region;
+import gr.aueb.cf.model.Teacher;
+import gr.aueb.cf.service.ICourseService;
+import gr.aueb.cf.service.IRegionService;
+import gr.aueb.cf.service.ITeacherImportService;
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.Metrics;
+import gr.aueb.cf.util.UnitOfWork;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of ITeacherImportService.
+ * <p>
+ * The source is read as a pipeline: record boundaries are found sequentially, each batch is then split into
+ * fields, converted and validated in parallel while the previous batch is being written. Region and course
+ * titles are resolved against maps loaded once at the start, so a batch only goes to the database for titles
+ * it sees for the first time. Each batch is written in one unit of work: the teachers as one JDBC-batched
+ * insert, then the course assignments straight into the join table.
+ */
+public class TeacherImportServiceImpl implements ITeacherImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String CHECKPOINT_SOURCE = "source";
+    private static final String CHECKPOINT_RECORDS = "records";
+
+    private final ITeacherDAO teacherDAO;
+    private final ICourseDAO courseDAO;
+    private final IRegionDAO regionDAO;
+    private final ICourseService courseService;
+    private final IRegionService regionService;
+
+    public TeacherImportServiceImpl() {
+        this(Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl()),
+                Metrics.instrument(ICourseDAO.class, new CourseDAOImpl()),
+                Metrics.instrument(IRegionDAO.class, new RegionDAOImpl()));
+    }
+
+    public TeacherImportServiceImpl(ITeacherDAO teacherDAO, ICourseDAO courseDAO, IRegionDAO regionDAO) {
+        this.teacherDAO = teacherDAO;
+        this.courseDAO = courseDAO;
+        this.regionDAO = regionDAO;
+        this.courseService = new CourseServiceImpl(courseDAO, teacherDAO);
+        this.regionService = new RegionServiceImpl(regionDAO, teacherDAO);
+    }
+
+    @Override
+    public ImportResult importTeachers(Path source, Path checkpoint) throws Exception {
+        return importTeachers(source, checkpoint, JPAUtil.getBulkChunkSize());
+    }
+
+    @Override
+    public ImportResult importTeachers(Path source, Path checkpoint, int batchSize) throws Exception {
+        try {
+            if (source == null) {
+                throw new IllegalArgumentException("Source cannot be null");
+            }
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            long start = System.nanoTime();
+            String sourceId = source.toAbsolutePath().normalize().toString();
+            long skipped = checkpoint == null ? 0 : loadCheckpoint(checkpoint, sourceId);
+
+            try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+                CsvRecordReader reader = new CsvRecordReader(in);
+                String header = reader.readRecord();
+                if (header == null) {
+                    throw new IllegalArgumentException("Source has no header row");
+                }
+                Columns columns = Columns.of(CsvRecordReader.parseFields(header));
+                for (long i = 0; i < skipped; i++) {
+                    if (reader.readRecord() == null) {
+                        throw new IllegalArgumentException("Source is shorter than its checkpoint");
+                    }
+                }
+
+                Map<String, Long> regionIds = new HashMap<>();
+                regionDAO.getAllSummaries().forEach(region -> regionIds.put(region.title(), region.id()));
+                Map<String, Long> courseIds = new HashMap<>();
+                courseDAO.getAllSummaries().forEach(course -> courseIds.put(course.title(), course.id()));
+
+                long records = 0;
+                long imported = 0;
+                long rejected = 0;
+                int batches = 0;
+                List<ImportError> errors = new ArrayList<>();
+                CompletableFuture<List<ParsedRecord>> next = parse(readBatch(reader, batchSize), columns);
+                List<ParsedRecord> batch;
+                while (!(batch = next.join()).isEmpty()) {
+                    next = parse(readBatch(reader, batchSize), columns);
+
+                    List<ParsedRecord> valid = new ArrayList<>(batch.size());
+                    for (ParsedRecord record : batch) {
+                        if (record.error() == null) {
+                            valid.add(record);
+                        } else {
+                            rejected++;
+                            if (errors.size() < MAX_REPORTED_ERRORS) {
+                                errors.add(new ImportError(record.line(), record.error()));
+                            }
+                        }
+                    }
+                    imported += write(valid, regionIds, courseIds);
+                    records += batch.size();
+                    batches++;
+                    if (checkpoint != null) {
+                        saveCheckpoint(checkpoint, sourceId, skipped + records);
+                    }
+                }
+                return new ImportResult(skipped, records, imported, rejected, batches,
+                        Duration.ofNanos(System.nanoTime() - start), errors);
+            }
+        } catch (Exception e) {
+            throw new Exception("Error importing teachers: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<RawRecord> readBatch(CsvRecordReader reader, int batchSize) throws IOException {
+        List<RawRecord> batch = new ArrayList<>(batchSize);
+        String record;
+        while (batch.size() < batchSize && (record = reader.readRecord()) != null) {
+            batch.add(new RawRecord(reader.getRecordLine(), record));
+        }
+        return batch;
+    }
+
+    private static CompletableFuture<List<ParsedRecord>> parse(List<RawRecord> batch, Columns columns) {
+        return CompletableFuture.supplyAsync(() -> batch.parallelStream()
+                .map(record -> parse(record, columns))
+                .toList());
+    }
+
+    private static ParsedRecord parse(RawRecord record, Columns columns) {
+        try {
+            List<String> fields = CsvRecordReader.parseFields(record.text());
+            Teacher teacher = new Teacher();
+            teacher.setFirstname(columns.get(fields, "firstname"));
+            teacher.setLastname(columns.get(fields, "lastname"));
+            String active = columns.get(fields, "active");
+            if (!active.isEmpty()) {
+                if (!active.equalsIgnoreCase("true") && !active.equalsIgnoreCase("false")) {
+                    throw new IllegalArgumentException("Invalid active flag '" + active + "'");
+                }
+                teacher.setActive(Boolean.parseBoolean(active));
+            }
+            String dateOfBirth = columns.get(fields, "date_of_birth");
+            if (!dateOfBirth.isEmpty()) {
+                teacher.getTeacherMoreInfo().setDateOfBirth(LocalDate.parse(dateOfBirth));
+            }
+            String gender = columns.get(fields, "gender");
+            if (!gender.isEmpty()) {
+                teacher.getTeacherMoreInfo().setGender(GenderType.valueOf(gender.toUpperCase(Locale.ROOT)));
+            }
+            Validation.validateTeacher(teacher);
+
+            String region = columns.get(fields, "region");
+            List<String> courses = Arrays.stream(columns.get(fields, "courses").split(";"))
+                    .map(String::trim)
+                    .filter(title -> !title.isEmpty())
+                    .distinct()
+                    .toList();
+            return new ParsedRecord(record.line(), teacher, region.isEmpty() ? null : region, courses, null);
+        } catch (RuntimeException e) {
+            return new ParsedRecord(record.line(), null, null, List.of(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one batch of valid records in one transaction.
+     *
+     * @return the number of teachers written
+     */
+    private int write(List<ParsedRecord> records, Map<String, Long> regionIds, Map<String, Long> courseIds)
+            throws Exception {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        resolveRegions(records, regionIds);
+        resolveCourses(records, courseIds);
+
+        List<Teacher> teachers = new ArrayList<>(records.size());
+        for (ParsedRecord record : records) {
+            if (record.region() != null) {
+                // A detached reference is enough to set the foreign key; the region is not loaded
+                Region region = new Region();
+                region.setId(regionIds.get(record.region()));
+                record.teacher().setRegion(region);
+            }
+            teachers.add(record.teacher());
+        }
+        UnitOfWork.run(() -> {
+            teacherDAO.insertAll(teachers, teachers.size(), BatchProgressListener.NONE);
+            Map<Long, List<Long>> teacherIdsByCourse = new HashMap<>();
+            for (ParsedRecord record : records) {
+                for (String title : record.courses()) {
+                    teacherIdsByCourse.computeIfAbsent(courseIds.get(title), id -> new ArrayList<>())
+                            .add(record.teacher().getId());
+                }
+            }
+            courseDAO.addTeachers(teacherIdsByCourse);
+        });
+        return teachers.size();
+    }
+
+    private void resolveRegions(List<ParsedRecord> records, Map<String, Long> regionIds) throws Exception {
+        List<String> missing = records.stream()
+                .map(ParsedRecord::region)
+                .filter(title -> title != null && !regionIds.containsKey(title))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<Region> regions = missing.stream().map(title -> {
+            Region region = new Region();
+            region.setTitle(title);
+            return region;
+        }).toList();
+        // Results come back in input order, so they are keyed by the title as written in the source
+        List<Region> resolved = regionService.createOrGetRegions(regions);
+        for (int i = 0; i < missing.size(); i++) {
+            regionIds.put(missing.get(i), resolved.get(i).getId());
+        }
+    }
+
+    private void resolveCourses(List<ParsedRecord> records, Map<String, Long> courseIds) throws Exception {
+        Set<String> titles = new LinkedHashSet<>();
+        records.forEach(record -> titles.addAll(record.courses()));
+        List<String> missing = titles.stream().filter(title -> !courseIds.containsKey(title)).toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<Course> courses = missing.stream().map(title -> {
+            Course course = new Course();
+            course.setTitle(title);
+            return course;
+        }).toList();
+        List<Course> resolved = courseService.createOrGetCourses(courses);
+        for (int i = 0; i < missing.size(); i++) {
+            courseIds.put(missing.get(i), resolved.get(i).getId());
+        }
+    }
+
+    /**
+     * @return the number of records already imported from the source, 0 if the checkpoint does not exist yet
+     */
+    private static long loadCheckpoint(Path checkpoint, String sourceId) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String checkpointSource = properties.getProperty(CHECKPOINT_SOURCE);
+        if (!sourceId.equals(checkpointSource)) {
+            throw new IllegalArgumentException("Checkpoint " + checkpoint + " belongs to " + checkpointSource);
+        }
+        try {
+            return Long.parseLong(properties.getProperty(CHECKPOINT_RECORDS, "0"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid checkpoint " + checkpoint, e);
+        }
+    }
+
+    /**
+     * Replaces the checkpoint atomically, so an interruption leaves either the old or the new position.
+     */
+    private static void saveCheckpoint(Path checkpoint, String sourceId, long records) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(CHECKPOINT_SOURCE, sourceId);
+        properties.setProperty(CHECKPOINT_RECORDS, Long.toString(records));
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Teacher import checkpoint");
+        }
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record RawRecord(long line, String text) {
+    }
+
+    private record ParsedRecord(long line, Teacher teacher, String region, List<String> courses, String error) {
+    }
+
+    /**
+     * Positions of the header columns, matched case-insensitively.
+     */
+    private record Columns(Map<String, Integer> positions) {
+
+        static Columns of(List<String> header) {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("firstname", "lastname")) {
+                if (!positions.containsKey(required)) {
+                    throw new IllegalArgumentException("Source has no '" + required + "' column");
+                }
+            }
+            return new Columns(positions);
+        }
+
+        /**
+         * @return the trimmed field, or an empty string if the column or the field is missing
+         */
+        String get(List<String> fields, String column) {
+            Integer position = positions.get(column);
+            return position == null || position >= fields.size() ? "" : fields.get(position).trim();
+        }
+    }
+}
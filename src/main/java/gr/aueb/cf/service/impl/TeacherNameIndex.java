@@ -0,0 +1,749 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dto.AutocompleteStats;
+import gr.aueb.cf.dto.TeacherSummary;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory word-prefix index over teacher first and last names.
+ * <p>
+ * Names are folded to lowercase without accents (so "Παπαδόπουλος" matches "παπαδο") and split into words.
+ * A query matches a teacher when every query word is a prefix of one of the teacher's name words; hits rank
+ * by exact word matches, then lastname matches, then the shortest completion, then ID.
+ * <p>
+ * The bulk of the index is an immutable segment of primitive arrays: the sorted words of each name field packed
+ * into one {@code char[]} with their postings in one {@code long[]}, plus each teacher's word ordinals for
+ * checking multi-word queries. Changes go to a small concurrent delta, and the segment copies they replace are
+ * hidden by ID until the delta outgrows 1/16 of the segment and is merged into a new one. Readers never lock:
+ * they work on whichever state was current when they started, and a concurrent change is at worst seen half
+ * applied (briefly both the old and the new name of a renamed teacher match).
+ * <p>
+ * Every teacher's version is kept with its names, so a save notified late, with an older version, is ignored;
+ * so is any save of a deleted teacher, since teacher IDs are never reused.
+ */
+final class TeacherNameIndex {
+    private static final int EXACT = 200;
+    private static final int PREFIX = 100;
+    private static final int LASTNAME = 50;
+    private static final int MAX_LENGTH_PENALTY = 49;
+    private static final int MAX_WORD_SCORE = EXACT + LASTNAME;
+    private static final int MIN_MERGE_THRESHOLD = 1024;
+    // Rough heap cost of one delta teacher (map entries, skip-list nodes, boxed IDs, name words)
+    // and of one hidden segment ID, for the footprint estimate
+    private static final int DELTA_TEACHER_BYTES = 400;
+    private static final int HIDDEN_ID_BYTES = 48;
+    private static final String[] NO_WORDS = new String[0];
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile State state = new State(new SegmentBuilder().build());
+    // Changes made while load() builds a new segment, replayed onto it; guarded by writeLock
+    private List<Names> replay;
+    // IDs of deleted teachers, kept across loads so that a late save cannot bring one back; guarded by writeLock
+    private final Roaring64NavigableMap deletedTeachers = new Roaring64NavigableMap();
+
+    /**
+     * Replaces the contents of the index with the given teachers, which must be ordered by ID.
+     * The current contents stay searchable, and changes made meanwhile are carried over.
+     *
+     * @param teachers the teachers, ordered by ID
+     */
+    void load(Stream<TeacherSummary> teachers) {
+        writeLock.lock();
+        try {
+            if (replay != null) {
+                throw new IllegalStateException("The index is already loading");
+            }
+            replay = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            SegmentBuilder builder = new SegmentBuilder();
+            teachers.forEach(teacher -> builder.add(teacher.id(), teacher.version(), words(teacher.lastname()),
+                    words(teacher.firstname())));
+            Segment segment = builder.build();
+            writeLock.lock();
+            try {
+                State loaded = new State(segment);
+                replay.forEach(names -> apply(loaded, names));
+                state = loaded;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            writeLock.lock();
+            try {
+                replay = null;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a teacher or replaces its names, unless a newer version is already known or the teacher was deleted.
+     */
+    void put(long id, long version, String lastname, String firstname) {
+        change(new Names(id, version, words(lastname), words(firstname)));
+    }
+
+    /**
+     * Removes a teacher; later saves of it are ignored even if it is not indexed.
+     */
+    void remove(long id) {
+        change(new Names(id, 0, null, null));
+    }
+
+    /**
+     * Returns the IDs of the best matching teachers, best first.
+     *
+     * @param query the words typed so far
+     * @param limit the maximum number of IDs to return
+     * @return the IDs, empty if the query has no words
+     */
+    List<Long> suggest(String query, int limit) {
+        String[] words = words(query);
+        if (words.length == 0) {
+            return List.of();
+        }
+        State current = state;
+        Segment segment = current.segment;
+        // The candidates come from the word with the fewest matches in the segment; the others are checked
+        String driver = words[0];
+        if (words.length > 1) {
+            int fewest = Integer.MAX_VALUE;
+            for (String word : words) {
+                int matches = segment.lastnames.matches(word) + segment.firstnames.matches(word);
+                if (matches < fewest) {
+                    fewest = matches;
+                    driver = word;
+                }
+            }
+        }
+        Hits hits = new Hits(limit);
+        int otherWordsMax = (words.length - 1) * MAX_WORD_SCORE;
+        scanSegment(current, segment.lastnames, true, driver, words, otherWordsMax, hits);
+        scanSegment(current, segment.firstnames, false, driver, words, otherWordsMax, hits);
+        scanDelta(current, current.deltaLastnames, true, driver, words, otherWordsMax, hits);
+        scanDelta(current, current.deltaFirstnames, false, driver, words, otherWordsMax, hits);
+        return hits.ids();
+    }
+
+    /**
+     * @return the size and estimated heap footprint of the index
+     */
+    AutocompleteStats stats() {
+        State current = state;
+        Segment segment = current.segment;
+        int hidden = current.hidden.size();
+        int delta = current.delta.size();
+        return new AutocompleteStats(segment.ids.length - hidden + delta,
+                segment.lastnames.size() + segment.firstnames.size(), delta + hidden,
+                segment.bytes() + (long) delta * DELTA_TEACHER_BYTES + (long) hidden * HIDDEN_ID_BYTES);
+    }
+
+    /**
+     * Folds a name to lowercase without accents and splits it into distinct words.
+     */
+    static String[] words(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_WORDS;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace('ς', 'σ'); // final sigma
+        return SEPARATORS.splitAsStream(folded)
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static int score(String word, int termLength, boolean lastname) {
+        return (termLength == word.length() ? EXACT : PREFIX) + (lastname ? LASTNAME : 0)
+                - Math.min(MAX_LENGTH_PENALTY, termLength - word.length());
+    }
+
+    private void scanSegment(State current, Terms terms, boolean lastname, String driver, String[] words,
+                             int otherWordsMax, Hits hits) {
+        Segment segment = current.segment;
+        for (int term = terms.lowerBound(driver); term < terms.size() && terms.startsWith(term, driver); term++) {
+            int termScore = score(driver, terms.length(term), lastname);
+            if (!hits.mayAccept(termScore + otherWordsMax)) {
+                continue;
+            }
+            for (int p = terms.postingStart[term]; p < terms.postingStart[term + 1]; p++) {
+                long id = terms.postings[p];
+                if (current.hidden.contains(id)) {
+                    continue;
+                }
+                if (words.length == 1) {
+                    // Postings ascend by ID, so the rest of this term cannot beat a full list
+                    if (!hits.offer(id, termScore)) {
+                        break;
+                    }
+                } else {
+                    int total = segment.score(id, words);
+                    if (total >= 0) {
+                        hits.offer(id, total);
+                    }
+                }
+            }
+        }
+    }
+
+    private void scanDelta(State current, ConcurrentSkipListMap<String, Set<Long>> terms, boolean lastname,
+                           String driver, String[] words, int otherWordsMax, Hits hits) {
+        for (Map.Entry<String, Set<Long>> entry : terms.tailMap(driver).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(driver)) {
+                break;
+            }
+            int termScore = score(driver, term.length(), lastname);
+            if (!hits.mayAccept(termScore + otherWordsMax)) {
+                continue;
+            }
+            for (Long id : entry.getValue()) {
+                if (words.length == 1) {
+                    if (!hits.offer(id, termScore)) {
+                        break;
+                    }
+                } else {
+                    Names names = current.delta.get(id);
+                    int total = names == null ? -1 : names.score(words);
+                    if (total >= 0) {
+                        hits.offer(id, total);
+                    }
+                }
+            }
+        }
+    }
+
+    private void change(Names names) {
+        writeLock.lock();
+        try {
+            if (names.deleted()) {
+                deletedTeachers.addLong(names.id);
+            } else if (deletedTeachers.contains(names.id)) {
+                return;
+            }
+            if (replay != null) {
+                replay.add(names);
+            }
+            State current = state;
+            apply(current, names);
+            int threshold = Math.max(MIN_MERGE_THRESHOLD, current.segment.ids.length / 16);
+            if (current.delta.size() + current.hidden.size() > threshold) {
+                state = new State(current.merge());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a change to the delta of a state, unless it saves an older version than the state has; the caller
+     * holds the write lock.
+     * New words are added before old ones are removed, so a teacher never drops out while it is renamed.
+     */
+    private static void apply(State target, Names names) {
+        if (!names.deleted() && target.version(names.id) > names.version) {
+            return;
+        }
+        Names previous;
+        if (names.deleted()) {
+            previous = target.delta.remove(names.id);
+        } else {
+            addPostings(target.deltaLastnames, names.lastname, names.id);
+            addPostings(target.deltaFirstnames, names.firstname, names.id);
+            previous = target.delta.put(names.id, names);
+        }
+        if (previous != null) {
+            removePostings(target.deltaLastnames, previous.lastname, names.lastname, names.id);
+            removePostings(target.deltaFirstnames, previous.firstname, names.firstname, names.id);
+        }
+        if (target.segment.indexOf(names.id) >= 0) {
+            target.hidden.add(names.id);
+        }
+    }
+
+    private static void addPostings(ConcurrentSkipListMap<String, Set<Long>> terms, String[] words, long id) {
+        for (String word : words) {
+            terms.computeIfAbsent(word, key -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    private static void removePostings(ConcurrentSkipListMap<String, Set<Long>> terms, String[] words,
+                                       String[] kept, long id) {
+        for (String word : words) {
+            if (kept != null && Arrays.asList(kept).contains(word)) {
+                continue;
+            }
+            Set<Long> ids = terms.get(word);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    terms.remove(word, ids);
+                }
+            }
+        }
+    }
+
+    /**
+     * The normalized name words and version of one teacher; {@code null} words mark a deletion.
+     */
+    private record Names(long id, long version, String[] lastname, String[] firstname) {
+
+        boolean deleted() {
+            return lastname == null;
+        }
+
+        /**
+         * @return the sum over the query words of their best match, or -1 if a word matches nothing
+         */
+        int score(String[] words) {
+            int total = 0;
+            for (String word : words) {
+                int best = -1;
+                for (String term : lastname) {
+                    if (term.startsWith(word)) {
+                        best = Math.max(best, TeacherNameIndex.score(word, term.length(), true));
+                    }
+                }
+                for (String term : firstname) {
+                    if (term.startsWith(word)) {
+                        best = Math.max(best, TeacherNameIndex.score(word, term.length(), false));
+                    }
+                }
+                if (best < 0) {
+                    return -1;
+                }
+                total += best;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * A segment and the changes made since it was built.
+     */
+    private static final class State {
+        final Segment segment;
+        final Set<Long> hidden = ConcurrentHashMap.newKeySet();
+        final Map<Long, Names> delta = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<String, Set<Long>> deltaLastnames = new ConcurrentSkipListMap<>();
+        final ConcurrentSkipListMap<String, Set<Long>> deltaFirstnames = new ConcurrentSkipListMap<>();
+
+        State(Segment segment) {
+            this.segment = segment;
+        }
+
+        /**
+         * @return the version of a teacher, or -1 if it is not indexed
+         */
+        long version(long id) {
+            Names names = delta.get(id);
+            if (names != null) {
+                return names.version;
+            }
+            int teacher = segment.indexOf(id);
+            return teacher >= 0 && !hidden.contains(id) ? segment.versions[teacher] : -1;
+        }
+
+        /**
+         * @return a segment holding the visible part of this one plus the delta
+         */
+        Segment merge() {
+            SegmentBuilder builder = new SegmentBuilder();
+            Iterator<Names> changed = new TreeSet<>(delta.keySet()).stream().map(delta::get).iterator();
+            Names next = changed.hasNext() ? changed.next() : null;
+            for (int i = 0; i < segment.ids.length; i++) {
+                long id = segment.ids[i];
+                while (next != null && next.id < id) {
+                    builder.add(next.id, next.version, next.lastname, next.firstname);
+                    next = changed.hasNext() ? changed.next() : null;
+                }
+                if (!hidden.contains(id)) {
+                    builder.add(id, segment.versions[i], segment.words(i, true), segment.words(i, false));
+                }
+            }
+            while (next != null) {
+                builder.add(next.id, next.version, next.lastname, next.firstname);
+                next = changed.hasNext() ? changed.next() : null;
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * An immutable snapshot of the index.
+     */
+    private static final class Segment {
+        final Terms lastnames;
+        final Terms firstnames;
+        final long[] ids;
+        final long[] versions;
+        // Teacher i owns words[wordStart[i], wordStart[i + 1]): lastname ordinals as is,
+        // firstname ordinals as -(ordinal + 1)
+        final int[] wordStart;
+        final int[] words;
+
+        Segment(Terms lastnames, Terms firstnames, long[] ids, long[] versions, int[] wordStart, int[] words) {
+            this.lastnames = lastnames;
+            this.firstnames = firstnames;
+            this.ids = ids;
+            this.versions = versions;
+            this.wordStart = wordStart;
+            this.words = words;
+        }
+
+        int indexOf(long id) {
+            return Arrays.binarySearch(ids, id);
+        }
+
+        String[] words(int teacher, boolean lastname) {
+            List<String> result = new ArrayList<>(2);
+            for (int w = wordStart[teacher]; w < wordStart[teacher + 1]; w++) {
+                int ordinal = words[w];
+                if (lastname && ordinal >= 0) {
+                    result.add(lastnames.term(ordinal));
+                } else if (!lastname && ordinal < 0) {
+                    result.add(firstnames.term(-ordinal - 1));
+                }
+            }
+            return result.toArray(NO_WORDS);
+        }
+
+        /**
+         * @return the sum over the query words of their best match, or -1 if a word matches nothing
+         */
+        int score(long id, String[] queryWords) {
+            int teacher = indexOf(id);
+            int total = 0;
+            for (String word : queryWords) {
+                int best = -1;
+                for (int w = wordStart[teacher]; w < wordStart[teacher + 1]; w++) {
+                    int ordinal = words[w];
+                    boolean lastname = ordinal >= 0;
+                    Terms terms = lastname ? lastnames : firstnames;
+                    int term = lastname ? ordinal : -ordinal - 1;
+                    if (terms.startsWith(term, word)) {
+                        best = Math.max(best, TeacherNameIndex.score(word, terms.length(term), lastname));
+                    }
+                }
+                if (best < 0) {
+                    return -1;
+                }
+                total += best;
+            }
+            return total;
+        }
+
+        long bytes() {
+            return lastnames.bytes() + firstnames.bytes() + 16 + 8L * ids.length + 16 + 8L * versions.length
+                    + 16 + 4L * wordStart.length
+                    + 16 + 4L * words.length;
+        }
+    }
+
+    /**
+     * The sorted distinct words of one name field with the sorted teacher IDs of each.
+     */
+    private static final class Terms {
+        // Term t is chars[offsets[t], offsets[t + 1]) and its IDs are postings[postingStart[t], postingStart[t + 1])
+        final char[] chars;
+        final int[] offsets;
+        final int[] postingStart;
+        final long[] postings;
+
+        Terms(char[] chars, int[] offsets, int[] postingStart, long[] postings) {
+            this.chars = chars;
+            this.offsets = offsets;
+            this.postingStart = postingStart;
+            this.postings = postings;
+        }
+
+        int size() {
+            return offsets.length - 1;
+        }
+
+        int length(int term) {
+            return offsets[term + 1] - offsets[term];
+        }
+
+        String term(int term) {
+            return new String(chars, offsets[term], length(term));
+        }
+
+        boolean startsWith(int term, String prefix) {
+            int length = prefix.length();
+            if (length(term) < length) {
+                return false;
+            }
+            int start = offsets[term];
+            for (int i = 0; i < length; i++) {
+                if (chars[start + i] != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the number of postings of the terms starting with the prefix
+         */
+        int matches(String prefix) {
+            // Terms sort as: those before the prefix, those starting with it, those after
+            int low = lowerBound(prefix);
+            int high = size();
+            int first = low;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startsWith(mid, prefix)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return postingStart[low] - postingStart[first];
+        }
+
+        /**
+         * @return the first term not less than the word, or {@link #size()}
+         */
+        int lowerBound(String word) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, word) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int compare(int term, String word) {
+            int start = offsets[term];
+            int length = length(term);
+            int common = Math.min(length, word.length());
+            for (int i = 0; i < common; i++) {
+                int diff = chars[start + i] - word.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return length - word.length();
+        }
+
+        long bytes() {
+            return 16 + 2L * chars.length + 16 + 4L * offsets.length + 16 + 4L * postingStart.length
+                    + 16 + 8L * postings.length;
+        }
+    }
+
+    /**
+     * Accumulates teachers in ID order and lays them out as a segment.
+     */
+    private static final class SegmentBuilder {
+        private final TermTable lastnames = new TermTable();
+        private final TermTable firstnames = new TermTable();
+        private long[] ids = new long[1024];
+        private long[] versions = new long[1024];
+        private int[] wordStart = new int[1025];
+        private int[] words = new int[2048];
+        private int teachers;
+        private int wordCount;
+
+        void add(long id, long version, String[] lastname, String[] firstname) {
+            if (teachers > 0 && id <= ids[teachers - 1]) {
+                throw new IllegalArgumentException("Teachers must be added in ascending ID order, got " + id
+                        + " after " + ids[teachers - 1]);
+            }
+            if (teachers == ids.length) {
+                ids = Arrays.copyOf(ids, teachers * 2);
+                versions = Arrays.copyOf(versions, teachers * 2);
+                wordStart = Arrays.copyOf(wordStart, teachers * 2 + 1);
+            }
+            if (wordCount + lastname.length + firstname.length > words.length) {
+                words = Arrays.copyOf(words, Math.max(words.length * 2, wordCount + lastname.length
+                        + firstname.length));
+            }
+            for (String word : lastname) {
+                words[wordCount++] = lastnames.add(word, id);
+            }
+            for (String word : firstname) {
+                words[wordCount++] = -firstnames.add(word, id) - 1;
+            }
+            versions[teachers] = version;
+            ids[teachers++] = id;
+            wordStart[teachers] = wordCount;
+        }
+
+        Segment build() {
+            int[] lastnameOrdinals = lastnames.sort();
+            int[] firstnameOrdinals = firstnames.sort();
+            int[] ordinals = Arrays.copyOf(words, wordCount);
+            for (int w = 0; w < ordinals.length; w++) {
+                int provisional = ordinals[w];
+                ordinals[w] = provisional >= 0 ? lastnameOrdinals[provisional]
+                        : -firstnameOrdinals[-provisional - 1] - 1;
+            }
+            return new Segment(lastnames.build(lastnameOrdinals), firstnames.build(firstnameOrdinals),
+                    Arrays.copyOf(ids, teachers), Arrays.copyOf(versions, teachers),
+                    Arrays.copyOf(wordStart, teachers + 1), ordinals);
+        }
+    }
+
+    /**
+     * The words of one field in first-seen order, with growable posting lists.
+     */
+    private static final class TermTable {
+        private final Map<String, Integer> provisional = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<long[]> postings = new ArrayList<>();
+        private int[] postingCounts = new int[256];
+
+        /**
+         * @return the provisional ordinal of the word
+         */
+        int add(String word, long id) {
+            int ordinal = provisional.computeIfAbsent(word, key -> {
+                terms.add(key);
+                postings.add(new long[2]);
+                return terms.size() - 1;
+            });
+            if (ordinal == postingCounts.length) {
+                postingCounts = Arrays.copyOf(postingCounts, ordinal * 2);
+            }
+            long[] ids = postings.get(ordinal);
+            int count = postingCounts[ordinal];
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                postings.set(ordinal, ids);
+            }
+            ids[count] = id;
+            postingCounts[ordinal] = count + 1;
+            return ordinal;
+        }
+
+        /**
+         * @return the final (sorted) ordinal of every provisional one
+         */
+        int[] sort() {
+            Integer[] order = new Integer[terms.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(terms::get));
+            int[] ordinals = new int[order.length];
+            for (int rank = 0; rank < order.length; rank++) {
+                ordinals[order[rank]] = rank;
+            }
+            return ordinals;
+        }
+
+        Terms build(int[] ordinals) {
+            int size = terms.size();
+            int[] byRank = new int[size];
+            int charCount = 0;
+            int postingCount = 0;
+            for (int i = 0; i < size; i++) {
+                byRank[ordinals[i]] = i;
+                charCount += terms.get(i).length();
+                postingCount += postingCounts[i];
+            }
+            char[] chars = new char[charCount];
+            int[] offsets = new int[size + 1];
+            int[] postingStart = new int[size + 1];
+            long[] allPostings = new long[postingCount];
+            for (int rank = 0; rank < size; rank++) {
+                int i = byRank[rank];
+                String term = terms.get(i);
+                term.getChars(0, term.length(), chars, offsets[rank]);
+                offsets[rank + 1] = offsets[rank] + term.length();
+                System.arraycopy(postings.get(i), 0, allPostings, postingStart[rank], postingCounts[i]);
+                postingStart[rank + 1] = postingStart[rank] + postingCounts[i];
+            }
+            return new Terms(chars, offsets, postingStart, allPostings);
+        }
+    }
+
+    /**
+     * The best {@code limit} hits seen so far, one per teacher, ordered by score and then ID.
+     */
+    private static final class Hits {
+        private static final Comparator<Hit> ORDER = Comparator.comparingInt(Hit::score).reversed()
+                .thenComparingLong(Hit::id);
+
+        private final int limit;
+        private final NavigableSet<Hit> best = new TreeSet<>(ORDER);
+        private final Map<Long, Hit> byId = new HashMap<>();
+
+        Hits(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * @return {@code false} if a hit with this score could not make the list
+         */
+        boolean mayAccept(int score) {
+            return best.size() < limit || score >= best.last().score();
+        }
+
+        /**
+         * Offers a hit.
+         *
+         * @return {@code false} if the list is full and the hit ranks below all of it, so that
+         * hits with the same score and higher IDs need not be offered
+         */
+        boolean offer(long id, int score) {
+            Hit hit = new Hit(id, score);
+            if (best.size() == limit && ORDER.compare(hit, best.last()) > 0) {
+                return false;
+            }
+            Hit previous = byId.get(id);
+            if (previous != null) {
+                if (previous.score() >= score) {
+                    return true;
+                }
+                best.remove(previous);
+            }
+            best.add(hit);
+            byId.put(id, hit);
+            if (best.size() > limit) {
+                byId.remove(best.pollLast().id());
+            }
+            return true;
+        }
+
+        List<Long> ids() {
+            return best.stream().map(Hit::id).toList();
+        }
+    }
+
+    private record Hit(long id, int score) {
+    }
+}
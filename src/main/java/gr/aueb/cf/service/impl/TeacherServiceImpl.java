@@ -1,12 +1,28 @@
 package gr.aueb.cf.service.impl;
 
+import gr.aueb.cf.dao.BatchProgressListener;
 import gr.aueb.cf.dao.ITeacherDAO;
+import gr.aueb.cf.dao.Page;
+import gr.aueb.cf.dao.TeacherCriteria;
+import gr.aueb.cf.dao.TeacherFetchPlan;
+import gr.aueb.cf.dao.TeacherPatch;
+import gr.aueb.cf.dao.TeacherSearchCriteria;
+import gr.aueb.cf.dao.TeacherSort;
 import gr.aueb.cf.dao.impl.TeacherDAOImpl;
+import gr.aueb.cf.dto.TeacherSummary;
 import gr.aueb.cf.model.Teacher;
 import gr.aueb.cf.service.ITeacherService;
+import gr.aueb.cf.service.TeacherChangeListener;
+import gr.aueb.cf.util.JPAUtil;
+import gr.aueb.cf.util.Metrics;
+import gr.aueb.cf.util.UnitOfWork;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ITeacherService.
@@ -14,9 +30,10 @@ import java.util.Optional;
  */
 public class TeacherServiceImpl implements ITeacherService {
     private final ITeacherDAO teacherDAO;
+    private final ChangeListeners<TeacherChangeListener> listeners = new ChangeListeners<>();
 
     public TeacherServiceImpl() {
-        this.teacherDAO = new TeacherDAOImpl();
+        this.teacherDAO = Metrics.instrument(ITeacherDAO.class, new TeacherDAOImpl());
     }
 
     public TeacherServiceImpl(ITeacherDAO teacherDAO) {
@@ -26,21 +43,81 @@ public class TeacherServiceImpl implements ITeacherService {
     @Override
     public Teacher createTeacher(Teacher teacher) throws Exception {
         try {
-            validateTeacher(teacher);
-            return teacherDAO.insert(teacher);
+            Validation.validateTeacher(teacher);
+            Teacher created = teacherDAO.insert(teacher);
+            listeners.notify(listener -> listener.teacherSaved(created));
+            return created;
         } catch (Exception e) {
             throw new Exception("Error creating teacher: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public List<Teacher> createTeachers(Collection<Teacher> teachers) throws Exception {
+        return createTeachers(teachers, BatchProgressListener.NONE);
+    }
+
+    @Override
+    public List<Teacher> createTeachers(Collection<Teacher> teachers, BatchProgressListener listener) throws Exception {
+        try {
+            if (teachers == null) {
+                throw new IllegalArgumentException("Teachers cannot be null");
+            }
+            teachers.forEach(Validation::validateTeacher);
+            List<Teacher> created = teacherDAO.insertAll(teachers, JPAUtil.getBulkChunkSize(), listener);
+            listeners.notify(changeListener -> created.forEach(changeListener::teacherSaved));
+            return created;
+        } catch (Exception e) {
+            throw new Exception("Error creating teachers: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Teacher updateTeacher(Teacher teacher) throws Exception {
         try {
-            validateTeacher(teacher);
+            Validation.validateTeacher(teacher);
             if (teacher.getId() == null) {
                 throw new IllegalArgumentException("Teacher ID cannot be null for update");
             }
-            return teacherDAO.update(teacher);
+            Teacher updated = teacherDAO.update(teacher);
+            listeners.notify(listener -> listener.teacherSaved(updated));
+            return updated;
+        } catch (Exception e) {
+            throw new Exception("Error updating teacher: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long patchTeacher(Long id, long version, TeacherPatch patch) throws Exception {
+        try {
+            if (id == null) {
+                throw new IllegalArgumentException("Teacher ID cannot be null for update");
+            }
+            Validation.validateTeacherPatch(patch);
+            if (patch.isEmpty()) {
+                return version;
+            }
+            return notifySaved(id, teacherDAO.patch(id, version, patch));
+        } catch (Exception e) {
+            throw new Exception("Error updating teacher: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long updateTeacher(Long id, Function<Teacher, TeacherPatch> change) throws Exception {
+        try {
+            if (id == null || change == null) {
+                throw new IllegalArgumentException("Teacher ID and change cannot be null for update");
+            }
+            return notifySaved(id, OptimisticRetry.update(
+                    () -> teacherDAO.getById(id).orElseThrow(
+                            () -> new IllegalArgumentException("Teacher with ID " + id + " does not exist")),
+                    current -> {
+                        TeacherPatch patch = change.apply(current);
+                        Validation.validateTeacherPatch(patch);
+                        return patch.isEmpty() ? current.getVersion()
+                                : teacherDAO.patch(id, current.getVersion(), patch);
+                    }));
         } catch (Exception e) {
             throw new Exception("Error updating teacher: " + e.getMessage(), e);
         }
@@ -53,6 +130,7 @@ public class TeacherServiceImpl implements ITeacherService {
                 throw new IllegalArgumentException("Teacher ID cannot be null");
             }
             teacherDAO.delete(id);
+            listeners.notify(listener -> listener.teachersDeleted(List.of(id)));
         } catch (Exception e) {
             throw new Exception("Error deleting teacher: " + e.getMessage(), e);
         }
@@ -84,21 +162,226 @@ public class TeacherServiceImpl implements ITeacherService {
         return teacherDAO.getActiveTeachers();
     }
 
+    @Override
+    public Page<Teacher> getAllTeachersPage(String pageToken, int pageSize) {
+        return teacherDAO.getAllPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Page<Teacher> getTeachersByLastnamePage(String lastname, String pageToken, int pageSize) {
+        if (lastname == null || lastname.trim().isEmpty()) {
+            throw new IllegalArgumentException("Lastname cannot be null or empty");
+        }
+        return teacherDAO.getByLastnamePage(lastname, pageToken, pageSize);
+    }
+
+    @Override
+    public Page<Teacher> getActiveTeachersPage(String pageToken, int pageSize) {
+        return teacherDAO.getActiveTeachersPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Stream<Teacher> streamAllTeachers(int fetchSize) {
+        return teacherDAO.streamAll(fetchSize);
+    }
+
+    @Override
+    public Stream<Teacher> streamTeachersByLastname(String lastname, int fetchSize) {
+        if (lastname == null || lastname.trim().isEmpty()) {
+            throw new IllegalArgumentException("Lastname cannot be null or empty");
+        }
+        return teacherDAO.streamByLastname(lastname, fetchSize);
+    }
+
+    @Override
+    public Stream<Teacher> streamActiveTeachers(int fetchSize) {
+        return teacherDAO.streamActiveTeachers(fetchSize);
+    }
+
+    @Override
+    public Optional<Teacher> getTeacherById(Long id, TeacherFetchPlan plan) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return teacherDAO.getById(id, plan);
+    }
+
+    @Override
+    public List<Teacher> getAllTeachers(TeacherFetchPlan plan) {
+        return teacherDAO.getAll(plan);
+    }
+
+    @Override
+    public List<Teacher> getTeachersByLastname(String lastname, TeacherFetchPlan plan) {
+        if (lastname == null || lastname.trim().isEmpty()) {
+            throw new IllegalArgumentException("Lastname cannot be null or empty");
+        }
+        return teacherDAO.getByLastname(lastname, plan);
+    }
+
+    @Override
+    public List<Teacher> getActiveTeachers(TeacherFetchPlan plan) {
+        return teacherDAO.getActiveTeachers(plan);
+    }
+
+    @Override
+    public Page<Teacher> getAllTeachersPage(String pageToken, int pageSize, TeacherFetchPlan plan) {
+        return teacherDAO.getAllPage(pageToken, pageSize, plan);
+    }
+
+    @Override
+    public List<TeacherSummary> getAllTeacherSummaries() {
+        return teacherDAO.getAllSummaries();
+    }
+
+    @Override
+    public List<TeacherSummary> getTeacherSummariesByLastname(String lastname) {
+        if (lastname == null || lastname.trim().isEmpty()) {
+            throw new IllegalArgumentException("Lastname cannot be null or empty");
+        }
+        return teacherDAO.getSummariesByLastname(lastname);
+    }
+
+    @Override
+    public List<TeacherSummary> getActiveTeacherSummaries() {
+        return teacherDAO.getActiveSummaries();
+    }
+
+    @Override
+    public Page<TeacherSummary> getTeacherSummariesPage(String pageToken, int pageSize) {
+        return teacherDAO.getSummariesPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Page<TeacherSummary> searchTeachers(TeacherSearchCriteria criteria, TeacherSort sort, String pageToken,
+                                               int pageSize) {
+        if (criteria == null || sort == null) {
+            throw new IllegalArgumentException("Search criteria and sort cannot be null");
+        }
+        if (criteria.bornFrom() != null && criteria.bornTo() != null
+                && criteria.bornFrom().isAfter(criteria.bornTo())) {
+            throw new IllegalArgumentException("Date of birth range cannot end before it starts");
+        }
+        if (criteria.lastnamePrefix() != null && criteria.lastnamePrefix().trim().isEmpty()) {
+            criteria = criteria.withLastnamePrefix(null);
+        }
+        return teacherDAO.search(criteria, sort, pageToken, pageSize);
+    }
+
+    @Override
+    public int activateTeachers(Collection<Long> ids) throws Exception {
+        try {
+            validateIds(ids);
+            int changed = teacherDAO.setActive(ids, true);
+            if (changed > 0) {
+                List<Long> changedIds = List.copyOf(ids);
+                listeners.notify(listener -> listener.teachersActiveChanged(changedIds, true));
+            }
+            return changed;
+        } catch (Exception e) {
+            throw new Exception("Error activating teachers: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deactivateTeachers(Collection<Long> ids) throws Exception {
+        try {
+            validateIds(ids);
+            int changed = teacherDAO.setActive(ids, false);
+            if (changed > 0) {
+                List<Long> changedIds = List.copyOf(ids);
+                listeners.notify(listener -> listener.teachersActiveChanged(changedIds, false));
+            }
+            return changed;
+        } catch (Exception e) {
+            throw new Exception("Error deactivating teachers: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int activateTeachers(TeacherCriteria criteria) throws Exception {
+        try {
+            if (criteria == null) {
+                throw new IllegalArgumentException("Criteria cannot be null");
+            }
+            int changed = teacherDAO.setActive(criteria, true);
+            if (changed > 0) {
+                listeners.notify(TeacherChangeListener::teachersChanged);
+            }
+            return changed;
+        } catch (Exception e) {
+            throw new Exception("Error activating teachers: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deactivateTeachers(TeacherCriteria criteria) throws Exception {
+        try {
+            if (criteria == null) {
+                throw new IllegalArgumentException("Criteria cannot be null");
+            }
+            int changed = teacherDAO.setActive(criteria, false);
+            if (changed > 0) {
+                listeners.notify(TeacherChangeListener::teachersChanged);
+            }
+            return changed;
+        } catch (Exception e) {
+            throw new Exception("Error deactivating teachers: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deleteTeachers(Collection<Long> ids) throws Exception {
+        try {
+            validateIds(ids);
+            int deleted = teacherDAO.deleteAll(ids);
+            List<Long> deletedIds = List.copyOf(ids);
+            listeners.notify(listener -> listener.teachersDeleted(deletedIds));
+            return deleted;
+        } catch (Exception e) {
+            throw new Exception("Error deleting teachers: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void addChangeListener(TeacherChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(TeacherChangeListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
-     * Validates teacher data before persistence.
+     * Notifies the listeners of a teacher changed by a patch, which leaves no entity to pass on: the teacher is
+     * read again after the commit, and only if someone is listening.
      *
-     * @param teacher the teacher to validate
-     * @throws IllegalArgumentException if validation fails
+     * @param id the ID of the patched teacher
+     * @param version the new version of the teacher
+     * @return the given version
      */
-    private void validateTeacher(Teacher teacher) {
-        if (teacher == null) {
-            throw new IllegalArgumentException("Teacher cannot be null");
+    private long notifySaved(Long id, long version) {
+        if (listeners.isEmpty()) {
+            return version;
         }
-        if (teacher.getFirstname() == null || teacher.getFirstname().trim().isEmpty()) {
-            throw new IllegalArgumentException("Teacher firstname cannot be null or empty");
+        UnitOfWork.afterCommit(() -> teacherDAO.getById(id)
+                .ifPresent(saved -> listeners.notify(listener -> listener.teacherSaved(saved))));
+        return version;
+    }
+
+    /**
+     * Validates the IDs of a bulk operation.
+     *
+     * @param ids the IDs to validate
+     * @throws IllegalArgumentException if the collection or any of its elements is null
+     */
+    private void validateIds(Collection<Long> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Teacher IDs cannot be null");
         }
-        if (teacher.getLastname() == null || teacher.getLastname().trim().isEmpty()) {
-            throw new IllegalArgumentException("Teacher lastname cannot be null or empty");
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Teacher IDs cannot contain null");
         }
     }
 }
@@ -0,0 +1,115 @@
+package gr.aueb.cf.service.impl;
+
+import gr.aueb.cf.dao.CoursePatch;
+import gr.aueb.cf.dao.RegionPatch;
+import gr.aueb.cf.dao.TeacherPatch;
+import gr.aueb.cf.model.Course;
+import gr.aueb.cf.model.Region;
+import gr.aueb.cf.model.Teacher;
+
+import java.util.Map;
+
+/**
+ * Validation rules shared by the services and the import pipeline, so that every write path
+ * accepts exactly the same data.
+ */
+final class Validation {
+
+    private Validation() {
+    }
+
+    /**
+     * Validates teacher data before persistence.
+     *
+     * @param teacher the teacher to validate
+     * @throws IllegalArgumentException if validation fails
+     */
+    static void validateTeacher(Teacher teacher) {
+        if (teacher == null) {
+            throw new IllegalArgumentException("Teacher cannot be null");
+        }
+        if (teacher.getFirstname() == null || teacher.getFirstname().trim().isEmpty()) {
+            throw new IllegalArgumentException("Teacher firstname cannot be null or empty");
+        }
+        if (teacher.getLastname() == null || teacher.getLastname().trim().isEmpty()) {
+            throw new IllegalArgumentException("Teacher lastname cannot be null or empty");
+        }
+    }
+
+    /**
+     * Validates course data before persistence.
+     *
+     * @param course the course to validate
+     * @throws IllegalArgumentException if validation fails
+     */
+    static void validateCourse(Course course) {
+        if (course == null) {
+            throw new IllegalArgumentException("Course cannot be null");
+        }
+        if (course.getTitle() == null || course.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Course title cannot be null or empty");
+        }
+    }
+
+    /**
+     * Validates region data before persistence.
+     *
+     * @param region the region to validate
+     * @throws IllegalArgumentException if validation fails
+     */
+    static void validateRegion(Region region) {
+        if (region == null) {
+            throw new IllegalArgumentException("Region cannot be null");
+        }
+        if (region.getTitle() == null || region.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Region title cannot be null or empty");
+        }
+    }
+
+    /**
+     * Validates a teacher patch with the rules of {@link #validateTeacher(Teacher)} for the fields it changes.
+     *
+     * @param patch the patch to validate
+     * @throws IllegalArgumentException if validation fails
+     */
+    static void validateTeacherPatch(TeacherPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Teacher patch cannot be null");
+        }
+        requireText(patch.changes(), "firstname", "Teacher firstname cannot be null or empty");
+        requireText(patch.changes(), "lastname", "Teacher lastname cannot be null or empty");
+    }
+
+    /**
+     * Validates a course patch with the rules of {@link #validateCourse(Course)} for the fields it changes.
+     *
+     * @param patch the patch to validate
+     * @throws IllegalArgumentException if validation fails
+     */
+    static void validateCoursePatch(CoursePatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Course patch cannot be null");
+        }
+        requireText(patch.changes(), "title", "Course title cannot be null or empty");
+    }
+
+    /**
+     * Validates a region patch with the rules of {@link #validateRegion(Region)} for the fields it changes.
+     *
+     * @param patch the patch to validate
+     * @throws IllegalArgumentException if validation fails
+     */
+    static void validateRegionPatch(RegionPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Region patch cannot be null");
+        }
+        requireText(patch.changes(), "title", "Region title cannot be null or empty");
+    }
+
+    private static void requireText(Map<String, Object> changes, String attribute, String message) {
+        if (changes.containsKey(attribute)
+                && (!(changes.get(attribute) instanceof String text) || text.trim().isEmpty())) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.util;
+
+/**
+ * Statistics of one second-level cache region.
+ *
+ * @param region     the cache region name
+ * @param hits       lookups served from the cache
+ * @param misses     lookups that went to the database
+ * @param puts       entries stored
+ * @param evictions  entries evicted because the region was full
+ * @param removals   entries invalidated by writes
+ */
+public record CacheRegionStats(String region, long hits, long misses, long puts, long evictions, long removals) {
+
+    /**
+     * @return the share of lookups served from the cache, between 0 and 1
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
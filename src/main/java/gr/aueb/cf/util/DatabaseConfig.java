@@ -0,0 +1,94 @@
+package gr.aueb.cf.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Database and connection pool settings, resolved per environment.
+ * Values are read from {@code database.properties}, then overlaid by {@code database-<env>.properties}
+ * where {@code env} comes from the {@code app.env} system property or the {@code APP_ENV} environment variable,
+ * and finally by any {@code db.*} JVM system property (e.g. {@code -Ddb.pool.max-size=40}).
+ */
+public final class DatabaseConfig {
+    private static final String BASE_RESOURCE = "database.properties";
+
+    private final Properties properties;
+
+    private DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads the configuration for the current environment.
+     *
+     * @return the resolved configuration
+     */
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        loadResource(properties, BASE_RESOURCE);
+        String env = System.getProperty("app.env", System.getenv("APP_ENV"));
+        if (env != null && !env.isBlank()) {
+            loadResource(properties, "database-" + env.trim() + ".properties");
+        }
+        System.getProperties().forEach((key, value) -> {
+            if (key.toString().startsWith("db.")) {
+                properties.setProperty(key.toString(), value.toString());
+            }
+        });
+        return new DatabaseConfig(properties);
+    }
+
+    private static void loadResource(Properties properties, String name) {
+        try (InputStream in = DatabaseConfig.class.getClassLoader().getResourceAsStream(name)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + name, e);
+        }
+    }
+
+    /**
+     * @param key the property name
+     * @return the value, or {@code null} if not set
+     */
+    public String get(String key) {
+        String value = properties.getProperty(key);
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * @param key the property name
+     * @return the value
+     * @throws IllegalStateException if the property is not set
+     */
+    public String require(String key) {
+        String value = get(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing database setting '" + key + "'");
+        }
+        return value;
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : Long.parseLong(value);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,122 @@
+package gr.aueb.cf.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs blocking database work on virtual threads with bounded concurrency.
+ * <p>
+ * Every task gets its own virtual thread, so callers never park a platform thread on JDBC. Admission is
+ * controlled by a fair semaphore sized to the connection pool: any number of tasks may be submitted, but only
+ * as many run at once as there are connections, and the rest wait in FIFO order on a cheap virtual-thread park
+ * instead of queueing inside the pool until its connection timeout.
+ * <p>
+ * Virtual threads on Java 21 pin their carrier while blocked inside {@code synchronized}. MySQL Connector/J 9
+ * and HikariCP 6 guard their blocking paths with {@code java.util.concurrent} locks instead; run with
+ * {@code -Djdk.tracePinnedThreads=short} to check another driver, as AsyncServiceBenchmark does.
+ */
+public final class DatabaseExecutor implements AutoCloseable {
+    private static final ReentrantLock SHARED_LOCK = new ReentrantLock();
+    private static volatile DatabaseExecutor shared;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    /**
+     * @param maxConcurrency the number of tasks allowed to run at once
+     */
+    public DatabaseExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-", 0).factory());
+    }
+
+    /**
+     * Returns the executor shared by the async services, sized by {@code db.async.max-concurrency}
+     * (default: {@code db.pool.max-size}).
+     *
+     * @return the shared executor
+     */
+    public static DatabaseExecutor shared() {
+        DatabaseExecutor executor = shared;
+        if (executor == null) {
+            SHARED_LOCK.lock();
+            try {
+                executor = shared;
+                if (executor == null) {
+                    DatabaseConfig config = JPAUtil.getConfig();
+                    executor = new DatabaseExecutor(config.getInt("db.async.max-concurrency",
+                            config.getInt("db.pool.max-size", 10)));
+                    shared = executor;
+                }
+            } finally {
+                SHARED_LOCK.unlock();
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Runs the task on a new virtual thread once a permit is free.
+     *
+     * @param task the blocking task
+     * @return a future completed with the task's result or exception
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return the number of tasks allowed to run at once
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the number of tasks currently running
+     */
+    public int getActiveTasks() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return an estimate of the number of tasks waiting for a permit
+     */
+    public int getWaitingTasks() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Stops accepting tasks and waits for the submitted ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,59 @@
+package gr.aueb.cf.util;
+
+import gr.aueb.cf.model.PooledIdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.List;
+
+/**
+ * Migration path from IDENTITY columns to {@link PooledIdGenerator}.
+ * Makes sure every generator segment starts above the highest ID already stored in its table,
+ * so rows inserted before the switch never collide with generated IDs. Safe to run on every start:
+ * it only ever moves a segment forward.
+ */
+public final class IdGeneratorMigration {
+    /**
+     * Generator segments; each one is named after the table whose IDs it generates.
+     */
+    private static final List<String> SEGMENTS = List.of("regions", "courses", "teacher_more_info", "teachers");
+
+    private IdGeneratorMigration() {
+    }
+
+    /**
+     * Seeds or advances the generator rows from the current {@code MAX(id)} of each table.
+     *
+     * @param emf the factory whose schema to migrate
+     */
+    public static void run(EntityManagerFactory emf) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (String segment : SEGMENTS) {
+                String nextId = "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + segment + ")";
+                em.createNativeQuery("INSERT INTO " + PooledIdGenerator.TABLE
+                                + " (" + PooledIdGenerator.SEGMENT_COLUMN + ", " + PooledIdGenerator.VALUE_COLUMN + ")"
+                                + " SELECT :segment, " + nextId + " FROM (SELECT 1 AS one) seed"
+                                + " WHERE NOT EXISTS (SELECT 1 FROM " + PooledIdGenerator.TABLE
+                                + " WHERE " + PooledIdGenerator.SEGMENT_COLUMN + " = :segment)")
+                        .setParameter("segment", segment)
+                        .executeUpdate();
+                em.createNativeQuery("UPDATE " + PooledIdGenerator.TABLE
+                                + " SET " + PooledIdGenerator.VALUE_COLUMN + " = " + nextId
+                                + " WHERE " + PooledIdGenerator.SEGMENT_COLUMN + " = :segment"
+                                + " AND " + PooledIdGenerator.VALUE_COLUMN + " < " + nextId)
+                        .setParameter("segment", segment)
+                        .executeUpdate();
+            }
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -1,16 +1,46 @@
 package gr.aueb.cf.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import gr.aueb.cf.model.PooledIdGenerator;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Utility class for managing JPA EntityManagerFactory and EntityManager instances.
  * Provides singleton pattern for EntityManagerFactory to ensure efficient resource management.
+ * Connections come from a HikariCP pool configured through {@link DatabaseConfig}.
+ * The factory is built exactly once, either on first use or eagerly through {@link #startAsync()}.
+ * With {@code db.replica.urls} set, reporting reads can be served by read replicas through
+ * {@link #getReadEntityManager()}; see {@link ReplicaRouting}.
  */
 public class JPAUtil {
     private static final String PERSISTENCE_UNIT_NAME = "schoolPU";
-    private static EntityManagerFactory emf;
+    private static final System.Logger LOGGER = System.getLogger(JPAUtil.class.getName());
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static volatile EntityManagerFactory emf;
+    private static volatile HikariDataSource dataSource;
+    private static volatile ReplicaSet replicas;
+    private static volatile PoolMetricsTracker poolMetrics;
+    private static volatile DatabaseConfig config;
+    private static volatile Duration startupTime;
+    private static CompletableFuture<EntityManagerFactory> startup;
 
     /**
      * Private constructor to prevent instantiation.
@@ -20,33 +50,402 @@ public class JPAUtil {
 
     /**
      * Gets the EntityManagerFactory instance (singleton pattern).
-     * Creates it if it doesn't exist.
+     * Creates it if it doesn't exist; concurrent callers wait for the single build in progress.
      *
      * @return the EntityManagerFactory instance
      */
     public static EntityManagerFactory getEntityManagerFactory() {
-        if (emf == null || !emf.isOpen()) {
-            emf = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT_NAME);
+        EntityManagerFactory factory = emf;
+        if (factory != null && factory.isOpen()) {
+            return factory;
+        }
+        LOCK.lock();
+        try {
+            if (emf == null || !emf.isOpen()) {
+                emf = buildEntityManagerFactory();
+            }
+            return emf;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Starts building the EntityManagerFactory on a background thread, typically at application start,
+     * so that the first request does not pay for pool start-up, metadata build and schema handling.
+     * Calling it again returns the same future unless the previous attempt failed.
+     *
+     * @return a future completed with the factory once it is ready
+     */
+    public static CompletableFuture<EntityManagerFactory> startAsync() {
+        LOCK.lock();
+        try {
+            if (startup == null || startup.isCompletedExceptionally()) {
+                startup = CompletableFuture.supplyAsync(JPAUtil::getEntityManagerFactory,
+                        task -> Thread.ofPlatform().name("jpa-bootstrap").daemon().start(task));
+            }
+            return startup;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} once the EntityManagerFactory is built and open
+     */
+    public static boolean isReady() {
+        EntityManagerFactory factory = emf;
+        return factory != null && factory.isOpen();
+    }
+
+    /**
+     * Returns the database configuration the factory was (or will be) built with.
+     *
+     * @return the current configuration
+     */
+    public static DatabaseConfig getConfig() {
+        DatabaseConfig current = config;
+        if (current == null) {
+            current = DatabaseConfig.load();
+            config = current;
         }
-        return emf;
+        return current;
+    }
+
+    /**
+     * Returns the number of statements Hibernate groups into one JDBC batch, as the factory resolved it:
+     * {@code db.batch-size} unless {@code hibernate.jdbc.batch_size} is set explicitly. Builds the factory if
+     * needed.
+     *
+     * @return the batch size, at least 1
+     */
+    public static int getJdbcBatchSize() {
+        SessionFactoryImplementor factory = getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return Math.max(1, factory.getSessionFactoryOptions().getJdbcBatchSize());
+    }
+
+    /**
+     * @return the number of rows bulk operations write per transaction ({@code db.bulk.chunk-size})
+     */
+    public static int getBulkChunkSize() {
+        return getConfig().getInt("db.bulk.chunk-size", 1000);
     }
 
     /**
-     * Creates a new EntityManager instance.
+     * @return how often a read-modify-write update of the services is tried when it keeps losing to concurrent
+     * writers ({@code db.update.max-attempts})
+     */
+    public static int getUpdateAttempts() {
+        return Math.max(1, getConfig().getInt("db.update.max-attempts", 3));
+    }
+
+    /**
+     * @return how long the last bootstrap took (pool start plus factory build), or {@code null} if not started
+     */
+    public static Duration getStartupTime() {
+        return startupTime;
+    }
+
+    /**
+     * Creates a new EntityManager instance, or returns the one of the active {@link UnitOfWork}.
      *
-     * @return a new EntityManager instance
+     * @return a new EntityManager instance, or the unit of work's EntityManager if one is active
      */
     public static EntityManager getEntityManager() {
+        EntityManager joined = UnitOfWork.currentEntityManager();
+        if (joined != null) {
+            return joined;
+        }
         return getEntityManagerFactory().createEntityManager();
     }
 
+    /**
+     * Returns an EntityManager for a read-only operation: on a read replica when replicas are configured, one is
+     * healthy and the current thread does not need to read its own writes ({@link ReplicaRouting}), otherwise
+     * on the primary exactly like {@link #getEntityManager()}. Entities read from a replica are read-only and
+     * may lag behind the primary; the caller closes the EntityManager as usual.
+     *
+     * @return the EntityManager
+     */
+    public static EntityManager getReadEntityManager() {
+        EntityManager joined = UnitOfWork.currentEntityManager();
+        if (joined != null) {
+            return joined;
+        }
+        EntityManagerFactory factory = getEntityManagerFactory();
+        ReplicaSet replicaSet = replicas;
+        if (replicaSet != null && !ReplicaRouting.isPrimaryRequired()) {
+            EntityManager replica = replicaSet.openEntityManager(factory);
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return factory.createEntityManager();
+    }
+
+    /**
+     * Returns live statistics of the connection pool.
+     *
+     * @return the pool statistics, all zero if the pool has not been started
+     */
+    public static PoolStats getPoolStats() {
+        HikariDataSource ds = dataSource;
+        if (ds == null || ds.isClosed() || ds.getHikariPoolMXBean() == null) {
+            return new PoolStats(0, 0, 0, 0, 0, 0.0, 0.0, 0);
+        }
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                poolMetrics.getAcquireCount(),
+                poolMetrics.getMeanAcquireMillis(),
+                poolMetrics.getMaxAcquireMillis(),
+                poolMetrics.getTimeouts());
+    }
+
+    /**
+     * Returns the health and load of every read replica.
+     *
+     * @return the statistics per replica, empty if no replicas are configured or the factory is not built
+     */
+    public static List<ReplicaStats> getReplicaStats() {
+        ReplicaSet replicaSet = replicas;
+        return replicaSet == null ? List.of() : replicaSet.stats();
+    }
+
+    /**
+     * @return the reads sent to the primary because no replica was healthy
+     */
+    public static long getReplicaFallbacks() {
+        ReplicaSet replicaSet = replicas;
+        return replicaSet == null ? 0 : replicaSet.fallbacks();
+    }
+
+    /**
+     * Returns hit, miss and eviction statistics of every second-level cache region,
+     * as published by the JCache provider.
+     *
+     * @return the statistics per region, sorted by region name
+     */
+    public static List<CacheRegionStats> getCacheStats() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        List<CacheRegionStats> stats = new ArrayList<>();
+        try {
+            for (ObjectName name : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                stats.add(new CacheRegionStats(
+                        name.getKeyProperty("Cache"),
+                        (Long) server.getAttribute(name, "CacheHits"),
+                        (Long) server.getAttribute(name, "CacheMisses"),
+                        (Long) server.getAttribute(name, "CachePuts"),
+                        (Long) server.getAttribute(name, "CacheEvictions"),
+                        (Long) server.getAttribute(name, "CacheRemovals")));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot read cache statistics", e);
+        }
+        stats.sort(Comparator.comparing(CacheRegionStats::region));
+        return stats;
+    }
+
     /**
      * Closes the EntityManagerFactory and releases all resources.
      * Should be called when the application shuts down.
      */
     public static void closeEntityManagerFactory() {
-        if (emf != null && emf.isOpen()) {
-            emf.close();
+        LOCK.lock();
+        try {
+            if (emf != null && emf.isOpen()) {
+                emf.close();
+            }
+            if (replicas != null) {
+                replicas.close();
+                replicas = null;
+            }
+            if (dataSource != null && !dataSource.isClosed()) {
+                dataSource.close();
+            }
+            emf = null;
+            startup = null;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Starts the pool and builds the factory, recording how long each step takes.
+     * The schema action comes from {@code db.schema-action} ({@code update} in development,
+     * {@code validate} in production) unless {@code hibernate.hbm2ddl.auto} is set explicitly.
+     * SQL is only logged with {@code db.show-sql=true}; per-call statement counts are in {@link Metrics}.
+     *
+     * @return the new factory
+     */
+    private static EntityManagerFactory buildEntityManagerFactory() {
+        long start = System.nanoTime();
+        config = DatabaseConfig.load();
+        EntityManagerFactory factory = null;
+        try {
+            dataSource = createDataSource(config);
+            replicas = createReplicas(config);
+            long poolReady = System.nanoTime();
+
+            Map<String, Object> properties = getPropertyOverrides();
+            properties.put("jakarta.persistence.nonJtaDataSource", dataSource);
+            properties.putIfAbsent("hibernate.hbm2ddl.auto", config.get("db.schema-action", "update"));
+            properties.putIfAbsent("hibernate.jdbc.batch_size", String.valueOf(config.getInt("db.batch-size", 50)));
+            properties.putIfAbsent(PooledIdGenerator.ALLOCATION_SIZE_SETTING,
+                    String.valueOf(config.getInt("db.id.allocation-size", 50)));
+            properties.putIfAbsent("hibernate.show_sql", config.get("db.show-sql", "false"));
+            properties.putIfAbsent("hibernate.format_sql", config.get("db.show-sql", "false"));
+            if (config.getBoolean("db.metrics.enabled", true)) {
+                properties.putIfAbsent("hibernate.session.events.auto", SessionMetricsListener.class.getName());
+                properties.putIfAbsent("hibernate.session_factory.interceptor", new SessionMetricsListener());
+            }
+            if (replicas != null) {
+                properties.putIfAbsent("hibernate.session_factory.statement_inspector", new WriteTracker());
+            }
+            factory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT_NAME, properties);
+            if (config.getBoolean("db.id.migrate", true)) {
+                IdGeneratorMigration.run(factory);
+            }
+            long end = System.nanoTime();
+
+            startupTime = Duration.ofNanos(end - start);
+            LOGGER.log(System.Logger.Level.INFO, "{0} ready in {1} ms (connection pool {2} ms, factory {3} ms, schema action {4})",
+                    PERSISTENCE_UNIT_NAME, startupTime.toMillis(), Duration.ofNanos(poolReady - start).toMillis(),
+                    Duration.ofNanos(end - poolReady).toMillis(), properties.get("hibernate.hbm2ddl.auto"));
+            return factory;
+        } catch (RuntimeException | Error e) {
+            releaseAfterFailedBuild(factory, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes what a failed build had already started, so that a retry does not leak the pools or the replica
+     * health check thread; failures to close are attached to the original failure.
+     */
+    private static void releaseAfterFailedBuild(EntityManagerFactory factory, Throwable failure) {
+        List<AutoCloseable> started = new ArrayList<>();
+        if (factory != null) {
+            started.add(factory::close);
+        }
+        if (replicas != null) {
+            started.add(replicas);
         }
+        if (dataSource != null) {
+            started.add(dataSource);
+        }
+        for (AutoCloseable resource : started) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                failure.addSuppressed(e);
+            }
+        }
+        replicas = null;
+        dataSource = null;
+    }
+
+    /**
+     * Builds the connection pool from the {@code db.*} settings.
+     *
+     * @param config the database configuration
+     * @return the started pool
+     */
+    private static HikariDataSource createDataSource(DatabaseConfig config) {
+        HikariConfig hikari = poolConfig(config, config.get("db.pool.name", PERSISTENCE_UNIT_NAME),
+                config.require("db.url"), config.get("db.username"), config.get("db.password"));
+        poolMetrics = new PoolMetricsTracker();
+        hikari.setMetricsTrackerFactory(poolMetrics);
+        return new HikariDataSource(hikari);
+    }
+
+    /**
+     * Builds one pool per URL in {@code db.replica.urls}, with the primary's settings except for
+     * {@code db.replica.*} overrides. A replica that is down at start does not stop the bootstrap; it is
+     * marked down by the first failed read or health check.
+     *
+     * @param config the database configuration
+     * @return the replicas, or {@code null} if none are configured
+     */
+    private static ReplicaSet createReplicas(DatabaseConfig config) {
+        String urls = config.get("db.replica.urls", "");
+        if (urls.isBlank()) {
+            return null;
+        }
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig hikari = poolConfig(config,
+                    config.get("db.pool.name", PERSISTENCE_UNIT_NAME) + "-replica-" + (pools.size() + 1), url.trim(),
+                    config.get("db.replica.username", config.get("db.username")),
+                    config.get("db.replica.password", config.get("db.password")));
+            hikari.setMaximumPoolSize(config.getInt("db.replica.pool.max-size", hikari.getMaximumPoolSize()));
+            hikari.setConnectionTimeout(config.getLong("db.replica.pool.connection-timeout-ms", 1_000));
+            hikari.setReadOnly(true);
+            hikari.setInitializationFailTimeout(-1);
+            try {
+                pools.add(new HikariDataSource(hikari));
+            } catch (RuntimeException e) {
+                pools.forEach(HikariDataSource::close);
+                throw e;
+            }
+        }
+        ReplicaRouting.setReadYourWritesWindow(Duration.ofMillis(config.getLong("db.replica.read-your-writes-ms",
+                2_000)));
+        return new ReplicaSet(pools, ReplicaSet.Selection.of(config.get("db.replica.selection", "round-robin")),
+                Duration.ofMillis(config.getLong("db.replica.health-check-ms", 5_000)),
+                Duration.ofMillis(config.getLong("db.pool.validation-timeout-ms", 3_000)));
+    }
+
+    /**
+     * @return the pool settings shared by the primary and the replicas
+     */
+    private static HikariConfig poolConfig(DatabaseConfig config, String poolName, String url, String username,
+                                           String password) {
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName(poolName);
+        hikari.setJdbcUrl(url);
+        hikari.setUsername(username);
+        hikari.setPassword(password);
+        String driver = config.get("db.driver");
+        if (driver != null && !driver.isEmpty()) {
+            hikari.setDriverClassName(driver);
+        }
+        hikari.setMinimumIdle(config.getInt("db.pool.min-idle", 2));
+        hikari.setMaximumPoolSize(config.getInt("db.pool.max-size", 10));
+        hikari.setConnectionTimeout(config.getLong("db.pool.connection-timeout-ms", 5_000));
+        hikari.setIdleTimeout(config.getLong("db.pool.idle-timeout-ms", 300_000));
+        hikari.setMaxLifetime(config.getLong("db.pool.max-lifetime-ms", 1_800_000));
+        hikari.setKeepaliveTime(config.getLong("db.pool.keepalive-ms", 120_000));
+        hikari.setValidationTimeout(config.getLong("db.pool.validation-timeout-ms", 3_000));
+        String testQuery = config.get("db.pool.test-query");
+        if (testQuery != null && !testQuery.isEmpty()) {
+            hikari.setConnectionTestQuery(testQuery);
+        }
+        hikari.setLeakDetectionThreshold(config.getLong("db.pool.leak-detection-ms", 0));
+        hikari.setRegisterMbeans(config.getBoolean("db.pool.jmx", true));
+        return hikari;
+    }
+
+    /**
+     * Collects JVM system properties that override persistence.xml settings,
+     * e.g. {@code -Dhibernate.hbm2ddl.auto=validate}.
+     *
+     * @return the overriding properties, empty if none are set
+     */
+    private static Map<String, Object> getPropertyOverrides() {
+        Map<String, Object> overrides = new HashMap<>();
+        System.getProperties().forEach((key, value) -> {
+            String name = key.toString();
+            if (name.startsWith("hibernate.") || name.startsWith("jakarta.persistence.")) {
+                overrides.put(name, value);
+            }
+        });
+        return overrides;
     }
 }
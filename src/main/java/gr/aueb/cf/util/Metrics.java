@@ -0,0 +1,190 @@
+package gr.aueb.cf.util;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Per-method latency and database-work metrics for the DAO and service interfaces.
+ * <p>
+ * {@link #instrument(Class, Object)} wraps an implementation in a proxy that records, for every call, its
+ * latency into a histogram, whether it threw, and how many JDBC round trips, entity loads and flushes it caused
+ * on its thread (see {@link SessionMetricsListener}). Calls nest: a service method's figures include those of
+ * the DAO methods it calls. For stream-returning methods only the time to open the stream is measured.
+ * <p>
+ * The default constructors of the services and async services instrument the DAOs and services they create;
+ * code that composes services itself wraps them the same way:
+ * {@code Metrics.instrument(ITeacherService.class, new TeacherServiceImpl())}.
+ * Statistics are read with {@link #snapshot()} or over JMX as {@value #OBJECT_NAME}. The overhead is a proxy
+ * dispatch, two clock reads and a few uncontended increments per call; {@code db.metrics.enabled=false} turns
+ * instrumentation off and {@code db.metrics.jmx=false} skips the MBean.
+ */
+public final class Metrics {
+    public static final String OBJECT_NAME = "gr.aueb.cf:type=Metrics";
+
+    private static final System.Logger LOGGER = System.getLogger(Metrics.class.getName());
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    private static final ReentrantLock JMX_LOCK = new ReentrantLock();
+    private static boolean jmxRegistered;
+
+    private Metrics() {
+    }
+
+    /**
+     * Wraps the target so that every call through the interface is measured.
+     * Instances of the same interface share their statistics.
+     *
+     * @param type   the interface to instrument
+     * @param target the implementation
+     * @return the instrumented proxy, or the target itself if metrics are disabled
+     */
+    public static <T> T instrument(Class<T> type, T target) {
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException(type.getName() + " is not an interface");
+        }
+        if (target == null || !JPAUtil.getConfig().getBoolean("db.metrics.enabled", true)) {
+            return target;
+        }
+        registerMBean();
+        Map<Method, OperationMetrics> operations = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            operations.put(method, OPERATIONS.computeIfAbsent(operationName(type, method),
+                    name -> new OperationMetrics()));
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    OperationMetrics metrics = operations.get(method);
+                    if (metrics == null) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> "Metrics[" + target + "]";
+                        };
+                    }
+                    long[] counters = SessionMetricsListener.counters();
+                    long statements = counters[SessionMetricsListener.STATEMENTS];
+                    long entityLoads = counters[SessionMetricsListener.ENTITY_LOADS];
+                    long flushes = counters[SessionMetricsListener.FLUSHES];
+                    long start = System.nanoTime();
+                    boolean failed = false;
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        failed = true;
+                        throw e.getCause();
+                    } finally {
+                        metrics.record(System.nanoTime() - start, failed,
+                                counters[SessionMetricsListener.STATEMENTS] - statements,
+                                counters[SessionMetricsListener.ENTITY_LOADS] - entityLoads,
+                                counters[SessionMetricsListener.FLUSHES] - flushes);
+                    }
+                }));
+    }
+
+    /**
+     * Returns the statistics of every instrumented method that has been called at least once.
+     *
+     * @return the statistics, sorted by operation name
+     */
+    public static List<OperationStats> snapshot() {
+        return OPERATIONS.entrySet().stream()
+                .filter(entry -> entry.getValue().calls.sum() > 0)
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing(OperationStats::operation))
+                .toList();
+    }
+
+    /**
+     * Clears all statistics; calls in progress are recorded into the cleared ones.
+     */
+    public static void reset() {
+        OPERATIONS.values().forEach(OperationMetrics::reset);
+    }
+
+    private static String operationName(Class<?> type, Method method) {
+        return type.getSimpleName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static void registerMBean() {
+        JMX_LOCK.lock();
+        try {
+            if (jmxRegistered || !JPAUtil.getConfig().getBoolean("db.metrics.jmx", true)) {
+                return;
+            }
+            jmxRegistered = true;
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMXBean() {
+                @Override
+                public List<OperationStats> getOperations() {
+                    return snapshot();
+                }
+
+                @Override
+                public void reset() {
+                    Metrics.reset();
+                }
+            }, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Cannot register " + OBJECT_NAME, e);
+        } finally {
+            JMX_LOCK.unlock();
+        }
+    }
+
+    /**
+     * The running totals of one operation.
+     */
+    private static final class OperationMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder flushes = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(long nanos, boolean failed, long statementCount, long entityLoadCount, long flushCount) {
+            latency.record(nanos);
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            if (statementCount != 0) {
+                statements.add(statementCount);
+            }
+            if (entityLoadCount != 0) {
+                entityLoads.add(entityLoadCount);
+            }
+            if (flushCount != 0) {
+                flushes.add(flushCount);
+            }
+        }
+
+        OperationStats snapshot(String operation) {
+            return new OperationStats(operation, calls.sum(), errors.sum(),
+                    latency.percentile(0.50) / 1_000_000.0, latency.percentile(0.99) / 1_000_000.0,
+                    latency.max() / 1_000_000.0, statements.sum(), entityLoads.sum(), flushes.sum());
+        }
+
+        void reset() {
+            calls.reset();
+            errors.reset();
+            statements.reset();
+            entityLoads.reset();
+            flushes.reset();
+            latency.reset();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package gr.aueb.cf.util;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link Metrics}, registered as {@value Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return the statistics of every instrumented method that has been called
+     */
+    List<OperationStats> getOperations();
+
+    /**
+     * Clears all statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,32 @@
+package gr.aueb.cf.util;
+
+/**
+ * Point-in-time statistics of one DAO or service method.
+ *
+ * @param operation   the interface and method, e.g. {@code ITeacherDAO.getById(Long)}
+ * @param calls       completed calls
+ * @param errors      calls that threw
+ * @param p50Millis   median latency
+ * @param p99Millis   99th percentile latency
+ * @param maxMillis   longest call
+ * @param statements  JDBC statements and batches executed by all calls
+ * @param entityLoads entities loaded from the database or the second-level cache by all calls
+ * @param flushes     persistence context flushes by all calls
+ */
+public record OperationStats(String operation,
+                             long calls,
+                             long errors,
+                             double p50Millis,
+                             double p99Millis,
+                             double maxMillis,
+                             long statements,
+                             long entityLoads,
+                             long flushes) {
+
+    /**
+     * @return the mean number of JDBC round trips per call
+     */
+    public double statementsPerCall() {
+        return calls == 0 ? 0.0 : (double) statements / calls;
+    }
+}
@@ -0,0 +1,51 @@
+package gr.aueb.cf.util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records connection acquisition latency reported by HikariCP.
+ */
+class PoolMetricsTracker implements IMetricsTracker, MetricsTrackerFactory {
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, com.zaxxer.hikari.metrics.PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireCount.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    double getMeanAcquireMillis() {
+        long count = acquireCount.sum();
+        return count == 0 ? 0.0 : acquireNanos.sum() / (count * 1_000_000.0);
+    }
+
+    double getMaxAcquireMillis() {
+        return maxAcquireNanos.get() / 1_000_000.0;
+    }
+
+    long getTimeouts() {
+        return timeouts.sum();
+    }
+}
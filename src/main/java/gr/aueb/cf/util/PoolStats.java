@@ -0,0 +1,23 @@
+package gr.aueb.cf.util;
+
+/**
+ * Point-in-time statistics of the JDBC connection pool.
+ *
+ * @param activeConnections  connections currently handed out
+ * @param idleConnections    connections waiting in the pool
+ * @param totalConnections   active plus idle connections
+ * @param waitingThreads     threads blocked waiting for a connection
+ * @param acquireCount       connections acquired since the pool started
+ * @param meanAcquireMillis  mean time to acquire a connection
+ * @param maxAcquireMillis   longest time to acquire a connection
+ * @param acquireTimeouts    acquisitions that failed with a connection timeout
+ */
+public record PoolStats(int activeConnections,
+                        int idleConnections,
+                        int totalConnections,
+                        int waitingThreads,
+                        long acquireCount,
+                        double meanAcquireMillis,
+                        double maxAcquireMillis,
+                        long acquireTimeouts) {
+}
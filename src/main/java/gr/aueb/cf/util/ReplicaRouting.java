@@ -0,0 +1,86 @@
+package gr.aueb.cf.util;
+
+import java.time.Duration;
+
+/**
+ * Decides per thread whether reads may go to a read replica.
+ * <p>
+ * When {@code db.replica.urls} is set, the reporting reads of the DAOs take their EntityManager from
+ * {@link JPAUtil#getReadEntityManager()}, which serves them from a replica unless the current thread needs to
+ * read its own writes, which replicas may not have applied yet. That is the case
+ * <ul>
+ *     <li>inside a {@link UnitOfWork}, whose EntityManager is always on the primary;</li>
+ *     <li>inside {@link #onPrimary(UnitOfWork.Work)}, for a read-your-writes session spanning several calls;</li>
+ *     <li>for {@code db.replica.read-your-writes-ms} after the thread last wrote to the primary.</li>
+ * </ul>
+ * The state is thread-local, so a write made on one thread (e.g. by an async service) does not pin reads made
+ * on another; wrap such flows in {@link #onPrimary(UnitOfWork.Work)}.
+ */
+public final class ReplicaRouting {
+    private static final ThreadLocal<Affinity> AFFINITY = ThreadLocal.withInitial(Affinity::new);
+    private static volatile long readYourWritesNanos = Duration.ofSeconds(2).toNanos();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Runs the work with every read on the primary.
+     *
+     * @param work the work
+     * @return the result of the work
+     * @throws Exception whatever the work throws
+     */
+    public static <T> T onPrimary(UnitOfWork.Work<T> work) throws Exception {
+        Affinity affinity = AFFINITY.get();
+        affinity.primaryScopes++;
+        try {
+            return work.execute();
+        } finally {
+            affinity.primaryScopes--;
+        }
+    }
+
+    /**
+     * Runs the work with every read on the primary.
+     *
+     * @param work the work
+     * @throws Exception whatever the work throws
+     */
+    public static void onPrimary(UnitOfWork.VoidWork work) throws Exception {
+        onPrimary(() -> {
+            work.execute();
+            return null;
+        });
+    }
+
+    /**
+     * @return {@code true} if reads on the current thread must see its own writes and so go to the primary
+     */
+    public static boolean isPrimaryRequired() {
+        if (UnitOfWork.isActive()) {
+            return true;
+        }
+        Affinity affinity = AFFINITY.get();
+        return affinity.primaryScopes > 0
+                || affinity.wrote && System.nanoTime() - affinity.lastWrite < readYourWritesNanos;
+    }
+
+    /**
+     * Records that the current thread has just written to the primary.
+     */
+    static void recordWrite() {
+        Affinity affinity = AFFINITY.get();
+        affinity.wrote = true;
+        affinity.lastWrite = System.nanoTime();
+    }
+
+    static void setReadYourWritesWindow(Duration window) {
+        readYourWritesNanos = window.toNanos();
+    }
+
+    private static final class Affinity {
+        int primaryScopes;
+        boolean wrote;
+        long lastWrite;
+    }
+}
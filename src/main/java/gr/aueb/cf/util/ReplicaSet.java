@@ -0,0 +1,260 @@
+package gr.aueb.cf.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The read replicas behind {@link JPAUtil#getReadEntityManager()}, each with its own connection pool.
+ * <p>
+ * A read session takes a connection from the next healthy replica, chosen round-robin or as the one with the
+ * fewest connections in use ({@code db.replica.selection}), and hands it to Hibernate as the session's
+ * connection. A replica whose pool is exhausted is busy, not down: the next one is tried, and with none left
+ * the read goes to the primary. A replica that fails to give a connection for any other reason is marked
+ * down. A background check opens a connection of its own, outside the pool, to every replica each
+ * {@code db.replica.health-check-ms}; it marks unreachable ones down and brings recovered ones back.
+ * <p>
+ * Replica sessions are read-only and only read the second-level cache ({@link CacheMode#GET}), so rows from a
+ * lagging replica are never cached for the primary's readers.
+ */
+final class ReplicaSet implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(ReplicaSet.class.getName());
+
+    /**
+     * How a read picks among the healthy replicas.
+     */
+    enum Selection {
+        ROUND_ROBIN,
+        LEAST_LOADED;
+
+        static Selection of(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+    private final ScheduledExecutorService healthCheck;
+
+    ReplicaSet(List<HikariDataSource> dataSources, Selection selection, Duration healthCheckInterval,
+               Duration validationTimeout) {
+        this.replicas = dataSources.stream().map(Replica::new).toList();
+        this.selection = selection;
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("db-replica-health").daemon().factory());
+        healthCheck.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a read-only EntityManager on a healthy replica.
+     *
+     * @param factory the factory whose mappings and caches the session shares
+     * @return the EntityManager, which returns its connection when closed, or {@code null} if no replica is
+     * available
+     */
+    EntityManager openEntityManager(EntityManagerFactory factory) {
+        Connection connection = acquire();
+        if (connection == null) {
+            fallbacks.increment();
+            return null;
+        }
+        try {
+            Session session = factory.unwrap(SessionFactory.class).withOptions().connection(connection).openSession();
+            session.setCacheMode(CacheMode.GET);
+            session.setDefaultReadOnly(true);
+            return readSession(session, connection);
+        } catch (RuntimeException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the statistics of every replica, in configuration order
+     */
+    List<ReplicaStats> stats() {
+        return replicas.stream().map(Replica::stats).toList();
+    }
+
+    /**
+     * @return the reads that went to the primary because no replica was available
+     */
+    long fallbacks() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Connection acquire() {
+        int count = replicas.size();
+        int first = selection == Selection.LEAST_LOADED ? leastLoaded() : Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((first + i) % count);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLTransientConnectionException e) {
+                if (replica.saturated()) {
+                    // Timed out waiting for a connection in use, not for one to be opened
+                    replica.busy.increment();
+                } else {
+                    replica.markDown(e);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        return null;
+    }
+
+    private int leastLoaded() {
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            int active = replica.activeConnections();
+            if (replica.healthy && active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Validates every replica on a connection opened just for the check, so that a busy pool neither delays it
+     * nor keeps a replica down.
+     */
+    private void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.openDirect()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(new SQLException("Connection validation failed"));
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    /**
+     * Wraps a replica session so that closing it also returns its connection to the pool.
+     */
+    private static EntityManager readSession(Session session, Connection connection) {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        try {
+                            session.close();
+                        } finally {
+                            closeQuietly(connection);
+                        }
+                        yield null;
+                    }
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "ReadSession[" + session + "]";
+                    default -> {
+                        try {
+                            yield method.invoke(session, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Cannot return a replica connection", e);
+        }
+    }
+
+    private static final class Replica {
+        final HikariDataSource dataSource;
+        final LongAdder reads = new LongAdder();
+        final LongAdder busy = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markDown(Exception cause) {
+            failures.increment();
+            if (healthy) {
+                healthy = false;
+                LOGGER.log(System.Logger.Level.WARNING, "Replica " + dataSource.getPoolName()
+                        + " is down, reading from the others: " + cause.getMessage());
+            }
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                LOGGER.log(System.Logger.Level.INFO, "Replica " + dataSource.getPoolName() + " is back");
+            }
+        }
+
+        /**
+         * @return {@code true} if every connection the pool may hold is in use
+         */
+        boolean saturated() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null && pool.getActiveConnections() >= dataSource.getMaximumPoolSize();
+        }
+
+        Connection openDirect() throws SQLException {
+            return DriverManager.getConnection(dataSource.getJdbcUrl(), dataSource.getUsername(),
+                    dataSource.getPassword());
+        }
+
+        int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+
+        ReplicaStats stats() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return new ReplicaStats(dataSource.getPoolName(), healthy,
+                    pool == null ? 0 : pool.getActiveConnections(), pool == null ? 0 : pool.getIdleConnections(),
+                    reads.sum(), busy.sum(), failures.sum());
+        }
+    }
+}
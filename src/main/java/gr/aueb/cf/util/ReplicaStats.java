@@ -0,0 +1,21 @@
+package gr.aueb.cf.util;
+
+/**
+ * Point-in-time statistics of one read replica.
+ *
+ * @param name              the pool name of the replica
+ * @param healthy           whether reads are currently routed to it
+ * @param activeConnections connections currently handed out
+ * @param idleConnections   connections waiting in its pool
+ * @param reads             read sessions served since start
+ * @param busy              reads sent elsewhere since start because every pooled connection was in use
+ * @param failures          failed connection attempts and health checks since start
+ */
+public record ReplicaStats(String name,
+                           boolean healthy,
+                           int activeConnections,
+                           int idleConnections,
+                           long reads,
+                           long busy,
+                           long failures) {
+}
@@ -0,0 +1,50 @@
+package gr.aueb.cf.util;
+
+import org.hibernate.Interceptor;
+import org.hibernate.SessionEventListener;
+import org.hibernate.type.Type;
+
+/**
+ * Counts JDBC round trips, flushes and entity loads per thread, so that {@link Metrics} can attribute them to
+ * the DAO or service call running on that thread. Hibernate's own {@code Statistics} are global and cannot tell
+ * concurrent calls apart; these counters cost one thread-local increment per event.
+ * <p>
+ * JPAUtil installs the class both as the automatic session event listener (one instance per session) and as the
+ * factory-wide interceptor; the instances hold no state of their own.
+ */
+public final class SessionMetricsListener implements SessionEventListener, Interceptor {
+    static final int STATEMENTS = 0;
+    static final int ENTITY_LOADS = 1;
+    static final int FLUSHES = 2;
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[3]);
+
+    /**
+     * @return the running counters of the current thread, indexed by {@link #STATEMENTS}, {@link #ENTITY_LOADS}
+     * and {@link #FLUSHES}
+     */
+    static long[] counters() {
+        return COUNTERS.get();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        COUNTERS.get()[STATEMENTS]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        COUNTERS.get()[STATEMENTS]++;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        COUNTERS.get()[FLUSHES]++;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        COUNTERS.get()[ENTITY_LOADS]++;
+        return false;
+    }
+}
@@ -0,0 +1,202 @@
+package gr.aueb.cf.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a service operation in one EntityManager and one transaction.
+ * <p>
+ * While a unit of work is active on the current thread, {@link JPAUtil#getEntityManager()} hands out the
+ * unit's EntityManager, so the DAO implementations join it without any change: their {@code begin()},
+ * {@code commit()} and {@code close()} calls become no-ops and a {@code rollback()} marks the whole unit
+ * rollback-only. Entities loaded by one DAO call stay managed for the next one, and changes are flushed once
+ * when the outermost unit commits.
+ * <p>
+ * Units nest by joining the outer one. The context is held in a plain (non-inheritable) ThreadLocal that is
+ * removed when the outermost unit ends, so it is safe to use from virtual threads; work handed to another
+ * thread does not see the unit.
+ */
+public final class UnitOfWork {
+    private static final System.Logger LOGGER = System.getLogger(UnitOfWork.class.getName());
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final EntityManager entityManager;
+    private final EntityManager joinedEntityManager;
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+
+    /**
+     * A unit of work that returns a result.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute() throws Exception;
+    }
+
+    /**
+     * A unit of work without a result.
+     */
+    @FunctionalInterface
+    public interface VoidWork {
+        void execute() throws Exception;
+    }
+
+    private UnitOfWork(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.joinedEntityManager = (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> null;
+                    case "getTransaction" -> new JoinedTransaction(entityManager.getTransaction());
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "UnitOfWork[" + entityManager + "]";
+                    default -> {
+                        try {
+                            yield method.invoke(entityManager, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Runs the work in a unit of work, joining the current one if there is one.
+     * The outermost unit commits when the work returns and rolls back when it throws.
+     *
+     * @param work the work
+     * @return the result of the work
+     * @throws Exception whatever the work or the commit throws
+     */
+    public static <T> T execute(Work<T> work) throws Exception {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            try {
+                return work.execute();
+            } catch (Exception | Error e) {
+                current.markRollbackOnly();
+                throw e;
+            }
+        }
+
+        UnitOfWork unit = new UnitOfWork(JPAUtil.getEntityManagerFactory().createEntityManager());
+        CURRENT.set(unit);
+        T result;
+        try {
+            unit.entityManager.getTransaction().begin();
+            result = work.execute();
+            unit.entityManager.getTransaction().commit();
+        } catch (Exception | Error e) {
+            if (unit.entityManager.getTransaction().isActive()) {
+                unit.entityManager.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            CURRENT.remove();
+            unit.entityManager.close();
+        }
+        unit.runAfterCommitActions();
+        return result;
+    }
+
+    /**
+     * Runs the work in a unit of work, joining the current one if there is one.
+     *
+     * @param work the work
+     * @throws Exception whatever the work or the commit throws
+     */
+    public static void run(VoidWork work) throws Exception {
+        execute(() -> {
+            work.execute();
+            return null;
+        });
+    }
+
+    /**
+     * @return {@code true} if a unit of work is active on the current thread
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Registers an action to run once the current unit of work has committed.
+     * Without an active unit the action runs immediately. Actions are skipped on rollback, and an action that
+     * throws is logged without affecting the others.
+     *
+     * @param action the action
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            action.run();
+        } else {
+            current.afterCommitActions.add(action);
+        }
+    }
+
+    /**
+     * @return the EntityManager of the active unit of work, wrapped so DAOs cannot end it, or {@code null}
+     */
+    static EntityManager currentEntityManager() {
+        UnitOfWork current = CURRENT.get();
+        return current == null ? null : current.joinedEntityManager;
+    }
+
+    private void markRollbackOnly() {
+        if (entityManager.getTransaction().isActive()) {
+            entityManager.getTransaction().setRollbackOnly();
+        }
+    }
+
+    private void runAfterCommitActions() {
+        for (Runnable action : afterCommitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "After-commit action failed", e);
+            }
+        }
+    }
+
+    /**
+     * The transaction as seen by a DAO that joined the unit of work.
+     */
+    private record JoinedTransaction(EntityTransaction delegate) implements EntityTransaction {
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+            setRollbackOnly();
+        }
+
+        @Override
+        public void setRollbackOnly() {
+            delegate.setRollbackOnly();
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return delegate.getRollbackOnly();
+        }
+
+        @Override
+        public boolean isActive() {
+            return delegate.isActive();
+        }
+    }
+}
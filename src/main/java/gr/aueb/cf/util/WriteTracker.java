@@ -0,0 +1,42 @@
+package gr.aueb.cf.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Sees every SQL statement Hibernate prepares and records data-changing ones with
+ * {@link ReplicaRouting#recordWrite()}, which keeps the thread's next reads on the primary.
+ * JPAUtil installs it only when read replicas are configured; it leaves the SQL unchanged.
+ */
+final class WriteTracker implements StatementInspector {
+    private static final String[] WRITE_KEYWORDS = {"insert", "update", "delete", "merge", "replace"};
+
+    @Override
+    public String inspect(String sql) {
+        int start = firstKeyword(sql);
+        for (String keyword : WRITE_KEYWORDS) {
+            if (sql.regionMatches(true, start, keyword, 0, keyword.length())) {
+                ReplicaRouting.recordWrite();
+                break;
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * @return the index of the first character after leading whitespace and comments
+     */
+    private static int firstKeyword(String sql) {
+        int i = 0;
+        while (i < sql.length()) {
+            if (Character.isWhitespace(sql.charAt(i))) {
+                i++;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? sql.length() : end + 2;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+}
@@ -0,0 +1,14 @@
+-- Switches identifier generation from AUTO_INCREMENT to the pooled id_generators table (see PooledIdGenerator).
+-- Needed where the schema is not managed by hbm2ddl (db.schema-action=validate). The existing
+-- AUTO_INCREMENT attributes can stay: Hibernate now always supplies the ID explicitly.
+-- JPAUtil applies the same seeding on start unless db.id.migrate=false.
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    segment_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val     BIGINT
+);
+
+INSERT INTO id_generators (segment_name, next_val) SELECT 'regions', COALESCE(MAX(id), 0) + 1 FROM regions;
+INSERT INTO id_generators (segment_name, next_val) SELECT 'courses', COALESCE(MAX(id), 0) + 1 FROM courses;
+INSERT INTO id_generators (segment_name, next_val) SELECT 'teacher_more_info', COALESCE(MAX(id), 0) + 1 FROM teacher_more_info;
+INSERT INTO id_generators (segment_name, next_val) SELECT 'teachers', COALESCE(MAX(id), 0) + 1 FROM teachers;
@@ -0,0 +1,9 @@
+-- Indexes behind ITeacherDAO.search, for schemas not managed by hbm2ddl (db.schema-action=validate).
+-- Region filter with keyset paging by ID or by lastname (optionally narrowed by a lastname prefix),
+-- the date-of-birth range, and course lookups from the teacher side of the join table
+-- (its primary key starts with courses_id, the course side).
+
+CREATE INDEX idx_teachers_region_id ON teachers (region_id, id);
+CREATE INDEX idx_teachers_region_lastname_id ON teachers (region_id, lastname, id);
+CREATE INDEX idx_teacher_more_info_dob ON teacher_more_info (date_of_birth);
+CREATE INDEX idx_courses_teachers_teacher ON courses_teachers (teachers_id, courses_id);
@@ -0,0 +1,6 @@
+-- Optimistic-locking version columns (see the @Version fields of Teacher, Course and Region), for schemas not
+-- managed by hbm2ddl (db.schema-action=validate). Existing rows start at version 0.
+
+ALTER TABLE teachers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE courses ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE regions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
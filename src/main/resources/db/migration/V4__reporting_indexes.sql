@@ -0,0 +1,7 @@
+-- Indexes behind the aggregation queries of the reporting service, for schemas not managed by hbm2ddl
+-- (db.schema-action=validate). Teachers and active teachers per region are counted from the index alone,
+-- and so are courses per lesson type. Courses by teacher count read the primary key of the join table, and
+-- the age distribution the date-of-birth index of V2.
+
+CREATE INDEX idx_teachers_region_active ON teachers (region_id, active);
+CREATE INDEX idx_courses_lesson_type ON courses (lesson_type);
@@ -0,0 +1,6 @@
+-- Indexes behind the keyset-paged and streaming lastname and active finders of ITeacherDAO, for schemas not
+-- managed by hbm2ddl (db.schema-action=validate). Each seeks to the filter value and reads on in ID order, so
+-- a page starts after the last ID of the previous one without sorting.
+
+CREATE INDEX idx_teachers_lastname_id ON teachers (lastname, id);
+CREATE INDEX idx_teachers_active_id ON teachers (active, id);